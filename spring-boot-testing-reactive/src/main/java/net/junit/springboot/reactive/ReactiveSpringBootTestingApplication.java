@@ -0,0 +1,13 @@
+package net.junit.springboot.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class ReactiveSpringBootTestingApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(ReactiveSpringBootTestingApplication.class, args);
+	}
+
+}
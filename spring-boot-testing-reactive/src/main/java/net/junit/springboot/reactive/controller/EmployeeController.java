@@ -0,0 +1,106 @@
+package net.junit.springboot.reactive.controller;
+
+import net.junit.springboot.reactive.exception.PreconditionFailedException;
+import net.junit.springboot.reactive.model.Employee;
+import net.junit.springboot.reactive.service.EmployeeService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/employees")
+public class EmployeeController {
+
+    private EmployeeService employeeService;
+
+    public EmployeeController(EmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<Employee> createEmployee(@RequestBody Employee employee){
+        return employeeService.saveEmployee(employee);
+    }
+
+    // written to the response as the client drains it, either as one JSON array or one employee per line
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Employee> getAllEmployees(){
+        return employeeService.getAllEmployees();
+    }
+
+    @GetMapping("/by-name")
+    public Flux<Employee> getEmployeesByName(@RequestParam("firstName") String firstName,
+                                             @RequestParam("lastName") String lastName,
+                                             @RequestParam(value = "limit", defaultValue = "50") int limit){
+        return employeeService.getEmployeesByName(firstName, lastName, limit);
+    }
+
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<Employee>> getEmployeeById(@PathVariable("id") long employeeId){
+        return employeeService.getEmployeeById(employeeId)
+                .map(employee -> ResponseEntity.ok().eTag(eTag(employee)).body(employee))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    // same ETag / If-Match contract as the servlet controller, a stale ETag gets 412
+    @PutMapping("{id}")
+    public Mono<ResponseEntity<Employee>> updateEmployee(@PathVariable("id") long employeeId,
+                                                         @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                         @RequestBody Employee employee){
+        return employeeService.updateEmployee(employeeId, expectedVersion(employeeId, ifMatch), employee)
+                .map(updatedEmployee -> ResponseEntity.ok().eTag(eTag(updatedEmployee)).body(updatedEmployee))
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("{id}")
+    public Mono<ResponseEntity<String>> deleteEmployee(@PathVariable("id") long employeeId){
+        return employeeService.deleteEmployee(employeeId)
+                .map(deleted -> deleted
+                        ? new ResponseEntity<String>("Employee deleted successfully!.", HttpStatus.OK)
+                        : ResponseEntity.notFound().<String>build());
+    }
+
+    static String eTag(Employee employee) {
+        return employee.getId() + "-" + employee.getVersion();
+    }
+
+    static Long expectedVersion(long employeeId, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Long expected = null;
+        for (String tag : ifMatch.split(",")) {
+            Long version = version(employeeId, tag.trim());
+            if (version == null) {
+                continue;
+            }
+            if (expected != null && !expected.equals(version)) {
+                throw new PreconditionFailedException("If-Match " + ifMatch.trim() + " names more than one version of employee " + employeeId);
+            }
+            expected = version;
+        }
+        if (expected == null) {
+            throw new PreconditionFailedException("If-Match " + ifMatch.trim() + " does not match employee " + employeeId);
+        }
+        return expected;
+    }
+
+    // If-Match uses strong comparison, so weak or foreign tags can never match (null)
+    static Long version(long employeeId, String tag) {
+        String prefix = "\"" + employeeId + "-";
+        if (!tag.startsWith(prefix) || !tag.endsWith("\"") || tag.length() == prefix.length()) {
+            return null;
+        }
+        try {
+            return Long.parseLong(tag.substring(prefix.length(), tag.length() - 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+}
@@ -0,0 +1,12 @@
+package net.junit.springboot.reactive.exception;
+
+public class ResourceNotFoundException extends RuntimeException{
+
+    public ResourceNotFoundException(String message){
+        super(message);
+    }
+
+    public ResourceNotFoundException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
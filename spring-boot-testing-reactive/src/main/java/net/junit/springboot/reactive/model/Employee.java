@@ -0,0 +1,44 @@
+package net.junit.springboot.reactive.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+// same "employees" table and JSON shape as the JPA entity of the servlet application
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Table("employees")
+public class Employee {
+
+    public static final String EMAIL_UNIQUE_INDEX = "uk_employees_email";
+
+    @Id
+    private long id;
+
+    @Column("first_name")
+    private String firstName;
+
+    @Column("last_name")
+    private String lastName;
+
+    @Column("email")
+    private String email;
+
+    @Version
+    @Column("version")
+    private long version;
+
+    // stamped by the servlet application when soft delete is on, such rows are filtered out of every query
+    @JsonIgnore
+    @Column("deleted_at")
+    private Instant deletedAt;
+
+}
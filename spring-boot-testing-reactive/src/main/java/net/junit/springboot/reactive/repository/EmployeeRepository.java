@@ -0,0 +1,57 @@
+package net.junit.springboot.reactive.repository;
+
+import net.junit.springboot.reactive.model.Employee;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+// soft-deleted rows are skipped by every read, the servlet application filters them the same way
+public interface EmployeeRepository extends ReactiveCrudRepository<Employee, Long> {
+
+    @Override
+    @Query("select * from employees e where e.deleted_at is null")
+    Flux<Employee> findAll();
+
+    @Override
+    @Query("select * from employees e where e.id = :id and e.deleted_at is null")
+    Mono<Employee> findById(@Param("id") Long id);
+
+    @Override
+    @Query("select count(*) > 0 from employees e where e.id = :id and e.deleted_at is null")
+    Mono<Boolean> existsById(@Param("id") Long id);
+
+    @Query("select * from employees e where e.email = :email and e.deleted_at is null")
+    Mono<Employee> findByEmail(@Param("email") String email);
+
+    //name lookup that tolerates several employees sharing a name, served by idx_employees_name
+    Flux<Employee> findByFirstNameAndLastNameAndDeletedAtIsNullOrderByIdAsc(String firstName, String lastName, Limit limit);
+
+    //define custom query using SQL with named params, R2DBC has no JPQL and index markers are driver specific
+    @Query("select * from employees e where e.first_name = :firstName and e.last_name = :lastName and e.deleted_at is null")
+    Mono<Employee> findByNativeSQLNamed(@Param("firstName") String firstName, @Param("lastName") String lastName);
+
+    //version check and write in one statement, a null version updates unconditionally
+    @Modifying
+    @Query("update employees set first_name = :firstName, last_name = :lastName, email = :email, version = version + 1 "
+            + "where id = :id and deleted_at is null and (:version is null or version = :version)")
+    Mono<Integer> updateIfVersionMatches(@Param("id") long id, @Param("version") Long version,
+                                         @Param("firstName") String firstName, @Param("lastName") String lastName,
+                                         @Param("email") String email);
+
+    //removes only an employee the reads can still see and reports whether it did
+    @Modifying
+    @Query("delete from employees where id = :id and deleted_at is null")
+    Mono<Integer> deleteIfPresent(@Param("id") long id);
+
+    //soft delete as in the servlet application, the email is moved aside to deleted:<id>:<email>
+    @Modifying
+    @Query("update employees set deleted_at = :now, version = version + 1, "
+            + "email = left(concat('deleted:', id, ':', email), 255) where id = :id and deleted_at is null")
+    Mono<Integer> softDeleteIfPresent(@Param("id") long id, @Param("now") Instant now);
+}
@@ -0,0 +1,20 @@
+package net.junit.springboot.reactive.service;
+
+import net.junit.springboot.reactive.model.Employee;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface EmployeeService {
+    Mono<Employee> saveEmployee(Employee employee);
+
+    Flux<Employee> getAllEmployees();
+
+    Flux<Employee> getEmployeesByName(String firstName, String lastName, int limit);
+
+    Mono<Employee> getEmployeeById(long id);
+
+    Mono<Employee> updateEmployee(long id, Long expectedVersion, Employee employee);
+
+    Mono<Boolean> deleteEmployee(long id);
+
+}
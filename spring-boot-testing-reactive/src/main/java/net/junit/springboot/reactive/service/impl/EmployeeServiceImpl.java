@@ -0,0 +1,103 @@
+package net.junit.springboot.reactive.service.impl;
+
+import net.junit.springboot.reactive.exception.PreconditionFailedException;
+import net.junit.springboot.reactive.exception.ResourceNotFoundException;
+import net.junit.springboot.reactive.model.Employee;
+import net.junit.springboot.reactive.repository.EmployeeRepository;
+import net.junit.springboot.reactive.service.EmployeeService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Locale;
+
+@Service
+public class EmployeeServiceImpl implements EmployeeService {
+
+    static final int MAX_PAGE_SIZE = 1000;
+
+    private EmployeeRepository employeeRepository;
+
+    private boolean softDelete;
+
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository,
+                               @Value("${app.employees.soft-delete:false}") boolean softDelete) {
+        this.employeeRepository = employeeRepository;
+        this.softDelete = softDelete;
+    }
+
+    @Override
+    public Mono<Employee> saveEmployee(Employee employee) {
+
+        // the unique constraint on email is the duplicate check, so a create is a single insert
+        return employeeRepository.save(employee)
+                .onErrorMap(EmployeeServiceImpl::isDuplicateEmail, e -> new ResourceNotFoundException(
+                        "Employee already exit with given email: " + employee.getEmail(), e));
+    }
+
+    @Override
+    public Flux<Employee> getAllEmployees() {
+        // rows are pulled from the driver as the subscriber requests them, nothing is buffered up front
+        return employeeRepository.findAll();
+    }
+
+    @Override
+    public Flux<Employee> getEmployeesByName(String firstName, String lastName, int limit) {
+        return employeeRepository.findByFirstNameAndLastNameAndDeletedAtIsNullOrderByIdAsc(
+                firstName, lastName, Limit.of(Math.max(1, Math.min(limit, MAX_PAGE_SIZE))));
+    }
+
+    @Override
+    public Mono<Employee> getEmployeeById(long id) {
+        return employeeRepository.findById(id);
+    }
+
+    @Override
+    public Mono<Employee> updateEmployee(long id, Long expectedVersion, Employee employee) {
+        // a single version-checked UPDATE, so no concurrent change can slip in between a read and the write
+        return employeeRepository.updateIfVersionMatches(id, expectedVersion,
+                        employee.getFirstName(), employee.getLastName(), employee.getEmail())
+                .flatMap(updated -> updated > 0 ? employeeRepository.findById(id) : notUpdated(id, expectedVersion))
+                .onErrorMap(EmployeeServiceImpl::isDuplicateEmail, e -> new ResourceNotFoundException(
+                        "Employee already exit with given email: " + employee.getEmail(), e));
+    }
+
+    // nothing matched: either the employee is gone (404) or it is at another version (412)
+    private Mono<Employee> notUpdated(long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            return Mono.empty();
+        }
+        return employeeRepository.existsById(id)
+                .flatMap(exists -> exists
+                        ? Mono.error(new PreconditionFailedException(
+                                "Employee " + id + " is not at version " + expectedVersion))
+                        : Mono.empty());
+    }
+
+    @Override
+    public Mono<Boolean> deleteEmployee(long id) {
+        // a soft-deleted row is already gone for the reads, so it is left alone and answers 404
+        Mono<Integer> deleted = softDelete
+                ? employeeRepository.softDeleteIfPresent(id, Instant.now())
+                : employeeRepository.deleteIfPresent(id);
+        return deleted.map(count -> count > 0);
+    }
+
+    // R2DBC drivers do not expose the constraint name, so look for it in the driver messages
+    static boolean isDuplicateEmail(Throwable e) {
+        if (!(e instanceof DataIntegrityViolationException)) {
+            return false;
+        }
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null
+                    && cause.getMessage().toLowerCase(Locale.ROOT).contains(Employee.EMAIL_UNIQUE_INDEX)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,193 @@
+package net.junit.springboot.reactive.controller;
+
+import net.junit.springboot.reactive.model.Employee;
+import net.junit.springboot.reactive.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+@WebFluxTest
+public class EmployeeControllerTests {
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    @DisplayName("Junit test for create employee REST API")
+    @Test
+    public void givenEmployeeObject_whenCreateEmployee_thenReturnSavedEmployee() {
+        // given - precondition or setup
+        Employee employee = Employee.builder()
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email("ankesh@gmail.com")
+                .build();
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willAnswer((invocation) -> Mono.just(invocation.getArgument(0)));
+
+        // when - action or behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.post().uri("/api/employees")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange();
+
+        // then - verify the result or output using assert statements
+        response.expectStatus().isCreated()
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo(employee.getFirstName())
+                .jsonPath("$.email").isEqualTo(employee.getEmail());
+    }
+
+    @DisplayName("Junit test for get all employees REST API")
+    @Test
+    public void givenListOfEmployees_whenGetAllEmployees_thenReturnEmployeesList() {
+        // given - precondition or setup
+        given(employeeService.getAllEmployees()).willReturn(Flux.just(
+                Employee.builder().id(1L).firstName("Ankesh").lastName("Tiwari").email("ankesh@gmail.com").build(),
+                Employee.builder().id(2L).firstName("Tony").lastName("Stark").email("tony@gmail.com").build()));
+
+        // when - action or behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees").exchange();
+
+        // then - verify the output
+        response.expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].email").isEqualTo("tony@gmail.com");
+    }
+
+    @DisplayName("Junit test for streaming all employees as ndjson")
+    @Test
+    public void givenListOfEmployees_whenGetAllEmployeesAsNdjson_thenStreamOneEmployeePerLine() {
+        // given - precondition or setup
+        given(employeeService.getAllEmployees()).willReturn(Flux.range(1, 3)
+                .map(i -> Employee.builder().id(i).firstName("first" + i).lastName("last" + i).email(i + "@gmail.com").build()));
+
+        // when - action or behaviour that we are going to test
+        Flux<Employee> body = webTestClient.get().uri("/api/employees")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(Employee.class)
+                .getResponseBody();
+
+        // then - verify the output
+        StepVerifier.create(body.map(Employee::getEmail))
+                .expectNext("1@gmail.com", "2@gmail.com", "3@gmail.com")
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for get employee by id REST API")
+    @Test
+    public void givenEmployeeId_whenGetEmployeeById_thenReturnEmployeeObjectWithETag() {
+        // given - precondition or setup
+        long employeeId = 1L;
+        Employee employee = Employee.builder().id(employeeId).firstName("Ankesh").lastName("Tiwari")
+                .email("ankesh@gmail.com").version(3L).build();
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Mono.just(employee));
+
+        // when - action or behaviour that we are going to test
+        WebTestClient.ResponseSpec response = webTestClient.get().uri("/api/employees/{id}", employeeId).exchange();
+
+        // then - verify the output
+        response.expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1-3\"")
+                .expectBody()
+                .jsonPath("$.firstName").isEqualTo("Ankesh");
+    }
+
+    @DisplayName("Junit test for get employee by id REST API (negative scenario)")
+    @Test
+    public void givenInvalidEmployeeId_whenGetEmployeeById_thenReturnEmpty() {
+        // given - precondition or setup
+        given(employeeService.getEmployeeById(1L)).willReturn(Mono.empty());
+
+        // when - action or behaviour that we are going to test
+        // then - verify the output
+        webTestClient.get().uri("/api/employees/{id}", 1L).exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @DisplayName("Junit test for update employee REST API with a stale If-Match")
+    @Test
+    public void givenForeignETag_whenUpdateEmployee_thenReturn412() {
+        // given - precondition or setup
+        Employee employee = Employee.builder().firstName("Ram").lastName("Tiwari").email("ram@gmail.com").build();
+
+        // when - action or behaviour that we are going to test
+        // then - verify the output
+        webTestClient.put().uri("/api/employees/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"2-0\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        verify(employeeService, never()).updateEmployee(anyLong(), any(), any());
+    }
+
+    @DisplayName("Junit test for update employee REST API with a list of ETags in If-Match")
+    @Test
+    public void givenIfMatchList_whenUpdateEmployee_thenEveryTagIsRead() {
+        // given - precondition or setup
+        Employee employee = Employee.builder().firstName("Ram").lastName("Tiwari").email("ram@gmail.com").build();
+        Employee updatedEmployee = Employee.builder().id(1L).firstName("Ram").lastName("Tiwari")
+                .email("ram@gmail.com").version(4L).build();
+        given(employeeService.updateEmployee(eq(1L), eq(3L), any(Employee.class))).willReturn(Mono.just(updatedEmployee));
+
+        // when - action or behaviour that we are going to test
+        // then - verify the output
+        webTestClient.put().uri("/api/employees/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "W/\"1-9\", \"7-2\", \"1-3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"1-4\"");
+        webTestClient.put().uri("/api/employees/{id}", 1L)
+                .header(HttpHeaders.IF_MATCH, "\"1-2\", \"1-3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(employee)
+                .exchange()
+                .expectStatus().isEqualTo(412);
+        verify(employeeService, times(1)).updateEmployee(anyLong(), any(), any());
+    }
+
+    @DisplayName("Junit test for delete employee REST API")
+    @Test
+    public void givenEmployeeId_whenDeleteEmployee_thenReturn200() {
+        // given - precondition or setup
+        given(employeeService.deleteEmployee(1L)).willReturn(Mono.just(true));
+
+        // when - action or behaviour that we are going to test
+        // then - verify the output
+        webTestClient.delete().uri("/api/employees/{id}", 1L).exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).isEqualTo("Employee deleted successfully!.");
+    }
+
+    @DisplayName("Junit test for delete employee REST API with a missing employee")
+    @Test
+    public void givenMissingEmployeeId_whenDeleteEmployee_thenReturn404() {
+        // given - precondition or setup
+        given(employeeService.deleteEmployee(1L)).willReturn(Mono.just(false));
+
+        // when - action or behaviour that we are going to test
+        // then - verify the output
+        webTestClient.delete().uri("/api/employees/{id}", 1L).exchange()
+                .expectStatus().isNotFound();
+    }
+}
@@ -0,0 +1,245 @@
+package net.junit.springboot.reactive.repository;
+
+import net.junit.springboot.reactive.model.Employee;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.data.r2dbc.DataR2dbcTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataR2dbcTest
+public class EmployeeRepositoryTests {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setUp(){
+        // the in-memory database outlives a single test and R2DBC tests do not roll back
+        employeeRepository.deleteAll().block();
+
+        employee = Employee.builder()
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email("ankesh@gmail.com")
+                .build();
+    }
+
+    @DisplayName("Junit test for save employee operation")
+    @Test
+    public void givenEmployeeObject_whenSave_thenReturnSavedEmployee() {
+
+        // given - precondition or setup
+
+        // when - action or the behaviour that we are going test
+        StepVerifier.create(employeeRepository.save(employee))
+                // then - verify the output
+                .assertNext(savedEmployee -> {
+                    assertThat(savedEmployee.getId()).isGreaterThan(0);
+                    // Spring Data Relational starts a primitive version at 1 (JPA starts at 0)
+                    assertThat(savedEmployee.getVersion()).isEqualTo(1);
+                })
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for get all employees operation")
+    @Test
+    public void givenEmployeeList_whenFindAll_thenStreamEmployeesOnDemand() {
+        // given- precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("akt")
+                .lastName("wl")
+                .email("akt@gmail.com")
+                .build();
+        employeeRepository.saveAll(Flux.just(employee, employee1)).blockLast();
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output, one row per request
+        StepVerifier.create(employeeRepository.findAll(), 1)
+                .expectNextCount(1)
+                .thenRequest(1)
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for get employee by email operation")
+    @Test
+    public void givenEmployeeEmail_whenFindByEmail_thenReturnEmployeeObject() {
+        // given- precondition or setup
+        employeeRepository.save(employee).block();
+
+        // when - action or the behaviour that we are going test
+        StepVerifier.create(employeeRepository.findByEmail(employee.getEmail()))
+                // then - verify the output
+                .assertNext(employeeDB -> assertThat(employeeDB.getFirstName()).isEqualTo("Ankesh"))
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for duplicate email operation")
+    @Test
+    public void givenExistingEmail_whenSave_thenUniqueConstraintRejectsIt() {
+        // given- precondition or setup
+        employeeRepository.save(employee).block();
+        Employee duplicate = Employee.builder()
+                .firstName("Other")
+                .lastName("Person")
+                .email(employee.getEmail())
+                .build();
+
+        // when - action or the behaviour that we are going test
+        StepVerifier.create(employeeRepository.save(duplicate))
+                // then - verify the output
+                .expectError(DataIntegrityViolationException.class)
+                .verify();
+    }
+
+    @DisplayName("Junit test for find employees by name operation")
+    @Test
+    public void givenEmployeesSharingAName_whenFindByFirstNameAndLastName_thenReturnLimitedInIdOrder() {
+        // given- precondition or setup
+        Employee employee1 = Employee.builder().firstName("Ankesh").lastName("Tiwari").email("a1@gmail.com").build();
+        Employee employee2 = Employee.builder().firstName("Ankesh").lastName("Tiwari").email("a2@gmail.com").build();
+        employeeRepository.saveAll(Flux.just(employee, employee1, employee2)).blockLast();
+
+        // when - action or the behaviour that we are going test
+        StepVerifier.create(employeeRepository.findByFirstNameAndLastNameAndDeletedAtIsNullOrderByIdAsc("Ankesh", "Tiwari", Limit.of(2))
+                        .map(Employee::getEmail))
+                // then - verify the output
+                .expectNext("ankesh@gmail.com", "a1@gmail.com")
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for custom query using SQL with named params")
+    @Test
+    public void givenFirstNameAndLastName_whenFindByNativeSQLNamed_thenReturnEmployeeObject() {
+        // given- precondition or setup
+        employeeRepository.save(employee).block();
+
+        // when - action or the behaviour that we are going test
+        StepVerifier.create(employeeRepository.findByNativeSQLNamed("Ankesh", "Tiwari"))
+                // then - verify the output
+                .assertNext(savedEmployee -> assertThat(savedEmployee.getEmail()).isEqualTo("ankesh@gmail.com"))
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for update employee operation")
+    @Test
+    public void givenEmployeeObject_whenUpdateEmployee_thenVersionIsBumped() {
+        // given- precondition or setup
+        Employee savedEmployee = employeeRepository.save(employee).block();
+
+        // when - action or the behaviour that we are going test
+        savedEmployee.setEmail("ram@gmail.com");
+        Employee updatedEmployee = employeeRepository.save(savedEmployee).block();
+
+        // then - verify the output
+        assertThat(updatedEmployee.getVersion()).isEqualTo(2);
+        StepVerifier.create(employeeRepository.findByEmail("ram@gmail.com"))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for delete employee operation")
+    @Test
+    public void givenEmployeeObject_whenDelete_thenRemoveEmployee() {
+        // given- precondition or setup
+        Employee savedEmployee = employeeRepository.save(employee).block();
+
+        // when - action or the behaviour that we are going test
+        employeeRepository.deleteById(savedEmployee.getId()).block();
+
+        // then - verify the output
+        StepVerifier.create(employeeRepository.findById(savedEmployee.getId()))
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for delete of a soft deleted employee")
+    @Test
+    public void givenSoftDeletedEmployee_whenDeleteIfPresent_thenRowIsKept() {
+        // given- precondition or setup
+        Employee savedEmployee = employeeRepository.save(employee).block();
+        Employee deletedEmployee = employeeRepository.save(Employee.builder()
+                .firstName("Ram").lastName("Tiwari").email("ram@gmail.com").deletedAt(Instant.now()).build()).block();
+
+        // when - action or the behaviour that we are going test
+        Integer deleted = employeeRepository.deleteIfPresent(savedEmployee.getId()).block();
+        Integer softDeleted = employeeRepository.deleteIfPresent(deletedEmployee.getId()).block();
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(1);
+        assertThat(softDeleted).isZero();
+        StepVerifier.create(employeeRepository.count()).expectNext(1L).verifyComplete();
+    }
+
+    @DisplayName("Junit test for soft delete operation")
+    @Test
+    public void givenEmployeeObject_whenSoftDeleteIfPresent_thenRowIsHiddenAndEmailFreed() {
+        // given- precondition or setup
+        Employee savedEmployee = employeeRepository.save(employee).block();
+
+        // when - action or the behaviour that we are going test
+        Integer deleted = employeeRepository.softDeleteIfPresent(savedEmployee.getId(), Instant.now()).block();
+        Integer deletedAgain = employeeRepository.softDeleteIfPresent(savedEmployee.getId(), Instant.now()).block();
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(1);
+        assertThat(deletedAgain).isZero();
+        StepVerifier.create(employeeRepository.findById(savedEmployee.getId())).verifyComplete();
+        // the row is kept for the purge, but its email can be taken right away
+        StepVerifier.create(employeeRepository.count()).expectNext(1L).verifyComplete();
+        StepVerifier.create(employeeRepository.save(Employee.builder()
+                        .firstName("Ram").lastName("Tiwari").email(employee.getEmail()).build()))
+                .assertNext(newEmployee -> assertThat(newEmployee.getId()).isNotEqualTo(savedEmployee.getId()))
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for version checked update operation")
+    @Test
+    public void givenVersion_whenUpdateIfVersionMatches_thenOnlyTheCurrentVersionIsUpdated() {
+        // given- precondition or setup
+        Employee savedEmployee = employeeRepository.save(employee).block();
+
+        // when - action or the behaviour that we are going test
+        Integer stale = employeeRepository.updateIfVersionMatches(savedEmployee.getId(), savedEmployee.getVersion() + 1,
+                "Ram", "Tiwari", "ram@gmail.com").block();
+        Integer current = employeeRepository.updateIfVersionMatches(savedEmployee.getId(), savedEmployee.getVersion(),
+                "Ram", "Tiwari", "ram@gmail.com").block();
+
+        // then - verify the output
+        assertThat(stale).isZero();
+        assertThat(current).isEqualTo(1);
+        StepVerifier.create(employeeRepository.findById(savedEmployee.getId()))
+                .assertNext(updatedEmployee -> {
+                    assertThat(updatedEmployee.getEmail()).isEqualTo("ram@gmail.com");
+                    assertThat(updatedEmployee.getVersion()).isEqualTo(savedEmployee.getVersion() + 1);
+                })
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for soft deleted employees")
+    @Test
+    public void givenSoftDeletedEmployee_whenFind_thenItIsSkipped() {
+        // given- precondition or setup
+        employee.setDeletedAt(Instant.now());
+        Employee savedEmployee = employeeRepository.save(employee).block();
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output
+        StepVerifier.create(employeeRepository.findById(savedEmployee.getId())).verifyComplete();
+        StepVerifier.create(employeeRepository.findAll()).verifyComplete();
+        StepVerifier.create(employeeRepository.findByEmail(employee.getEmail())).verifyComplete();
+        StepVerifier.create(employeeRepository.findByNativeSQLNamed("Ankesh", "Tiwari")).verifyComplete();
+        StepVerifier.create(employeeRepository.updateIfVersionMatches(savedEmployee.getId(), null,
+                "Ram", "Tiwari", "ram@gmail.com")).expectNext(0).verifyComplete();
+    }
+}
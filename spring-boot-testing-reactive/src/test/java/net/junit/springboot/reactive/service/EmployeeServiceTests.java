@@ -0,0 +1,220 @@
+package net.junit.springboot.reactive.service;
+
+import net.junit.springboot.reactive.exception.PreconditionFailedException;
+import net.junit.springboot.reactive.exception.ResourceNotFoundException;
+import net.junit.springboot.reactive.model.Employee;
+import net.junit.springboot.reactive.repository.EmployeeRepository;
+import net.junit.springboot.reactive.service.impl.EmployeeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willReturn;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+public class EmployeeServiceTests {
+
+    @Mock
+    private EmployeeRepository employeeRepository;
+
+    private EmployeeServiceImpl employeeService;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup(){
+        employeeService = new EmployeeServiceImpl(employeeRepository, false);
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email("ankesh@gmail.com")
+                .version(1L)
+                .build();
+    }
+
+    @DisplayName("Junit test for saveEmployee method")
+    @Test
+    public void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject(){
+        // given - precondition or setup
+        given(employeeRepository.save(employee)).willReturn(Mono.just(employee));
+
+        // when -  action or the behaviour that we are going test
+        // then - verify the output
+        StepVerifier.create(employeeService.saveEmployee(employee))
+                .expectNext(employee)
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for saveEmployee method which throws exception")
+    @Test
+    public void givenExistingEmail_whenSaveEmployee_thenThrowsException(){
+        // given - precondition or setup
+        given(employeeRepository.save(employee)).willReturn(Mono.error(new DuplicateKeyException("uk_employees_email")));
+
+        // when -  action or the behaviour that we are going test
+        // then - verify the output
+        StepVerifier.create(employeeService.saveEmployee(employee))
+                .expectError(ResourceNotFoundException.class)
+                .verify();
+    }
+
+    @DisplayName("Junit test for getAllEmployees method")
+    @Test
+    public void givenEmployeesList_whenGetAllEmployees_thenReturnEmployeesFlux(){
+        // given - precondition or setup
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("Tony")
+                .lastName("Stark")
+                .email("tony@gmail.com")
+                .build();
+        given(employeeRepository.findAll()).willReturn(Flux.just(employee, employee1));
+
+        // when -  action or the behaviour that we are going test
+        // then - verify the output
+        StepVerifier.create(employeeService.getAllEmployees())
+                .expectNext(employee, employee1)
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for getEmployeesByName method")
+    @Test
+    public void givenHugeLimit_whenGetEmployeesByName_thenLimitIsClamped(){
+        // given - precondition or setup
+        given(employeeRepository.findByFirstNameAndLastNameAndDeletedAtIsNullOrderByIdAsc("Ankesh", "Tiwari", Limit.of(1000)))
+                .willReturn(Flux.just(employee));
+
+        // when -  action or the behaviour that we are going test
+        // then - verify the output
+        StepVerifier.create(employeeService.getEmployeesByName("Ankesh", "Tiwari", 1_000_000))
+                .expectNext(employee)
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for updateEmployee method")
+    @Test
+    public void givenEmployeeObject_whenUpdateEmployee_thenReturnUpdatedEmployee(){
+        // given - precondition or setup
+        Employee changes = Employee.builder().firstName("Ram").lastName("Tiwari").email("ram@gmail.com").build();
+        Employee updated = Employee.builder().id(1L).firstName("Ram").lastName("Tiwari").email("ram@gmail.com").version(2L).build();
+        given(employeeRepository.updateIfVersionMatches(1L, 1L, "Ram", "Tiwari", "ram@gmail.com")).willReturn(Mono.just(1));
+        given(employeeRepository.findById(1L)).willReturn(Mono.just(updated));
+
+        // when -  action or the behaviour that we are going test
+        // then - verify the output
+        StepVerifier.create(employeeService.updateEmployee(1L, 1L, changes))
+                .assertNext(updatedEmployee -> {
+                    assertThat(updatedEmployee.getEmail()).isEqualTo("ram@gmail.com");
+                    assertThat(updatedEmployee.getFirstName()).isEqualTo("Ram");
+                    assertThat(updatedEmployee.getVersion()).isEqualTo(2L);
+                })
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for updateEmployee method with a stale version")
+    @Test
+    public void givenStaleVersion_whenUpdateEmployee_thenPreconditionFails(){
+        // given - precondition or setup
+        given(employeeRepository.updateIfVersionMatches(1L, 0L, "Ankesh", "Tiwari", "ankesh@gmail.com"))
+                .willReturn(Mono.just(0));
+        given(employeeRepository.existsById(1L)).willReturn(Mono.just(true));
+
+        // when -  action or the behaviour that we are going test
+        // then - verify the output
+        StepVerifier.create(employeeService.updateEmployee(1L, 0L, employee))
+                .expectError(PreconditionFailedException.class)
+                .verify();
+        verify(employeeRepository, never()).findById(1L);
+    }
+
+    @DisplayName("Junit test for deleteEmployee method")
+    @Test
+    public void givenEmployeeId_whenDeleteEmployee_thenTrue(){
+        // given - precondition or setup
+        long employeeId = 1L;
+        willReturn(Mono.just(1)).given(employeeRepository).deleteIfPresent(employeeId);
+
+        // when -  action or the behaviour that we are going test
+        // then - verify the output
+        StepVerifier.create(employeeService.deleteEmployee(employeeId))
+                .expectNext(true)
+                .verifyComplete();
+        verify(employeeRepository).deleteIfPresent(employeeId);
+    }
+
+    @DisplayName("Junit test for deleteEmployee method with a missing employee")
+    @Test
+    public void givenMissingEmployeeId_whenDeleteEmployee_thenFalse(){
+        // given - precondition or setup
+        long employeeId = 1L;
+        willReturn(Mono.just(0)).given(employeeRepository).deleteIfPresent(employeeId);
+
+        // when -  action or the behaviour that we are going test
+        // then - verify the output
+        StepVerifier.create(employeeService.deleteEmployee(employeeId))
+                .expectNext(false)
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for deleteEmployee method with soft delete on")
+    @Test
+    public void givenSoftDelete_whenDeleteEmployee_thenRowIsOnlyStamped(){
+        // given - precondition or setup
+        long employeeId = 1L;
+        employeeService = new EmployeeServiceImpl(employeeRepository, true);
+        given(employeeRepository.softDeleteIfPresent(eq(employeeId), any(Instant.class))).willReturn(Mono.just(1));
+
+        // when -  action or the behaviour that we are going test
+        // then - verify the output
+        StepVerifier.create(employeeService.deleteEmployee(employeeId))
+                .expectNext(true)
+                .verifyComplete();
+        verify(employeeRepository, never()).deleteIfPresent(employeeId);
+    }
+
+    @DisplayName("Junit test for updateEmployee method with a missing employee")
+    @Test
+    public void givenMissingEmployee_whenUpdateEmployee_thenReturnEmpty(){
+        // given - precondition or setup
+        given(employeeRepository.updateIfVersionMatches(1L, 1L, "Ankesh", "Tiwari", "ankesh@gmail.com"))
+                .willReturn(Mono.just(0));
+        given(employeeRepository.existsById(1L)).willReturn(Mono.just(false));
+
+        // when -  action or the behaviour that we are going test
+        // then - verify the output
+        StepVerifier.create(employeeService.updateEmployee(1L, 1L, employee))
+                .verifyComplete();
+    }
+
+    @DisplayName("Junit test for saveEmployee method with another integrity violation")
+    @Test
+    public void givenOtherConstraintViolation_whenSaveEmployee_thenPropagateIt(){
+        // given - precondition or setup
+        given(employeeRepository.save(employee))
+                .willReturn(Mono.error(new DataIntegrityViolationException("NULL not allowed for column \"FIRST_NAME\"")));
+
+        // when -  action or the behaviour that we are going test
+        // then - verify the output
+        StepVerifier.create(employeeService.saveEmployee(employee))
+                .expectError(DataIntegrityViolationException.class)
+                .verify();
+    }
+}
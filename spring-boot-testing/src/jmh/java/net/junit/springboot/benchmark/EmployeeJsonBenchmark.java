@@ -0,0 +1,48 @@
+package net.junit.springboot.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.junit.springboot.model.Employee;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Jackson (de)serialization of Employee with the same ObjectMapper defaults Spring Boot uses
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeJsonBenchmark {
+
+    private ObjectMapper objectMapper;
+
+    private Employee employee;
+
+    private String json;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email("ankesh@gmail.com")
+                .version(3L)
+                .build();
+        json = objectMapper.writeValueAsString(employee);
+    }
+
+    @Benchmark
+    public byte[] serializeEmployee() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(employee);
+    }
+
+    @Benchmark
+    public Employee deserializeEmployee() throws JsonProcessingException {
+        return objectMapper.readValue(json, Employee.class);
+    }
+}
@@ -0,0 +1,62 @@
+package net.junit.springboot.benchmark;
+
+import net.junit.springboot.event.EmployeeChangedEvent;
+import net.junit.springboot.model.Employee;
+import net.junit.springboot.search.EmployeeSearchIndex;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// type-ahead lookups against the in-memory index, sized by -p employees=...
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeSearchBenchmark {
+
+    private static final String[] FIRST_NAMES = {"Ankesh", "Anita", "Tony", "Bruce", "Natasha", "Ram", "Steve", "Wanda"};
+
+    private static final String[] LAST_NAMES = {"Tiwari", "Sharma", "Stark", "Banner", "Romanoff", "Rogers", "Maximoff"};
+
+    @Param({"100000"})
+    private int employees;
+
+    private EmployeeSearchIndex index;
+
+    @Setup
+    public void setup() {
+        // the service is only used for the startup load, which the benchmark replaces with change events
+        index = new EmployeeSearchIndex(null);
+        List<Employee> batch = new ArrayList<>(employees);
+        for (int i = 1; i <= employees; i++) {
+            String firstName = FIRST_NAMES[i % FIRST_NAMES.length];
+            String lastName = LAST_NAMES[i % LAST_NAMES.length];
+            batch.add(Employee.builder()
+                    .id(i)
+                    .firstName(firstName)
+                    .lastName(lastName)
+                    .email(firstName.toLowerCase() + "." + lastName.toLowerCase() + i + "@example.com")
+                    .build());
+        }
+        index.onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangedEvent.Type.CREATED, batch));
+    }
+
+    @Benchmark
+    public List<Employee> singleLetterPrefix() {
+        return index.search("a", 20);
+    }
+
+    @Benchmark
+    public List<Employee> emailPrefix() {
+        return index.search("tony.stark4242", 20);
+    }
+
+    @Benchmark
+    public List<Employee> twoTerms() {
+        return index.search("an sha", 20);
+    }
+}
@@ -0,0 +1,98 @@
+package net.junit.springboot.benchmark;
+
+import jakarta.persistence.EntityManagerFactory;
+import net.junit.springboot.SpringBootTestingApplication;
+import net.junit.springboot.config.CacheConfig;
+import net.junit.springboot.model.Employee;
+import net.junit.springboot.service.EmployeeService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// create/read/update paths of EmployeeServiceImpl against the in-memory H2 profile
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EmployeeServiceBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+
+    private EmployeeService employeeService;
+
+    private Employee existingEmployee;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("h2")
+                .run();
+        employeeService = context.getBean(EmployeeService.class);
+        existingEmployee = employeeService.saveEmployee(newEmployee());
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee createEmployee() {
+        return employeeService.saveEmployee(newEmployee());
+    }
+
+    // served by the Caffeine cache in front of the service
+    @Benchmark
+    public Optional<Employee> getEmployeeById() {
+        return employeeService.getEmployeeById(existingEmployee.getId());
+    }
+
+    // the same read with both caches emptied first, so it goes through the repository to H2
+    @Benchmark
+    public Optional<Employee> getEmployeeByIdUncached(EmptyCaches emptyCaches) {
+        return employeeService.getEmployeeById(existingEmployee.getId());
+    }
+
+    @Benchmark
+    public Optional<Employee> updateEmployee() {
+        long n = sequence.incrementAndGet();
+        Employee changes = Employee.builder()
+                .firstName("Ankesh" + n)
+                .lastName("Tiwari")
+                .email(existingEmployee.getEmail())
+                .build();
+        return employeeService.updateEmployee(existingEmployee.getId(), null, changes);
+    }
+
+    @State(Scope.Thread)
+    public static class EmptyCaches {
+
+        // runs outside the measured time, an eviction costs little next to the query it forces
+        @Setup(Level.Invocation)
+        public void evict(EmployeeServiceBenchmark benchmark) {
+            long id = benchmark.existingEmployee.getId();
+            benchmark.context.getBean(CacheManager.class).getCache(CacheConfig.EMPLOYEES_CACHE).evict(id);
+            benchmark.context.getBean(EntityManagerFactory.class).getCache().evict(Employee.class, id);
+        }
+    }
+
+    private Employee newEmployee() {
+        long n = sequence.incrementAndGet();
+        return Employee.builder()
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email("ankesh" + n + "@gmail.com")
+                .build();
+    }
+}
@@ -0,0 +1,81 @@
+package net.junit.springboot.benchmark;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.junit.springboot.config.EmployeeProtobufHttpMessageConverter;
+import net.junit.springboot.model.Employee;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// encode/decode of employee lists per wire format the API negotiates, the payload size of each combination
+// is printed once per fork
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmployeeWireFormatBenchmark {
+
+    private static final TypeReference<List<Employee>> EMPLOYEE_LIST = new TypeReference<>() {
+    };
+
+    @Param({"json", "cbor", "smile", "protobuf"})
+    private String format;
+
+    @Param({"1", "1000"})
+    private int employees;
+
+    private ObjectMapper objectMapper;
+
+    private List<Employee> employeeList;
+
+    private byte[] payload;
+
+    @Setup
+    public void setup() throws IOException {
+        objectMapper = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json().build();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> null;
+        };
+        employeeList = new ArrayList<>(employees);
+        for (int i = 1; i <= employees; i++) {
+            employeeList.add(Employee.builder()
+                    .id(i)
+                    .firstName("Ankesh" + i)
+                    .lastName("Tiwari")
+                    .email("ankesh.tiwari" + i + "@example.com")
+                    .version(i % 7)
+                    .build());
+        }
+        payload = encode();
+        System.out.printf("%n%s, %d employees: %d bytes%n", format, employees, payload.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        if (objectMapper != null) {
+            return objectMapper.writeValueAsBytes(employeeList);
+        }
+        ByteArrayOutputStream output = new ByteArrayOutputStream(64 * employees);
+        EmployeeProtobufHttpMessageConverter.writeEmployees(employeeList, output);
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public List<Employee> decode() throws IOException {
+        if (objectMapper != null) {
+            return objectMapper.readValue(payload, EMPLOYEE_LIST);
+        }
+        return EmployeeProtobufHttpMessageConverter.readEmployees(new ByteArrayInputStream(payload));
+    }
+}
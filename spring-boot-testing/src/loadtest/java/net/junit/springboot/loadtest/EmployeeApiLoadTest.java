@@ -0,0 +1,331 @@
+package net.junit.springboot.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import net.junit.springboot.SpringBootTestingApplication;
+import net.junit.springboot.model.Employee;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// capacity run for every EmployeeController endpoint, boots the application on the h2 profile and drives
+// a weighted mix of create/read/update/delete and list traffic at a fixed arrival rate
+// requests start on schedule whether or not earlier ones have finished and latency is measured from the
+// scheduled start, so a stalled server shows up in the percentiles instead of lowering the offered load
+// tuning: -Dloadtest.rate (requests/s, default 500), -Dloadtest.seconds (30), -Dloadtest.warmupSeconds (5),
+// -Dloadtest.seedEmployees (1000), -Dloadtest.maxInFlight (512),
+// -Dloadtest.mix (create=10,read=55,update=15,delete=5,page=10,byName=4,list=1),
+// -Dloadtest.report (target/loadtest-report.json)
+public class EmployeeApiLoadTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private static final String DEFAULT_MIX = "create=10,read=55,update=15,delete=5,page=10,byName=4,list=1";
+
+    enum Operation {
+        CREATE("create"), READ("read"), UPDATE("update"), DELETE("delete"),
+        PAGE("page"), BY_NAME("byName"), LIST("list");
+
+        // the name used in loadtest.mix and in the report
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+
+        static Operation fromKey(String key) {
+            for (Operation operation : values()) {
+                if (operation.key.equals(key)) {
+                    return operation;
+                }
+            }
+            throw new IllegalArgumentException("Unknown loadtest.mix operation: " + key);
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        int rate = Integer.getInteger("loadtest.rate", 500);
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.seconds", 30));
+        Duration warmup = Duration.ofSeconds(Long.getLong("loadtest.warmupSeconds", 5));
+        int seedEmployees = Integer.getInteger("loadtest.seedEmployees", 1000);
+        int maxInFlight = Integer.getInteger("loadtest.maxInFlight", 512);
+        Map<Operation, Integer> mix = parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX));
+        Path reportFile = Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .profiles("h2")
+                .properties("server.port=0",
+                        "logging.level.root=WARN",
+                        "logging.level.org.springframework.web=ERROR")
+                .run()) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            EmployeeApiLoadTest loadTest = new EmployeeApiLoadTest(port, mix, maxInFlight);
+            loadTest.seed(seedEmployees);
+            Map<String, Object> report = loadTest.run(rate, warmup, duration);
+
+            String json = OBJECT_MAPPER.writeValueAsString(report);
+            if (reportFile.getParent() != null) {
+                Files.createDirectories(reportFile.getParent());
+            }
+            Files.writeString(reportFile, json);
+            System.out.println(json);
+        }
+    }
+
+    private final String baseUrl;
+
+    private final Operation[] operations;
+
+    private final int[] cumulativeWeights;
+
+    private final int maxInFlight;
+
+    private final Semaphore inFlight;
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(
+            Math.max(4, Runtime.getRuntime().availableProcessors()));
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .executor(executor)
+            .build();
+
+    private final Map<Operation, OperationStats> stats = new LinkedHashMap<>();
+
+    // ids are handed out in increasing order, deletes take the oldest so reads and updates
+    // sample from the window of rows that should still exist
+    private final AtomicLong oldestLiveId = new AtomicLong(1);
+
+    private final LongAccumulator newestId = new LongAccumulator(Math::max, 0);
+
+    private final AtomicLong emailSequence = new AtomicLong();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private volatile long measureFromNanos = Long.MAX_VALUE;
+
+    EmployeeApiLoadTest(int port, Map<Operation, Integer> mix, int maxInFlight) {
+        this.baseUrl = "http://localhost:" + port + "/api/employees";
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.operations = mix.keySet().toArray(new Operation[0]);
+        this.cumulativeWeights = new int[operations.length];
+        int total = 0;
+        for (int i = 0; i < operations.length; i++) {
+            total += mix.get(operations[i]);
+            cumulativeWeights[i] = total;
+            stats.put(operations[i], new OperationStats());
+        }
+    }
+
+    void seed(int count) throws IOException, InterruptedException {
+        for (int i = 0; i < count; i++) {
+            HttpResponse<String> response = client.send(createRequest(), HttpResponse.BodyHandlers.ofString());
+            newestId.accumulate(OBJECT_MAPPER.readValue(response.body(), Employee.class).getId());
+        }
+    }
+
+    Map<String, Object> run(int rate, Duration warmup, Duration duration) throws InterruptedException {
+        Instant startedAt = Instant.now();
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        measureFromNanos = start + warmup.toNanos();
+        long end = measureFromNanos + duration.toNanos();
+
+        for (long scheduled = start; scheduled < end; scheduled += intervalNanos) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            fire(pick(), scheduled);
+        }
+        // let the last requests finish before reading the histograms
+        inFlight.acquire(maxInFlight);
+        executor.shutdown();
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("targetRate", rate);
+        report.put("warmupSeconds", warmup.toSeconds());
+        report.put("durationSeconds", duration.toSeconds());
+        report.put("dropped", dropped.sum());
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        Map<String, Object> perOperation = new LinkedHashMap<>();
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operationStats = entry.getValue();
+            total.add(operationStats.latency);
+            totalErrors += operationStats.errors.sum();
+            perOperation.put(entry.getKey().key, summary(operationStats.latency, operationStats.errors.sum(), duration));
+        }
+        report.put("total", summary(total, totalErrors, duration));
+        report.put("operations", perOperation);
+        return report;
+    }
+
+    private void fire(Operation operation, long scheduledNanos) {
+        // past the in-flight cap the server is already saturated, count it rather than queue without bound
+        if (!inFlight.tryAcquire()) {
+            if (scheduledNanos >= measureFromNanos) {
+                dropped.increment();
+            }
+            return;
+        }
+        OperationStats operationStats = stats.get(operation);
+        CompletableFuture<HttpResponse<String>> future;
+        try {
+            future = client.sendAsync(request(operation), HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((response, failure) -> {
+            long latency = System.nanoTime() - scheduledNanos;
+            boolean ok = failure == null && isExpected(operation, response);
+            if (ok && operation == Operation.CREATE) {
+                try {
+                    newestId.accumulate(OBJECT_MAPPER.readValue(response.body(), Employee.class).getId());
+                } catch (IOException e) {
+                    ok = false;
+                }
+            }
+            if (scheduledNanos >= measureFromNanos) {
+                operationStats.latency.recordValue(latency);
+                if (!ok) {
+                    operationStats.errors.increment();
+                }
+            }
+            inFlight.release();
+        });
+    }
+
+    private static boolean isExpected(Operation operation, HttpResponse<String> response) {
+        int status = response.statusCode();
+        return switch (operation) {
+            case CREATE -> status == 201;
+            // a racing delete can remove the sampled row, that is still a served request
+            case READ, UPDATE -> status == 200 || status == 404;
+            default -> status == 200;
+        };
+    }
+
+    private HttpRequest request(Operation operation) {
+        return switch (operation) {
+            case CREATE -> createRequest();
+            case READ -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + liveId())).GET().build();
+            case UPDATE -> {
+                long id = liveId();
+                yield HttpRequest.newBuilder(URI.create(baseUrl + "/" + id))
+                        .header("Content-Type", "application/json")
+                        .PUT(HttpRequest.BodyPublishers.ofString(json(employee("updated" + id))))
+                        .build();
+            }
+            case DELETE -> HttpRequest.newBuilder(URI.create(baseUrl + "/" + oldestLiveId.getAndIncrement()))
+                    .DELETE().build();
+            case PAGE -> HttpRequest.newBuilder(URI.create(baseUrl + "/page?limit=50")).GET().build();
+            case BY_NAME -> HttpRequest.newBuilder(URI.create(baseUrl + "/by-name?firstName=Load&lastName=Test&limit=50"))
+                    .GET().build();
+            case LIST -> HttpRequest.newBuilder(URI.create(baseUrl)).GET().build();
+        };
+    }
+
+    private HttpRequest createRequest() {
+        return HttpRequest.newBuilder(URI.create(baseUrl))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json(employee("load" + emailSequence.incrementAndGet()))))
+                .build();
+    }
+
+    private long liveId() {
+        long oldest = oldestLiveId.get();
+        long newest = Math.max(oldest, newestId.get());
+        return ThreadLocalRandom.current().nextLong(oldest, newest + 1);
+    }
+
+    private Operation pick() {
+        int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return operations[i];
+            }
+        }
+        return operations[operations.length - 1];
+    }
+
+    private static Employee employee(String emailPrefix) {
+        return Employee.builder()
+                .firstName("Load")
+                .lastName("Test")
+                .email(emailPrefix + "@loadtest.local")
+                .build();
+    }
+
+    private static String json(Employee employee) {
+        try {
+            return OBJECT_MAPPER.writeValueAsString(employee);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, Object> summary(Histogram latency, long errors, Duration duration) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", latency.getTotalCount());
+        summary.put("errors", errors);
+        summary.put("throughput", latency.getTotalCount() / (double) duration.toSeconds());
+        summary.put("meanMs", latency.getMean() / 1_000_000);
+        summary.put("p50Ms", latency.getValueAtPercentile(50) / 1_000_000.0);
+        summary.put("p99Ms", latency.getValueAtPercentile(99) / 1_000_000.0);
+        summary.put("p999Ms", latency.getValueAtPercentile(99.9) / 1_000_000.0);
+        summary.put("maxMs", latency.getMaxValue() / 1_000_000.0);
+        return summary;
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new LinkedHashMap<>();
+        for (String part : mix.split(",")) {
+            String[] pair = part.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("loadtest.mix entries look like read=50, got: " + part);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            if (weight > 0) {
+                weights.put(Operation.fromKey(pair[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix needs at least one operation with a positive weight");
+        }
+        return weights;
+    }
+
+    private static final class OperationStats {
+
+        private final Histogram latency = new ConcurrentHistogram(3);
+
+        private final LongAdder errors = new LongAdder();
+    }
+}
@@ -0,0 +1,180 @@
+package net.junit.springboot.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.junit.springboot.SpringBootTestingApplication;
+import net.junit.springboot.model.Employee;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares platform and virtual request threads under slow clients.
+ * <p>
+ * A few thousand slow clients each start a POST /api/employees and then trickle the body one byte at a
+ * time, which keeps a request thread blocked in the body read. Meanwhile a handful of fast clients issue
+ * GET /api/employees/{id} as quickly as they can. With the platform thread pool the slow uploads occupy
+ * every Tomcat worker and the fast requests time out; with virtual threads they keep flowing.
+ * <p>
+ * Tuning: -Dloadtest.slowClients (default 1000), -Dloadtest.fastClients (16), -Dloadtest.seconds (15).
+ * <p>
+ * Tomcat 10.1 waits for body bytes in Object.wait, which pins the carrier thread on Java 21. The scheduler
+ * compensates with extra carriers, but only up to jdk.virtualThreadScheduler.maxPoolSize (256 by default), so
+ * the limit is raised above the number of slow clients unless it is given.
+ */
+public class ThreadModelLoadTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    public static void main(String[] args) throws Exception {
+        int slowClients = Integer.getInteger("loadtest.slowClients", 1000);
+        int fastClients = Integer.getInteger("loadtest.fastClients", 16);
+        Duration duration = Duration.ofSeconds(Long.getLong("loadtest.seconds", 15));
+        // read once, when the first virtual thread starts
+        if (System.getProperty("jdk.virtualThreadScheduler.maxPoolSize") == null) {
+            System.setProperty("jdk.virtualThreadScheduler.maxPoolSize", Integer.toString(slowClients + 256));
+        }
+
+        List<String> report = new ArrayList<>();
+        report.add(run(false, slowClients, fastClients, duration));
+        if (Runtime.version().feature() >= 21) {
+            report.add(run(true, slowClients, fastClients, duration));
+        } else {
+            report.add("virtual threads: skipped, run on Java 21 with mvn -Pjava21,loadtest -DskipTests verify");
+        }
+        report.forEach(System.out::println);
+    }
+
+    static String run(boolean virtualThreads, int slowClients, int fastClients, Duration duration) throws Exception {
+        List<Socket> slowSockets = new ArrayList<>(slowClients);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(SpringBootTestingApplication.class)
+                .profiles("h2")
+                // command line arguments, default properties would lose against application.properties
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.apache.catalina=OFF",
+                        "--logging.level.org.springframework.web=ERROR")) {
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            HttpClient client = HttpClient.newHttpClient();
+            long employeeId = createEmployee(client, port);
+
+            openSlowClients(port, slowClients, slowSockets);
+            ScheduledExecutorService trickler = Executors.newSingleThreadScheduledExecutor();
+            trickler.scheduleAtFixedRate(() -> slowSockets.forEach(ThreadModelLoadTest::trickle), 0, 200, TimeUnit.MILLISECONDS);
+            // give the server time to hand every slow upload to a request thread
+            Thread.sleep(2000);
+
+            LongAdder completed = new LongAdder();
+            LongAdder errors = new LongAdder();
+            LongAdder totalLatencyNanos = new LongAdder();
+            LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+            AtomicLong deadline = new AtomicLong(System.nanoTime() + duration.toNanos());
+            HttpRequest get = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees/" + employeeId))
+                    .timeout(Duration.ofSeconds(2))
+                    .build();
+
+            ExecutorService fastPool = Executors.newFixedThreadPool(fastClients);
+            for (int i = 0; i < fastClients; i++) {
+                fastPool.submit(() -> {
+                    while (System.nanoTime() < deadline.get()) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(get, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() == 200) {
+                                completed.increment();
+                            } else {
+                                errors.increment();
+                            }
+                        } catch (Exception e) {
+                            errors.increment();
+                        }
+                        long latency = System.nanoTime() - start;
+                        totalLatencyNanos.add(latency);
+                        maxLatencyNanos.accumulate(latency);
+                    }
+                });
+            }
+            fastPool.shutdown();
+            fastPool.awaitTermination(duration.toSeconds() + 30, TimeUnit.SECONDS);
+            trickler.shutdownNow();
+
+            long requests = completed.sum() + errors.sum();
+            return String.format("%s threads: %d slow clients, %.1f req/s, avg %.1f ms, max %.1f ms, %d errors",
+                    virtualThreads ? "virtual" : "platform",
+                    slowClients,
+                    completed.sum() / (double) duration.toSeconds(),
+                    requests == 0 ? 0.0 : totalLatencyNanos.sum() / (double) requests / 1_000_000,
+                    maxLatencyNanos.get() / 1_000_000.0,
+                    errors.sum());
+        } finally {
+            // only hang up once the server is gone, so the abandoned uploads are not logged as errors
+            slowSockets.forEach(ThreadModelLoadTest::closeQuietly);
+        }
+    }
+
+    private static long createEmployee(HttpClient client, int port) throws IOException, InterruptedException {
+        Employee employee = Employee.builder()
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email("ankesh@gmail.com")
+                .build();
+        HttpRequest post = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/employees"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(OBJECT_MAPPER.writeValueAsString(employee)))
+                .build();
+        HttpResponse<String> response = client.send(post, HttpResponse.BodyHandlers.ofString());
+        return OBJECT_MAPPER.readValue(response.body(), Employee.class).getId();
+    }
+
+    private static void openSlowClients(int port, int count, List<Socket> sockets) throws IOException {
+        byte[] head = ("POST /api/employees HTTP/1.1\r\n"
+                + "Host: localhost\r\n"
+                + "Content-Type: application/json\r\n"
+                + "Content-Length: 1000000\r\n"
+                + "\r\n"
+                + "{").getBytes(StandardCharsets.US_ASCII);
+        for (int i = 0; i < count; i++) {
+            Socket socket = new Socket("localhost", port);
+            socket.getOutputStream().write(head);
+            socket.getOutputStream().flush();
+            sockets.add(socket);
+        }
+    }
+
+    private static void trickle(Socket socket) {
+        try {
+            OutputStream out = socket.getOutputStream();
+            // whitespace keeps the JSON body valid but never finishes it
+            out.write(' ');
+            out.flush();
+        } catch (IOException e) {
+            closeQuietly(socket);
+        }
+    }
+
+    private static void closeQuietly(Socket socket) {
+        try {
+            socket.close();
+        } catch (IOException ignored) {
+            // nothing left to do for a client we are abandoning
+        }
+    }
+}
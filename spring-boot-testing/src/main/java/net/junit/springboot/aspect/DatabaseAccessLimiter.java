@@ -0,0 +1,61 @@
+package net.junit.springboot.aspect;
+
+import net.junit.springboot.exception.DatabaseBusyException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+// Callers queue on a fair semaphore sized to the connection pool, ordered inside the cache interceptor and
+// outside the transaction interceptor. The streaming export is left out, a slow client would pin a permit.
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 5)
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class DatabaseAccessLimiter {
+
+    private static final ThreadLocal<Boolean> HOLDS_PERMIT = new ThreadLocal<>();
+
+    private final Semaphore permits;
+
+    private final long acquireTimeoutMillis;
+
+    public DatabaseAccessLimiter(@Value("${app.db.max-concurrency:${spring.datasource.hikari.maximum-pool-size:10}}") int maxConcurrency,
+                                 @Value("${app.db.acquire-timeout-ms:${spring.datasource.hikari.connection-timeout:30000}}") long acquireTimeoutMillis) {
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+    }
+
+    @Around("(execution(public * net.junit.springboot.service.EmployeeService+.*(..))"
+            + " || execution(public * net.junit.springboot.repository.EmployeeRepository+.*(..)))"
+            + " && !execution(* net.junit.springboot.service.EmployeeService+.exportEmployees(..))"
+            + " && !execution(* net.junit.springboot.repository.EmployeeRepositoryCustom+.scrollAll(..))")
+    public Object limit(ProceedingJoinPoint joinPoint) throws Throwable {
+        // repository calls made from a service method run under the permit the service call already holds
+        if (HOLDS_PERMIT.get() != null) {
+            return joinPoint.proceed();
+        }
+        if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+            throw new DatabaseBusyException("No database capacity within " + acquireTimeoutMillis + " ms");
+        }
+        HOLDS_PERMIT.set(Boolean.TRUE);
+        try {
+            return joinPoint.proceed();
+        } finally {
+            HOLDS_PERMIT.remove();
+            permits.release();
+        }
+    }
+
+    int availablePermits() {
+        return permits.availablePermits();
+    }
+}
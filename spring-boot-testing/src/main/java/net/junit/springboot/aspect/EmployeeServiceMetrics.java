@@ -0,0 +1,84 @@
+package net.junit.springboot.aspect;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.junit.springboot.exception.BadRequestException;
+import net.junit.springboot.exception.DatabaseBusyException;
+import net.junit.springboot.exception.DuplicateEmailException;
+import net.junit.springboot.exception.PreconditionFailedException;
+import net.junit.springboot.exception.ResourceNotFoundException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+// times every EmployeeService call, cache hits included, tagged by method and outcome
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 20)
+public class EmployeeServiceMetrics {
+
+    static final String CALLS = "employee.service.calls";
+
+    static final String ERRORS = "employee.service.errors";
+
+    private final MeterRegistry meterRegistry;
+
+    public EmployeeServiceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Around("execution(public * net.junit.springboot.service.EmployeeService+.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String method = joinPoint.getSignature().getName();
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "success";
+        try {
+            Object result = joinPoint.proceed();
+            // deleteEmployee reports a missing employee as false
+            if (result instanceof Optional<?> optional && optional.isEmpty() || Boolean.FALSE.equals(result)) {
+                outcome = "not_found";
+            }
+            return result;
+        } catch (Throwable e) {
+            outcome = outcome(e);
+            Counter.builder(ERRORS)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .tag("exception", e.getClass().getSimpleName())
+                    .register(meterRegistry)
+                    .increment();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder(CALLS)
+                    .tag("method", method)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    static String outcome(Throwable e) {
+        // checked first, a DuplicateEmailException is also a ResourceNotFoundException
+        if (e instanceof DuplicateEmailException) {
+            return "duplicate_email";
+        }
+        if (e instanceof ResourceNotFoundException) {
+            return "not_found";
+        }
+        if (e instanceof PreconditionFailedException) {
+            return "precondition_failed";
+        }
+        if (e instanceof BadRequestException) {
+            return "bad_request";
+        }
+        if (e instanceof DatabaseBusyException) {
+            return "busy";
+        }
+        return "error";
+    }
+}
@@ -0,0 +1,15 @@
+package net.junit.springboot.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+// ordered outside the transaction interceptor so entries are only put or evicted after commit
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 10)
+public class CacheConfig {
+
+    // size and TTL are configured through spring.cache.caffeine.spec
+    public static final String EMPLOYEES_CACHE = "employees";
+
+}
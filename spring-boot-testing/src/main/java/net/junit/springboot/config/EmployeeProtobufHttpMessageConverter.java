@@ -0,0 +1,276 @@
+package net.junit.springboot.config;
+
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import net.junit.springboot.dto.EmployeeBatchResult;
+import net.junit.springboot.model.Employee;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+
+// application/x-protobuf for employees, employee lists and batch create results (write only), following
+// src/main/resources/proto/employee.proto, encoded by hand with the protobuf runtime
+public class EmployeeProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    public static final String APPLICATION_PROTOBUF_VALUE = "application/x-protobuf";
+
+    private static final int ID = tag(1, WireFormat.WIRETYPE_VARINT);
+
+    private static final int FIRST_NAME = tag(2, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    private static final int LAST_NAME = tag(3, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    private static final int EMAIL = tag(4, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    private static final int VERSION = tag(5, WireFormat.WIRETYPE_VARINT);
+
+    private static final int EMPLOYEES = tag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    private static final int RESULTS = tag(1, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+
+    public EmployeeProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Employee.class.isAssignableFrom(clazz) || List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return isEmployeeOrEmployeeList(type) && canRead(mediaType);
+    }
+
+    // a list without a declared element type is not taken, the client gets 406 instead of a failed write
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        Type bodyType = type == null || ResolvableType.forType(type).resolve(Object.class) == Object.class ? clazz : type;
+        return (isEmployeeOrEmployeeList(bodyType) || isListOf(bodyType, EmployeeBatchResult.class)) && canWrite(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        return readInternal(ResolvableType.forType(type).resolve(Object.class), inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage)
+            throws IOException, HttpMessageNotReadableException {
+        try {
+            return Employee.class.isAssignableFrom(clazz)
+                    ? readEmployee(inputMessage.getBody())
+                    : readEmployees(inputMessage.getBody());
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("Invalid protobuf employee message: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(Object body, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        if (body instanceof Employee employee) {
+            writeEmployee(employee, outputMessage.getBody());
+            return;
+        }
+        List<?> list = (List<?>) body;
+        // an empty list is the same zero bytes in both messages
+        if (!list.isEmpty() && list.stream().allMatch(EmployeeBatchResult.class::isInstance)) {
+            @SuppressWarnings("unchecked")
+            List<EmployeeBatchResult> results = (List<EmployeeBatchResult>) list;
+            writeBatchResults(results, outputMessage.getBody());
+            return;
+        }
+        for (Object element : list) {
+            if (!(element instanceof Employee)) {
+                throw new HttpMessageNotWritableException("Only employees and batch results can be written as " + APPLICATION_PROTOBUF_VALUE);
+            }
+        }
+        @SuppressWarnings("unchecked")
+        List<Employee> employees = (List<Employee>) list;
+        writeEmployees(employees, outputMessage.getBody());
+    }
+
+    public static void writeEmployee(Employee employee, OutputStream outputStream) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(outputStream);
+        writeFields(employee, output);
+        output.flush();
+    }
+
+    public static void writeEmployees(List<Employee> employees, OutputStream outputStream) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(outputStream);
+        for (Employee employee : employees) {
+            output.writeUInt32NoTag(EMPLOYEES);
+            output.writeUInt32NoTag(fieldsSize(employee));
+            writeFields(employee, output);
+        }
+        output.flush();
+    }
+
+    public static void writeBatchResults(List<EmployeeBatchResult> results, OutputStream outputStream) throws IOException {
+        CodedOutputStream output = CodedOutputStream.newInstance(outputStream);
+        for (EmployeeBatchResult result : results) {
+            output.writeUInt32NoTag(RESULTS);
+            output.writeUInt32NoTag(batchResultSize(result));
+            writeBatchResult(result, output);
+        }
+        output.flush();
+    }
+
+    public static Employee readEmployee(InputStream inputStream) throws IOException {
+        return readFields(CodedInputStream.newInstance(inputStream));
+    }
+
+    public static List<Employee> readEmployees(InputStream inputStream) throws IOException {
+        CodedInputStream input = CodedInputStream.newInstance(inputStream);
+        List<Employee> employees = new ArrayList<>();
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (tag != EMPLOYEES) {
+                input.skipField(tag);
+                continue;
+            }
+            int limit = input.pushLimit(input.readRawVarint32());
+            employees.add(readFields(input));
+            input.popLimit(limit);
+        }
+        return employees;
+    }
+
+    private static void writeFields(Employee employee, CodedOutputStream output) throws IOException {
+        if (employee.getId() != 0) {
+            output.writeInt64(1, employee.getId());
+        }
+        if (employee.getFirstName() != null) {
+            output.writeString(2, employee.getFirstName());
+        }
+        if (employee.getLastName() != null) {
+            output.writeString(3, employee.getLastName());
+        }
+        if (employee.getEmail() != null) {
+            output.writeString(4, employee.getEmail());
+        }
+        if (employee.getVersion() != 0) {
+            output.writeInt64(5, employee.getVersion());
+        }
+    }
+
+    private static int fieldsSize(Employee employee) {
+        int size = 0;
+        if (employee.getId() != 0) {
+            size += CodedOutputStream.computeInt64Size(1, employee.getId());
+        }
+        if (employee.getFirstName() != null) {
+            size += CodedOutputStream.computeStringSize(2, employee.getFirstName());
+        }
+        if (employee.getLastName() != null) {
+            size += CodedOutputStream.computeStringSize(3, employee.getLastName());
+        }
+        if (employee.getEmail() != null) {
+            size += CodedOutputStream.computeStringSize(4, employee.getEmail());
+        }
+        if (employee.getVersion() != 0) {
+            size += CodedOutputStream.computeInt64Size(5, employee.getVersion());
+        }
+        return size;
+    }
+
+    private static void writeBatchResult(EmployeeBatchResult result, CodedOutputStream output) throws IOException {
+        if (result.getIndex() != 0) {
+            output.writeInt32(1, result.getIndex());
+        }
+        if (result.getStatus() != null) {
+            output.writeEnum(2, statusNumber(result.getStatus()));
+        }
+        if (result.getId() != null && result.getId() != 0) {
+            output.writeInt64(3, result.getId());
+        }
+        if (result.getEmail() != null) {
+            output.writeString(4, result.getEmail());
+        }
+        if (result.getMessage() != null) {
+            output.writeString(5, result.getMessage());
+        }
+    }
+
+    private static int batchResultSize(EmployeeBatchResult result) {
+        int size = 0;
+        if (result.getIndex() != 0) {
+            size += CodedOutputStream.computeInt32Size(1, result.getIndex());
+        }
+        if (result.getStatus() != null) {
+            size += CodedOutputStream.computeEnumSize(2, statusNumber(result.getStatus()));
+        }
+        if (result.getId() != null && result.getId() != 0) {
+            size += CodedOutputStream.computeInt64Size(3, result.getId());
+        }
+        if (result.getEmail() != null) {
+            size += CodedOutputStream.computeStringSize(4, result.getEmail());
+        }
+        if (result.getMessage() != null) {
+            size += CodedOutputStream.computeStringSize(5, result.getMessage());
+        }
+        return size;
+    }
+
+    // 0 is STATUS_UNSPECIFIED in the schema
+    private static int statusNumber(EmployeeBatchResult.Status status) {
+        return switch (status) {
+            case CREATED -> 1;
+            case DUPLICATE -> 2;
+        };
+    }
+
+    // reads up to the end of the input or of the current limit, unknown fields are skipped
+    private static Employee readFields(CodedInputStream input) throws IOException {
+        Employee employee = new Employee();
+        for (int tag = input.readTag(); tag != 0; tag = input.readTag()) {
+            if (tag == ID) {
+                employee.setId(input.readInt64());
+            } else if (tag == FIRST_NAME) {
+                employee.setFirstName(input.readString());
+            } else if (tag == LAST_NAME) {
+                employee.setLastName(input.readString());
+            } else if (tag == EMAIL) {
+                employee.setEmail(input.readString());
+            } else if (tag == VERSION) {
+                employee.setVersion(input.readInt64());
+            } else {
+                input.skipField(tag);
+            }
+        }
+        return employee;
+    }
+
+    private static boolean isEmployeeOrEmployeeList(Type type) {
+        return Employee.class.isAssignableFrom(ResolvableType.forType(type).resolve(Object.class))
+                || isListOf(type, Employee.class);
+    }
+
+    private static boolean isListOf(Type type, Class<?> elementClass) {
+        ResolvableType resolvableType = ResolvableType.forType(type);
+        if (!List.class.isAssignableFrom(resolvableType.resolve(Object.class))) {
+            return false;
+        }
+        Class<?> element = resolvableType.asCollection().resolveGeneric(0);
+        return element != null && elementClass.isAssignableFrom(element);
+    }
+
+    private static int tag(int fieldNumber, int wireType) {
+        return (fieldNumber << 3) | wireType;
+    }
+}
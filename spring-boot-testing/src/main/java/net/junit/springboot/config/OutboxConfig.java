@@ -0,0 +1,26 @@
+package net.junit.springboot.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.junit.springboot.event.EmployeeEventSink;
+import net.junit.springboot.event.FileEmployeeEventSink;
+import net.junit.springboot.event.LoggingEmployeeEventSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+import java.nio.file.Path;
+
+@Configuration
+@EnableScheduling
+public class OutboxConfig {
+
+    // app.outbox.file switches from logging the events to appending them to a local NDJSON file
+    @Bean
+    public EmployeeEventSink employeeEventSink(@Value("${app.outbox.file:}") String file, ObjectMapper objectMapper) {
+        if (file.isBlank()) {
+            return new LoggingEmployeeEventSink();
+        }
+        return new FileEmployeeEventSink(Path.of(file), objectMapper);
+    }
+}
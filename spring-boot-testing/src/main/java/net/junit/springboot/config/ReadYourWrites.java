@@ -0,0 +1,46 @@
+package net.junit.springboot.config;
+
+// read-your-writes state of the current request, bound by ReadYourWritesFilter
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<State> CURRENT = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    static void begin(long primaryUntilMillis, Runnable onFirstWrite) {
+        CURRENT.set(new State(primaryUntilMillis, onFirstWrite));
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static boolean readsFromPrimary() {
+        State state = CURRENT.get();
+        return state != null && (state.wrote || state.primaryUntilMillis > System.currentTimeMillis());
+    }
+
+    // called when a read-write transaction takes its connection, outside of a request this does nothing
+    static void recordWrite() {
+        State state = CURRENT.get();
+        if (state != null && !state.wrote) {
+            state.wrote = true;
+            state.onFirstWrite.run();
+        }
+    }
+
+    private static final class State {
+
+        private final long primaryUntilMillis;
+
+        private final Runnable onFirstWrite;
+
+        private boolean wrote;
+
+        private State(long primaryUntilMillis, Runnable onFirstWrite) {
+            this.primaryUntilMillis = primaryUntilMillis;
+            this.onFirstWrite = onFirstWrite;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package net.junit.springboot.config;
+
+import jakarta.persistence.CacheRetrieveMode;
+import jakarta.persistence.CacheStoreMode;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.sql.SQLException;
+import java.util.Map;
+
+// Chooses the database of a read-only transaction as it begins, a session on a replica bypasses the second-level
+// and query caches; CacheMode.GET is not enough, Hibernate 6.4 still stores query results under it.
+class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+
+    private static final String CACHE_STORE_MODE = "jakarta.persistence.cache.storeMode";
+
+    private static final String CACHE_RETRIEVE_MODE = "jakarta.persistence.cache.retrieveMode";
+
+    private final ReplicaRoutingDataSource dataSource;
+
+    ReplicaAwareJpaDialect(ReplicaRoutingDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws PersistenceException, SQLException {
+        Object transactionData = super.beginTransaction(entityManager, definition);
+        if (!definition.isReadOnly()) {
+            return transactionData;
+        }
+        String key = dataSource.readOnlyKey();
+        if (ReplicaRoutingDataSource.PRIMARY.equals(key)) {
+            return new ReadOnlyTransactionData(transactionData, dataSource.pin(key), null, null, null);
+        }
+        Map<String, Object> properties = entityManager.getProperties();
+        ReadOnlyTransactionData readOnly = new ReadOnlyTransactionData(transactionData, dataSource.pin(key),
+                entityManager, properties.get(CACHE_STORE_MODE), properties.get(CACHE_RETRIEVE_MODE));
+        entityManager.setProperty(CACHE_STORE_MODE, CacheStoreMode.BYPASS);
+        entityManager.setProperty(CACHE_RETRIEVE_MODE, CacheRetrieveMode.BYPASS);
+        return readOnly;
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        if (!(transactionData instanceof ReadOnlyTransactionData readOnly)) {
+            super.cleanupTransaction(transactionData);
+            return;
+        }
+        dataSource.unpin(readOnly.previousKey);
+        // the session may outlive the transaction, e.g. when it was opened for the whole request
+        if (readOnly.replicaSession != null && readOnly.replicaSession.isOpen()) {
+            readOnly.replicaSession.setProperty(CACHE_STORE_MODE,
+                    readOnly.previousStoreMode != null ? readOnly.previousStoreMode : CacheStoreMode.USE);
+            readOnly.replicaSession.setProperty(CACHE_RETRIEVE_MODE,
+                    readOnly.previousRetrieveMode != null ? readOnly.previousRetrieveMode : CacheRetrieveMode.USE);
+        }
+        super.cleanupTransaction(readOnly.delegate);
+    }
+
+    private record ReadOnlyTransactionData(Object delegate, String previousKey, EntityManager replicaSession,
+                                           Object previousStoreMode, Object previousRetrieveMode) {
+    }
+}
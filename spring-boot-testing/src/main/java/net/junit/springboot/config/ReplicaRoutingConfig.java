@@ -0,0 +1,111 @@
+package net.junit.springboot.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+// active once app.datasource.replica.urls is set, every replica gets a pool with the primary's Hikari settings
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.urls")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties, Environment environment,
+                                 @Value("${app.datasource.replica.urls}") List<String> replicaUrls,
+                                 @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                 @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password,
+                                 @Value("${app.datasource.replica.max-lag-ms:2000}") long maxLagMillis,
+                                 @Value("${app.datasource.replica.lag-check-interval-ms:5000}") long lagCheckIntervalMillis,
+                                 MeterRegistry meterRegistry) {
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        // no pool is a bean of its own, so each one is bound to the registry here (hikaricp.* tagged by pool name)
+        primary.setMetricRegistry(meterRegistry);
+
+        List<DataSource> replicas = new ArrayList<>(replicaUrls.size());
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            HikariConfig replica = new HikariConfig();
+            primary.copyStateTo(replica);
+            replica.setJdbcUrl(replicaUrls.get(i).trim());
+            replica.setUsername(username);
+            replica.setPassword(password);
+            replica.setReadOnly(true);
+            replica.setPoolName(ReplicaRoutingDataSource.replicaKey(i));
+            replica.setMetricRegistry(meterRegistry);
+            replicas.add(new HikariDataSource(replica));
+        }
+        primary.setPoolName(ReplicaRoutingDataSource.PRIMARY);
+
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replicas, maxLagMillis);
+        for (int i = 0; i < replicas.size(); i++) {
+            int replica = i;
+            Gauge.builder("db.replica.lag", dataSource, routing -> lagForGauge(routing.getReplicaLag(replica)))
+                    .tag("replica", ReplicaRoutingDataSource.replicaKey(i))
+                    .baseUnit("milliseconds")
+                    .register(meterRegistry);
+        }
+        dataSource.startLagChecks(lagCheckIntervalMillis);
+        return dataSource;
+    }
+
+    // the transaction manager takes its JpaDialect from the entity manager factory, the router is unwrapped
+    // from the SqlStatementConfig proxy
+    @Bean
+    public static BeanPostProcessor replicaAwareJpaDialect() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean factory) {
+                    ReplicaRoutingDataSource dataSource = routingDataSource(factory.getDataSource());
+                    if (dataSource != null) {
+                        factory.setJpaDialect(new ReplicaAwareJpaDialect(dataSource));
+                    }
+                }
+                return bean;
+            }
+        };
+    }
+
+    static ReplicaRoutingDataSource routingDataSource(DataSource dataSource) {
+        if (dataSource == null) {
+            return null;
+        }
+        try {
+            return dataSource.isWrapperFor(ReplicaRoutingDataSource.class)
+                    ? dataSource.unwrap(ReplicaRoutingDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    @Bean
+    public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(
+            @Value("${app.datasource.read-your-writes-ms:7000}") long windowMillis) {
+        FilterRegistrationBean<ReadYourWritesFilter> registration = new FilterRegistrationBean<>(new ReadYourWritesFilter(windowMillis));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registration;
+    }
+
+    // NaN instead of Long.MAX_VALUE so an unreachable replica shows up as a gap, not as a spike
+    private static double lagForGauge(long lagMillis) {
+        return lagMillis == Long.MAX_VALUE ? Double.NaN : lagMillis;
+    }
+}
@@ -0,0 +1,212 @@
+package net.junit.springboot.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Sends read-only transactions to a replica within maxLagMillis of the primary and everything else to the primary.
+// What was read from a replica is kept out of the caches (ReplicaAwareJpaDialect, lastReadFromReplica()).
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements Closeable {
+
+    static final String PRIMARY = "primary";
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // whether the last read-only transaction of the thread was given a replica
+    private static final ThreadLocal<Boolean> LAST_READ_FROM_REPLICA = new ThreadLocal<>();
+
+    private static final String CREATE_HEARTBEAT_SQL =
+            "create table if not exists replica_heartbeat (id int not null primary key, beat_millis bigint not null)";
+
+    private final DataSource primary;
+
+    private final List<DataSource> replicas;
+
+    private final long maxLagMillis;
+
+    private final JdbcTemplate primaryJdbcTemplate;
+
+    private final List<JdbcTemplate> replicaJdbcTemplates = new ArrayList<>();
+
+    // unknown until the first check, an unknown replica is not read from
+    private final AtomicLongArray lagMillis;
+
+    private volatile List<String> readableReplicas = List.of();
+
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    // the database of the current read-only transaction when it was chosen as the transaction began
+    private final ThreadLocal<String> pinnedKey = new ThreadLocal<>();
+
+    private volatile boolean heartbeatTableCreated;
+
+    // the last beat written to the primary, 0 before the first one
+    private volatile long lastBeatMillis;
+
+    private ScheduledExecutorService lagChecker;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long maxLagMillis) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.maxLagMillis = maxLagMillis;
+        this.primaryJdbcTemplate = new JdbcTemplate(primary);
+        this.lagMillis = new AtomicLongArray(replicas.size());
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(replicaKey(i), replicas.get(i));
+            replicaJdbcTemplates.add(new JdbcTemplate(replicas.get(i)));
+            lagMillis.set(i, Long.MAX_VALUE);
+        }
+        AbstractRoutingDataSource router = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return lookupKey();
+            }
+        };
+        router.setTargetDataSources(targets);
+        router.setDefaultTargetDataSource(primary);
+        router.afterPropertiesSet();
+        setTargetDataSource(router);
+        afterPropertiesSet();
+    }
+
+    Object lookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                ReadYourWrites.recordWrite();
+            }
+            return PRIMARY;
+        }
+        String pinned = pinnedKey.get();
+        return pinned != null ? pinned : readOnlyKey();
+    }
+
+    String readOnlyKey() {
+        List<String> readable = readableReplicas;
+        if (readable.isEmpty() || ReadYourWrites.readsFromPrimary()) {
+            LAST_READ_FROM_REPLICA.set(Boolean.FALSE);
+            return PRIMARY;
+        }
+        LAST_READ_FROM_REPLICA.set(Boolean.TRUE);
+        return readable.get(Math.floorMod(nextReplica.getAndIncrement(), readable.size()));
+    }
+
+    // routes the read-only transaction beginning on this thread, returns the key for unpin to restore
+    String pin(String key) {
+        String previous = pinnedKey.get();
+        pinnedKey.set(key);
+        return previous;
+    }
+
+    void unpin(String previousKey) {
+        if (previousKey == null) {
+            pinnedKey.remove();
+        } else {
+            pinnedKey.set(previousKey);
+        }
+    }
+
+    public static boolean lastReadFromReplica() {
+        return Boolean.TRUE.equals(LAST_READ_FROM_REPLICA.get());
+    }
+
+    public void startLagChecks(long intervalMillis) {
+        lagChecker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-lag-check");
+            thread.setDaemon(true);
+            return thread;
+        });
+        lagChecker.scheduleWithFixedDelay(this::checkReplicaLag, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    // writes the heartbeat to the primary, replicas are measured against the beat of the previous check
+    public void checkReplicaLag() {
+        long now = System.currentTimeMillis();
+        long previousBeat = lastBeatMillis;
+        try {
+            if (!heartbeatTableCreated) {
+                primaryJdbcTemplate.execute(CREATE_HEARTBEAT_SQL);
+                heartbeatTableCreated = true;
+            }
+            if (primaryJdbcTemplate.update("update replica_heartbeat set beat_millis = ? where id = 1", now) == 0) {
+                primaryJdbcTemplate.update("insert into replica_heartbeat (id, beat_millis) values (1, ?)", now);
+            }
+            lastBeatMillis = now;
+        } catch (DataAccessException e) {
+            log.warn("Writing the replica heartbeat failed", e);
+        }
+
+        // on the first check there is no previous beat yet
+        long reference = previousBeat > 0 ? previousBeat : now;
+        List<String> readable = new ArrayList<>(replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            long lag;
+            try {
+                List<Long> beat = replicaJdbcTemplates.get(i)
+                        .queryForList("select beat_millis from replica_heartbeat where id = 1", Long.class);
+                lag = beat.isEmpty() ? Long.MAX_VALUE : Math.max(0, reference - beat.get(0));
+            } catch (DataAccessException e) {
+                log.debug("Replica {} is not reachable", i, e);
+                lag = Long.MAX_VALUE;
+            }
+            long previousLag = lagMillis.getAndSet(i, lag);
+            if (lag <= maxLagMillis) {
+                readable.add(replicaKey(i));
+            } else if (previousLag <= maxLagMillis) {
+                log.warn("Replica {} is {} ms behind, reading from the primary until it catches up", i,
+                        lag == Long.MAX_VALUE ? "unknown" : lag);
+            }
+        }
+        readableReplicas = List.copyOf(readable);
+    }
+
+    public int getReplicaCount() {
+        return replicas.size();
+    }
+
+    // Long.MAX_VALUE while unknown or unreachable
+    public long getReplicaLag(int replica) {
+        return lagMillis.get(replica);
+    }
+
+    @Override
+    public void close() {
+        if (lagChecker != null) {
+            lagChecker.shutdownNow();
+        }
+        closeQuietly(primary);
+        replicas.forEach(ReplicaRoutingDataSource::closeQuietly);
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Closing data source failed", e);
+            }
+        }
+    }
+
+    static String replicaKey(int replica) {
+        return "replica-" + replica;
+    }
+}
@@ -0,0 +1,69 @@
+package net.junit.springboot.config;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.junit.springboot.service.EmployeeService;
+import net.junit.springboot.service.impl.ShardedEmployeeServiceImpl;
+import net.junit.springboot.shard.EmployeeIdGenerator;
+import net.junit.springboot.shard.ShardedEmployeeStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+// active once app.shards.urls is set, the shard and directory pools belong to the store and are not beans
+@Configuration
+@ConditionalOnProperty(name = "app.shards.urls")
+public class ShardingConfig {
+
+    @Bean
+    public ShardedEmployeeStore shardedEmployeeStore(@Value("${app.shards.urls}") List<String> shardUrls,
+                                                     @Value("${app.shards.directory-url:}") String directoryUrl,
+                                                     @Value("${app.shards.username:${spring.datasource.username:}}") String username,
+                                                     @Value("${app.shards.password:${spring.datasource.password:}}") String password,
+                                                     @Value("${app.shards.maximum-pool-size:10}") int maximumPoolSize,
+                                                     @Value("${app.shards.node-id:0}") long nodeId,
+                                                     @Value("${app.shards.fan-out-threads:16}") int fanOutThreads,
+                                                     MeterRegistry meterRegistry) {
+        List<DataSource> shards = new ArrayList<>(shardUrls.size());
+        for (int i = 0; i < shardUrls.size(); i++) {
+            shards.add(pool("shard-" + i, shardUrls.get(i).trim(), username, password, maximumPoolSize, meterRegistry));
+        }
+        // without a separate directory database the email directory lives on the first shard
+        DataSource directory = directoryUrl.isBlank()
+                ? shards.get(0)
+                : pool("shard-directory", directoryUrl.trim(), username, password, maximumPoolSize, meterRegistry);
+        return new ShardedEmployeeStore(shards, directory, new EmployeeIdGenerator(nodeId),
+                Executors.newFixedThreadPool(fanOutThreads));
+    }
+
+    // takes over from EmployeeServiceImpl, the application database keeps the outbox
+    @Bean
+    @Primary
+    public EmployeeService shardedEmployeeService(ShardedEmployeeStore shardedEmployeeStore,
+                                                  ApplicationEventPublisher eventPublisher,
+                                                  PlatformTransactionManager transactionManager) {
+        return new ShardedEmployeeServiceImpl(shardedEmployeeStore, eventPublisher, transactionManager);
+    }
+
+    private static DataSource pool(String name, String url, String username, String password, int maximumPoolSize,
+                                   MeterRegistry meterRegistry) {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName(name);
+        config.setJdbcUrl(url);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(maximumPoolSize);
+        config.setMetricRegistry(meterRegistry);
+        return new HikariDataSource(config);
+    }
+}
@@ -0,0 +1,53 @@
+package net.junit.springboot.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+// replaces spring.jpa.show-sql, statements are counted per request and only the slow ones logged
+@Configuration
+public class SqlStatementConfig {
+
+    // the application DataSource, pools built for replicas, shards or the email directory are left alone
+    static final String APPLICATION_DATA_SOURCE = "dataSource";
+
+    @Bean
+    public SqlStatementCounter sqlStatementCounter(@Value("${app.sql.slow-query-threshold-ms:200}") long slowQueryThresholdMillis,
+                                                   MeterRegistry meterRegistry) {
+        return new SqlStatementCounter(slowQueryThresholdMillis, meterRegistry);
+    }
+
+    @Bean
+    public static BeanPostProcessor sqlStatementDataSourceProxy(ObjectProvider<SqlStatementCounter> sqlStatementCounter) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (APPLICATION_DATA_SOURCE.equals(beanName)
+                        && bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    SqlStatementCounter counter = sqlStatementCounter.getObject();
+                    return ProxyDataSourceBuilder.create(counter.countConnections(dataSource))
+                            .name(beanName)
+                            .listener(counter)
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementFilter> sqlStatementFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlStatementFilter> registration = new FilterRegistrationBean<>(new SqlStatementFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,126 @@
+package net.junit.springboot.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.stream.Collectors;
+
+// counts statements and connection checkouts for the request on the current thread
+public class SqlStatementCounter implements QueryExecutionListener {
+
+    public static final String REQUEST_ATTRIBUTE = SqlStatementCounter.class.getName() + ".STATS";
+
+    private static final Logger log = LoggerFactory.getLogger(SqlStatementCounter.class);
+
+    private static final ThreadLocal<Stats> CURRENT = new ThreadLocal<>();
+
+    private final long slowQueryThresholdMillis;
+
+    private final Counter statements;
+
+    private final Counter slowStatements;
+
+    private final Counter connections;
+
+    public SqlStatementCounter(long slowQueryThresholdMillis, MeterRegistry meterRegistry) {
+        this.slowQueryThresholdMillis = slowQueryThresholdMillis;
+        this.statements = Counter.builder("sql.statements").register(meterRegistry);
+        this.slowStatements = Counter.builder("sql.statements.slow").register(meterRegistry);
+        this.connections = Counter.builder("sql.connections").register(meterRegistry);
+    }
+
+    public static Stats begin() {
+        Stats stats = new Stats();
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    public static Stats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMillis = execInfo.getElapsedTime();
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.statements++;
+            stats.elapsedMillis += elapsedMillis;
+        }
+        statements.increment();
+        if (elapsedMillis >= slowQueryThresholdMillis) {
+            slowStatements.increment();
+            log.warn("Slow SQL ({} ms{}): {}", elapsedMillis,
+                    execInfo.isBatch() ? ", batch of " + execInfo.getBatchSize() : "",
+                    queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; ")));
+        }
+    }
+
+    // wraps only getConnection, the connections, statements and result sets handed out are not intercepted
+    public DataSource countConnections(DataSource dataSource) {
+        return new DelegatingDataSource(dataSource) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                Connection connection = super.getConnection();
+                connectionAcquired();
+                return connection;
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                Connection connection = super.getConnection(username, password);
+                connectionAcquired();
+                return connection;
+            }
+        };
+    }
+
+    // a checkout from the pool, every transaction should need exactly one
+    private void connectionAcquired() {
+        Stats stats = CURRENT.get();
+        if (stats != null) {
+            stats.connections++;
+        }
+        connections.increment();
+    }
+
+    // one per request, only ever touched by the thread serving it
+    public static final class Stats {
+
+        private int statements;
+
+        private long elapsedMillis;
+
+        private int connections;
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public int getConnections() {
+            return connections;
+        }
+    }
+}
@@ -1,21 +1,66 @@
 package net.junit.springboot.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import net.junit.springboot.dto.CursorPage;
+import net.junit.springboot.dto.EmployeeBatchDeleteRequest;
+import net.junit.springboot.dto.EmployeeBatchDeleteResult;
+import net.junit.springboot.dto.EmployeeBatchResult;
+import net.junit.springboot.dto.EmployeeField;
+import net.junit.springboot.dto.EmployeePatch;
+import net.junit.springboot.dto.EmployeeRows;
+import net.junit.springboot.dto.EmployeeSummary;
+import net.junit.springboot.event.EmployeeChangeFeed;
+import net.junit.springboot.exception.BadRequestException;
+import net.junit.springboot.exception.PreconditionFailedException;
 import net.junit.springboot.model.Employee;
+import net.junit.springboot.search.EmployeeSearchIndex;
 import net.junit.springboot.service.EmployeeService;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/employees")
 public class EmployeeController {
 
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    static final String APPLICATION_MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+
+    static final int MAX_SEARCH_RESULTS = 100;
+
+    static final int MAX_LIST_SIZE = 1000;
+
     private EmployeeService employeeService;
 
-    public EmployeeController(EmployeeService employeeService) {
+    private ObjectMapper objectMapper;
+
+    private EmployeeChangeFeed employeeChangeFeed;
+
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    public EmployeeController(EmployeeService employeeService, ObjectMapper objectMapper,
+                              EmployeeChangeFeed employeeChangeFeed, EmployeeSearchIndex employeeSearchIndex) {
         this.employeeService = employeeService;
+        this.objectMapper = objectMapper;
+        this.employeeChangeFeed = employeeChangeFeed;
+        this.employeeSearchIndex = employeeSearchIndex;
     }
 
     @PostMapping
@@ -24,40 +69,237 @@ public class EmployeeController {
         return employeeService.saveEmployee(employee);
     }
 
+    @PostMapping("/batch")
+    public List<EmployeeBatchResult> createEmployees(@RequestBody List<Employee> employees) {
+        return employeeService.saveEmployees(employees);
+    }
+
+    // set-based delete by ids or by email domain
+    @PostMapping("/batch-delete")
+    public EmployeeBatchDeleteResult deleteEmployees(@RequestBody EmployeeBatchDeleteRequest request) {
+        boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        boolean byEmailDomain = request.getEmailDomain() != null && !request.getEmailDomain().isBlank();
+        if (byIds == byEmailDomain) {
+            throw new BadRequestException("Either ids or emailDomain has to be given");
+        }
+        return new EmployeeBatchDeleteResult(byIds
+                ? employeeService.deleteEmployees(request.getIds())
+                : employeeService.deleteEmployeesByEmailDomain(request.getEmailDomain()));
+    }
+
+    // the first MAX_LIST_SIZE employees, a Link header points to /page for the rest
     @GetMapping
-    public List<Employee> getAllEmployees() {
-        return employeeService.getAllEmployees();
+    public ResponseEntity<List<Employee>> getAllEmployees() {
+        CursorPage<Employee> page = employeeService.getEmployeesPage(null, MAX_LIST_SIZE);
+        List<Employee> employees = page.getContent();
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag(employees)).varyBy(HttpHeaders.ACCEPT);
+        if (page.getNextCursor() != null) {
+            response.header(HttpHeaders.LINK, "</api/employees/page?after=" + page.getNextCursor()
+                    + "&limit=" + MAX_LIST_SIZE + ">; rel=\"next\"");
+        }
+        return response.body(employees);
+    }
+
+    // fields=id,email returns only those properties
+    @GetMapping(params = "fields")
+    public ResponseEntity<EmployeeRows> getAllEmployees(@RequestParam("fields") String fields) {
+        EmployeeRows employees = employeeService.getAllEmployees(EmployeeField.parse(fields));
+        return ResponseEntity.ok().eTag(eTag(employees)).varyBy(HttpHeaders.ACCEPT).body(employees);
+    }
+
+    // id and display name of every employee
+    @GetMapping("/summaries")
+    public List<EmployeeSummary> getEmployeeSummaries() {
+        return employeeService.getEmployeeSummaries();
+    }
+
+    @GetMapping("/page")
+    public CursorPage<Employee> getEmployeesPage(@RequestParam(name = "after", required = false) String after,
+                                                 @RequestParam(name = "limit", defaultValue = "50") int limit) {
+        return employeeService.getEmployeesPage(after, limit);
+    }
+
+    @GetMapping("/by-name")
+    public List<Employee> getEmployeesByName(@RequestParam("firstName") String firstName,
+                                             @RequestParam("lastName") String lastName,
+                                             @RequestParam(name = "limit", defaultValue = "50") int limit) {
+        return employeeService.getEmployeesByName(firstName, lastName, limit);
+    }
+
+    // type-ahead over first name, last name and email
+    @GetMapping("/search")
+    public List<Employee> searchEmployees(@RequestParam("q") String query,
+                                          @RequestParam(name = "limit", defaultValue = "20") int limit) {
+        return employeeSearchIndex.search(query, Math.min(limit, MAX_SEARCH_RESULTS));
+    }
+
+    @GetMapping(value = "/export", produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportEmployees() {
+        ObjectWriter writer = objectMapper.writerFor(Employee.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                employeeService.exportEmployees(employee -> {
+                    try {
+                        writer.writeValue(generator, employee);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE))
+                .body(body);
+    }
+
+    // pushes committed changes, a reconnect with Last-Event-ID resumes
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(@RequestHeader(name = "Last-Event-ID", required = false) Long lastEventId) {
+        return employeeChangeFeed.subscribe(lastEventId);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Employee> getEmployeeById(@PathVariable("id") long employeeId) {
         return employeeService.getEmployeeById(employeeId)
-                .map(ResponseEntity::ok)
+                .map(employee -> ResponseEntity.ok().eTag(eTag(employee)).varyBy(HttpHeaders.ACCEPT).body(employee))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
+    // with If-Match a stale ETag gets 412
     @PutMapping("/{id}")
     public ResponseEntity<Employee> updateEmployee(@PathVariable("id") long employeeId,
+                                                   @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
                                                    @RequestBody Employee employee) {
-        return employeeService.getEmployeeById(employeeId)
-                .map(savedEmployee -> {
-                    savedEmployee.setFirstName(employee.getFirstName());
-                    savedEmployee.setLastName(employee.getLastName());
-                    savedEmployee.setEmail(employee.getEmail());
+        requireAllFields(employee);
+        return employeeService.updateEmployee(employeeId, expectedVersion(employeeId, ifMatch), employee)
+                .map(updatedEmployee -> ResponseEntity.ok().eTag(eTag(updatedEmployee)).varyBy(HttpHeaders.ACCEPT)
+                        .body(updatedEmployee))
+                .orElseGet(() -> ResponseEntity.notFound().build());
 
-                    Employee updatedEmployee = employeeService.updateEmployee(savedEmployee);
+    }
 
-                    return new ResponseEntity<Employee>(updatedEmployee, HttpStatus.OK);
-                })
+    // JSON Merge Patch
+    @PatchMapping(value = "/{id}", consumes = {APPLICATION_MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Employee> patchEmployee(@PathVariable("id") long employeeId,
+                                                  @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                  @RequestBody JsonNode patch) {
+        return employeeService.patchEmployee(employeeId, expectedVersion(employeeId, ifMatch), employeePatch(patch))
+                .map(patchedEmployee -> ResponseEntity.ok().eTag(eTag(patchedEmployee)).varyBy(HttpHeaders.ACCEPT)
+                        .body(patchedEmployee))
                 .orElseGet(() -> ResponseEntity.notFound().build());
-
     }
 
     @DeleteMapping("{id}")
     public ResponseEntity<String> deleteEmployee(@PathVariable("id") long employeeId) {
-        employeeService.deleteEmployee(employeeId);
+        if (!employeeService.deleteEmployee(employeeId)) {
+            return ResponseEntity.notFound().build();
+        }
 
         return new ResponseEntity<String>("Employee deleted successfully!.", HttpStatus.OK);
     }
-}
 
+    // RepresentationETagAdvice appends the wire format
+    static String eTag(Employee employee) {
+        return employee.getId() + "-" + employee.getVersion();
+    }
+
+    // a list naming two versions of the employee is refused
+    static Long expectedVersion(long employeeId, String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        Long expected = null;
+        for (String tag : ifMatch.split(",")) {
+            Long version = version(employeeId, tag.trim());
+            if (version == null) {
+                continue;
+            }
+            if (expected != null && !expected.equals(version)) {
+                throw new PreconditionFailedException("If-Match " + ifMatch.trim() + " names more than one version of employee " + employeeId);
+            }
+            expected = version;
+        }
+        if (expected == null) {
+            throw new PreconditionFailedException("If-Match " + ifMatch.trim() + " does not match employee " + employeeId);
+        }
+        return expected;
+    }
+
+    // null for weak or foreign tags, the wire format suffix is dropped
+    static Long version(long employeeId, String tag) {
+        String prefix = "\"" + employeeId + "-";
+        if (!tag.startsWith(prefix) || !tag.endsWith("\"") || tag.length() == prefix.length()) {
+            return null;
+        }
+        String version = tag.substring(prefix.length(), tag.length() - 1);
+        int format = version.indexOf('-');
+        try {
+            return Long.parseLong(format >= 0 ? version.substring(0, format) : version);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static void requireAllFields(Employee employee) {
+        if (employee.getFirstName() == null || employee.getLastName() == null || employee.getEmail() == null) {
+            throw new BadRequestException("A PUT has to give firstName, lastName and email, use PATCH to change some of them");
+        }
+    }
+
+    static EmployeePatch employeePatch(JsonNode patch) {
+        if (!patch.isObject()) {
+            throw new BadRequestException("A merge patch for an employee has to be a JSON object");
+        }
+        EmployeePatch.EmployeePatchBuilder builder = EmployeePatch.builder();
+        patch.fields().forEachRemaining(field -> {
+            String name = field.getKey();
+            if (!field.getValue().isTextual()) {
+                throw new BadRequestException("Employee field " + name + " has to be a string");
+            }
+            String value = field.getValue().textValue();
+            switch (name) {
+                case "firstName" -> builder.firstName(value);
+                case "lastName" -> builder.lastName(value);
+                case "email" -> builder.email(value);
+                default -> throw new BadRequestException("Employee field " + name + " cannot be patched");
+            }
+        });
+        return builder.build();
+    }
+
+    static String eTag(List<Employee> employees) {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES);
+        for (Employee employee : employees) {
+            buffer.clear();
+            buffer.putLong(employee.getId()).putLong(employee.getVersion());
+            digest.update(buffer.array());
+        }
+        return employees.size() + "-" + HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    // the chosen fields are part of the tag
+    static String eTag(EmployeeRows employees) {
+        MessageDigest digest = sha256();
+        employees.getFields().forEach(field -> digest.update((byte) field.ordinal()));
+        ByteBuffer buffer = ByteBuffer.allocate(2 * Long.BYTES);
+        for (Object[] row : employees.getRows()) {
+            buffer.clear();
+            buffer.putLong((Long) row[EmployeeRows.ID]).putLong((Long) row[EmployeeRows.VERSION]);
+            digest.update(buffer.array());
+        }
+        return employees.getRows().size() + "-" + HexFormat.of().formatHex(digest.digest(), 0, 16);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
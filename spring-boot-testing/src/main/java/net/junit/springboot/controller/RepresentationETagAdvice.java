@@ -0,0 +1,75 @@
+package net.junit.springboot.controller;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.util.Locale;
+
+// appends the negotiated wire format to the ETag ("1-3" becomes "1-3-cbor") and checks If-None-Match against it
+@ControllerAdvice(assignableTypes = EmployeeController.class)
+public class RepresentationETagAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        String eTag = response.getHeaders().getETag();
+        if (eTag == null || eTag.startsWith("W/") || !eTag.endsWith("\"")) {
+            return body;
+        }
+        eTag = eTag.substring(0, eTag.length() - 1) + "-" + format(selectedContentType) + "\"";
+        setETag(response, eTag);
+        if ((request.getMethod() == HttpMethod.GET || request.getMethod() == HttpMethod.HEAD)
+                && matches(request.getHeaders().getIfNoneMatch(), eTag)) {
+            response.setStatusCode(HttpStatus.NOT_MODIFIED);
+            return null;
+        }
+        return body;
+    }
+
+    // for GET the tag is already on the servlet response
+    private static void setETag(ServerHttpResponse response, String eTag) {
+        response.getHeaders().remove(HttpHeaders.ETAG);
+        if (response instanceof ServletServerHttpResponse servletResponse) {
+            servletResponse.getServletResponse().setHeader(HttpHeaders.ETAG, eTag);
+        } else {
+            response.getHeaders().setETag(eTag);
+        }
+    }
+
+    // application/json -> json, application/x-jackson-smile -> smile, application/x-protobuf -> protobuf
+    static String format(MediaType mediaType) {
+        String subtype = mediaType.getSubtypeSuffix() != null ? mediaType.getSubtypeSuffix() : mediaType.getSubtype();
+        subtype = subtype.toLowerCase(Locale.ROOT);
+        int dash = subtype.lastIndexOf('-');
+        return dash >= 0 ? subtype.substring(dash + 1) : subtype;
+    }
+
+    // weak comparison, as If-None-Match asks for
+    private static boolean matches(Iterable<String> ifNoneMatch, String eTag) {
+        for (String tag : ifNoneMatch) {
+            if (tag.equals("*") || opaque(tag).equals(opaque(eTag))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String opaque(String tag) {
+        return tag.startsWith("W/") ? tag.substring(2) : tag;
+    }
+}
@@ -0,0 +1,41 @@
+package net.junit.springboot.controller;
+
+import net.junit.springboot.config.SqlStatementCounter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// with app.sql.debug-headers=true reports the statements and connection checkouts as response headers
+@ControllerAdvice
+@ConditionalOnProperty(name = "app.sql.debug-headers", havingValue = "true")
+public class SqlStatementHeaderAdvice implements ResponseBodyAdvice<Object> {
+
+    public static final String STATEMENTS_HEADER = "X-SQL-Statements";
+
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    public static final String CONNECTIONS_HEADER = "X-SQL-Connections";
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        SqlStatementCounter.Stats stats = SqlStatementCounter.current();
+        if (stats != null) {
+            response.getHeaders().set(STATEMENTS_HEADER, Integer.toString(stats.getStatements()));
+            response.getHeaders().set(TIME_HEADER, Long.toString(stats.getElapsedMillis()));
+            response.getHeaders().set(CONNECTIONS_HEADER, Integer.toString(stats.getConnections()));
+        }
+        return body;
+    }
+}
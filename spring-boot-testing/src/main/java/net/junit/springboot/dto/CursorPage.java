@@ -0,0 +1,17 @@
+package net.junit.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    private List<T> content;
+
+    // opaque cursor to pass back as "after" for the next page, null on the last page
+    private String nextCursor;
+
+}
@@ -0,0 +1,22 @@
+package net.junit.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EmployeeBatchDeleteRequest {
+
+    // either the ids to delete ...
+    private List<Long> ids;
+
+    // ... or every employee whose email is at this domain, e.g. "contractor.example.com"
+    private String emailDomain;
+
+}
@@ -0,0 +1,15 @@
+package net.junit.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeBatchDeleteResult {
+
+    // employees that existed and are now deleted, ids without an employee are not counted
+    private long deleted;
+
+}
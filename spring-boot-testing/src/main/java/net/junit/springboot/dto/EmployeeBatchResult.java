@@ -0,0 +1,30 @@
+package net.junit.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class EmployeeBatchResult {
+
+    public enum Status {
+        CREATED,
+        DUPLICATE
+    }
+
+    // position of the employee in the request body
+    private int index;
+
+    private Status status;
+
+    private Long id;
+
+    private String email;
+
+    private String message;
+
+}
@@ -0,0 +1,47 @@
+package net.junit.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.junit.springboot.exception.BadRequestException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// The employee properties a client can pick with GET /api/employees?fields=..., with the column behind each.
+@Getter
+@AllArgsConstructor
+public enum EmployeeField {
+
+    ID("id", "id", true),
+    FIRST_NAME("firstName", "first_name", false),
+    LAST_NAME("lastName", "last_name", false),
+    EMAIL("email", "email", false),
+    VERSION("version", "version", true);
+
+    private final String property;
+
+    private final String column;
+
+    private final boolean numeric;
+
+    // comma separated property names in the order the client wants them, duplicates are dropped
+    public static List<EmployeeField> parse(String fields) {
+        List<EmployeeField> parsed = new ArrayList<>();
+        for (String name : fields.split(",")) {
+            EmployeeField field = of(name.trim());
+            if (!parsed.contains(field)) {
+                parsed.add(field);
+            }
+        }
+        return parsed;
+    }
+
+    private static EmployeeField of(String property) {
+        for (EmployeeField field : values()) {
+            if (field.property.equalsIgnoreCase(property)) {
+                return field;
+            }
+        }
+        throw new BadRequestException("Unknown employee field: " + property);
+    }
+}
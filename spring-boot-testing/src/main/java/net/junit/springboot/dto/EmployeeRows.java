@@ -0,0 +1,59 @@
+package net.junit.springboot.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.io.IOException;
+import java.util.List;
+
+// employees reduced to the chosen fields, every row starts with the id and the version
+@Getter
+@AllArgsConstructor
+@JsonSerialize(using = EmployeeRows.Serializer.class)
+public class EmployeeRows {
+
+    public static final int ID = 0;
+
+    public static final int VERSION = 1;
+
+    public static final int FIRST_FIELD = 2;
+
+    private List<EmployeeField> fields;
+
+    private List<Object[]> rows;
+
+    static class Serializer extends StdSerializer<EmployeeRows> {
+
+        Serializer() {
+            super(EmployeeRows.class);
+        }
+
+        @Override
+        public void serialize(EmployeeRows employees, JsonGenerator generator, SerializerProvider provider)
+                throws IOException {
+            List<EmployeeField> fields = employees.getFields();
+            generator.writeStartArray(employees, employees.getRows().size());
+            for (Object[] row : employees.getRows()) {
+                generator.writeStartObject();
+                for (int i = 0; i < fields.size(); i++) {
+                    EmployeeField field = fields.get(i);
+                    Object value = row[FIRST_FIELD + i];
+                    generator.writeFieldName(field.getProperty());
+                    if (value == null) {
+                        generator.writeNull();
+                    } else if (field.isNumeric()) {
+                        generator.writeNumber((Long) value);
+                    } else {
+                        generator.writeString((String) value);
+                    }
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package net.junit.springboot.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+// What a picker or a list of names needs, selected with a constructor expression so no entity is loaded.
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class EmployeeSummary {
+
+    private long id;
+
+    private String displayName;
+
+}
@@ -0,0 +1,222 @@
+package net.junit.springboot.event;
+
+import jakarta.annotation.PreDestroy;
+import net.junit.springboot.model.Employee;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Committed employee changes for GET /api/employees/changes, kept in a ring buffer that every subscriber holds
+// a cursor into; one that falls behind the buffer gets a "reset" event, one that stops reading is dropped.
+@Component
+public class EmployeeChangeFeed {
+
+    public record Change(long id, EmployeeChangedEvent.Type type, long employeeId, Employee employee) {
+    }
+
+    private final Change[] ring;
+
+    // ids continue from the boot time so a Last-Event-ID from before a restart is recognised as stale
+    private final long firstId;
+
+    private long nextId;
+
+    private final long emitterTimeoutMillis;
+
+    private final ExecutorService sender;
+
+    private final long sendTimeoutNanos;
+
+    private final ScheduledExecutorService sendWatchdog;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public EmployeeChangeFeed(@Value("${app.changes.buffer-size:1024}") int bufferSize,
+                              @Value("${app.changes.emitter-timeout-ms:1800000}") long emitterTimeoutMillis,
+                              @Value("${app.changes.sender-threads:4}") int senderThreads,
+                              @Value("${app.changes.send-timeout-ms:10000}") long sendTimeoutMillis) {
+        this.ring = new Change[bufferSize];
+        this.firstId = System.currentTimeMillis() * 1000;
+        this.nextId = firstId;
+        this.emitterTimeoutMillis = emitterTimeoutMillis;
+        this.sender = Executors.newFixedThreadPool(senderThreads);
+        this.sendTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(sendTimeoutMillis);
+        this.sendWatchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-send-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long checkIntervalMillis = Math.max(1, sendTimeoutMillis / 4);
+        sendWatchdog.scheduleWithFixedDelay(this::dropStuckSubscribers, checkIntervalMillis, checkIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        synchronized (this) {
+            for (Employee employee : event.getEmployees()) {
+                long id = nextId++;
+                ring[(int) (id % ring.length)] = new Change(id, event.getType(), employee.getId(),
+                        event.getType() == EmployeeChangedEvent.Type.DELETED ? null : employee);
+            }
+        }
+        subscribers.forEach(this::schedule);
+    }
+
+    public SseEmitter subscribe(Long lastEventId) {
+        return subscribe(new SseEmitter(emitterTimeoutMillis), lastEventId);
+    }
+
+    SseEmitter subscribe(SseEmitter emitter, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter, lastEventId != null ? lastEventId : latestId());
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        schedule(subscriber);
+        return emitter;
+    }
+
+    synchronized long latestId() {
+        return nextId - 1;
+    }
+
+    // the changes after lastEventId, or null when some of them are no longer (or were never) in the buffer
+    synchronized List<Change> since(long lastEventId) {
+        long oldestId = Math.max(firstId, nextId - ring.length);
+        if (lastEventId < oldestId - 1 || lastEventId >= nextId) {
+            return null;
+        }
+        List<Change> changes = new ArrayList<>((int) (nextId - 1 - lastEventId));
+        for (long id = lastEventId + 1; id < nextId; id++) {
+            changes.add(ring[(int) (id % ring.length)]);
+        }
+        return changes;
+    }
+
+    int subscriberCount() {
+        return subscribers.size();
+    }
+
+    private void schedule(Subscriber subscriber) {
+        if (subscriber.scheduled.compareAndSet(false, true)) {
+            sender.execute(() -> drain(subscriber));
+        }
+    }
+
+    private void drain(Subscriber subscriber) {
+        try {
+            drainPending(subscriber);
+        } finally {
+            // dropped by the watchdog, completed once its blocked send returned
+            if (subscriber.timedOut.compareAndSet(true, false)) {
+                subscriber.emitter.completeWithError(new TimeoutException(
+                        "Change feed subscriber did not take an event within " + sendTimeoutNanos / 1_000_000 + " ms"));
+            }
+        }
+    }
+
+    private void drainPending(Subscriber subscriber) {
+        try {
+            while (subscribers.contains(subscriber)) {
+                sendPending(subscriber);
+                subscriber.scheduled.set(false);
+                if (subscriber.cursor >= latestId() || !subscriber.scheduled.compareAndSet(false, true)) {
+                    return;
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // client went away or the emitter timed out
+            if (subscribers.remove(subscriber)) {
+                subscriber.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    // interrupts the blocked sends, the emitters are completed by drain as the send holds their lock
+    void dropStuckSubscribers() {
+        long now = System.nanoTime();
+        for (Subscriber subscriber : subscribers) {
+            Thread sendingThread = subscriber.sendingThread;
+            if (sendingThread != null && now - subscriber.sendingSince > sendTimeoutNanos
+                    && subscribers.remove(subscriber)) {
+                subscriber.timedOut.set(true);
+                sendingThread.interrupt();
+                schedule(subscriber);
+            }
+        }
+    }
+
+    private static void send(Subscriber subscriber, SseEmitter.SseEventBuilder event) throws IOException {
+        subscriber.sendingSince = System.nanoTime();
+        subscriber.sendingThread = Thread.currentThread();
+        try {
+            subscriber.emitter.send(event);
+        } finally {
+            subscriber.sendingThread = null;
+        }
+    }
+
+    private void sendPending(Subscriber subscriber) throws IOException {
+        List<Change> changes = since(subscriber.cursor);
+        if (changes == null) {
+            long latestId = latestId();
+            send(subscriber, SseEmitter.event().name("reset").id(Long.toString(latestId)).data(""));
+            subscriber.cursor = latestId;
+            return;
+        }
+        for (Change change : changes) {
+            send(subscriber, SseEmitter.event()
+                    .name(change.type().name().toLowerCase(Locale.ROOT))
+                    .id(Long.toString(change.id()))
+                    .data(change));
+            subscriber.cursor = change.id();
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        sendWatchdog.shutdownNow();
+        sender.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        subscribers.clear();
+    }
+
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        // set by the watchdog, the emitter is completed by the next drain to finish
+        private final AtomicBoolean timedOut = new AtomicBoolean();
+
+        // only touched by the single drain running for this subscriber
+        private volatile long cursor;
+
+        // set while a send is in progress, read by the watchdog
+        private volatile Thread sendingThread;
+
+        private volatile long sendingSince;
+
+        private Subscriber(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package net.junit.springboot.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import net.junit.springboot.model.Employee;
+
+import java.util.List;
+
+// published inside the transaction that made the change
+@Getter
+@AllArgsConstructor
+public class EmployeeChangedEvent {
+
+    public enum Type { CREATED, UPDATED, DELETED }
+
+    private final Type type;
+
+    // for DELETED only the ids are set
+    private final List<Employee> employees;
+
+}
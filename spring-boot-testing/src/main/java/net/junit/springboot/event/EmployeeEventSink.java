@@ -0,0 +1,12 @@
+package net.junit.springboot.event;
+
+import net.junit.springboot.model.OutboxEvent;
+
+import java.util.List;
+
+// where OutboxPublisher delivers events, at least once; the outbox id is the idempotency key
+public interface EmployeeEventSink {
+
+    void publish(List<OutboxEvent> events);
+
+}
@@ -0,0 +1,57 @@
+package net.junit.springboot.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.junit.springboot.model.Employee;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Synchronous listener: the outbox rows commit or roll back together with the change that produced them.
+@Component
+public class EmployeeOutboxWriter {
+
+    static final String INSERT_SQL =
+            "insert into employee_outbox (event_type, employee_id, payload, created_at) values (?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ObjectMapper objectMapper;
+
+    public EmployeeOutboxWriter(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        if (event.getEmployees().isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> rows = new ArrayList<>(event.getEmployees().size());
+        for (Employee employee : event.getEmployees()) {
+            rows.add(new Object[]{event.getType().name(), employee.getId(), payload(event.getType(), employee), now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    private String payload(EmployeeChangedEvent.Type type, Employee employee) {
+        if (type == EmployeeChangedEvent.Type.DELETED) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(employee);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize employee " + employee.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package net.junit.springboot.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.junit.springboot.model.OutboxEvent;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// appends one JSON line per event, the whole batch is written before the outbox rows are deleted
+public class FileEmployeeEventSink implements EmployeeEventSink {
+
+    private final Path file;
+
+    private final ObjectMapper objectMapper;
+
+    public FileEmployeeEventSink(Path file, ObjectMapper objectMapper) {
+        this.file = file;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (OutboxEvent event : events) {
+                    writer.write(objectMapper.writeValueAsString(event));
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not append employee events to " + file, e);
+        }
+    }
+}
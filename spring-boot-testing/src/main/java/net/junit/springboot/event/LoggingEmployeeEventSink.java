@@ -0,0 +1,22 @@
+package net.junit.springboot.event;
+
+import net.junit.springboot.model.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+// default sink when no app.outbox.file is configured
+public class LoggingEmployeeEventSink implements EmployeeEventSink {
+
+    private static final Logger log = LoggerFactory.getLogger(LoggingEmployeeEventSink.class);
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        log.info("Published {} employee events, outbox ids {}..{}", events.size(),
+                events.get(0).getId(), events.get(events.size() - 1).getId());
+        if (log.isDebugEnabled()) {
+            events.forEach(event -> log.debug("{} employee {}: {}", event.getEventType(), event.getEmployeeId(), event.getPayload()));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package net.junit.springboot.event;
+
+import net.junit.springboot.model.OutboxEvent;
+import net.junit.springboot.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+// drains the outbox in id order, each batch is locked, delivered and deleted in one transaction
+@Component
+@ConditionalOnProperty(name = "app.outbox.publisher.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxPublisher.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final EmployeeEventSink sink;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    public OutboxPublisher(OutboxEventRepository outboxEventRepository, EmployeeEventSink sink,
+                           PlatformTransactionManager transactionManager,
+                           @Value("${app.outbox.batch-size:500}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:1000}")
+    public void publishPending() {
+        try {
+            // keep going while batches come back full, otherwise wait for the next poll
+            while (publishBatch() == batchSize) {
+            }
+        } catch (RuntimeException e) {
+            log.warn("Publishing employee events failed, retrying on the next poll", e);
+        }
+    }
+
+    public int publishBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<OutboxEvent> events = outboxEventRepository.findByOrderByIdAsc(Limit.of(batchSize));
+            if (events.isEmpty()) {
+                return 0;
+            }
+            sink.publish(events);
+            outboxEventRepository.deleteAllByIdInBatch(events.stream().map(OutboxEvent::getId).toList());
+            return events.size();
+        });
+        return published == null ? 0 : published;
+    }
+}
@@ -0,0 +1,16 @@
+package net.junit.springboot.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class DatabaseBusyException extends RuntimeException{
+
+    public DatabaseBusyException(String message){
+        super(message);
+    }
+
+    public DatabaseBusyException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
@@ -0,0 +1,13 @@
+package net.junit.springboot.exception;
+
+// raised when the email of an employee is already taken
+public class DuplicateEmailException extends ResourceNotFoundException{
+
+    public DuplicateEmailException(String message){
+        super(message);
+    }
+
+    public DuplicateEmailException(String message, Throwable cause){
+        super(message, cause);
+    }
+}
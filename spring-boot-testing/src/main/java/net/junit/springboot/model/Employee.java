@@ -1,7 +1,14 @@
 package net.junit.springboot.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.SQLRestriction;
+
+import java.time.Instant;
 
 @Getter
 @Setter
@@ -9,8 +16,21 @@ import lombok.*;
 @NoArgsConstructor
 @Builder
 @Entity
-@Table(name = "employees")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// an UPDATE only writes the columns that changed, which keeps rows and binlog events small
+@DynamicUpdate
+// soft-deleted employees are invisible to every JPQL query and lookup, native queries have to filter themselves
+@SQLRestriction("deleted_at is null")
+@Table(name = "employees", indexes = {
+        @Index(name = Employee.EMAIL_UNIQUE_INDEX, columnList = "email", unique = true),
+        @Index(name = "idx_employees_name", columnList = "first_name, last_name"),
+        @Index(name = "idx_employees_deleted_at", columnList = "deleted_at")
+})
 public class Employee {
+
+    public static final String EMAIL_UNIQUE_INDEX = "uk_employees_email";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private long id;
@@ -24,4 +44,14 @@ public class Employee {
     @Column(name = "email", nullable = false)
     private String email;
 
+    // bumped on every update, doubles as the strong ETag of the employee
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    // set instead of removing the row when app.employees.soft-delete is on
+    @JsonIgnore
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
 }
@@ -0,0 +1,35 @@
+package net.junit.springboot.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// a pending employee change, written in the same transaction as the change and deleted once published
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@Entity
+@Table(name = "employee_outbox")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private long id;
+
+    @Column(name = "event_type", nullable = false, length = 16)
+    private String eventType;
+
+    @Column(name = "employee_id", nullable = false)
+    private long employeeId;
+
+    // the employee as JSON, null for deletes
+    @Column(name = "payload", length = 4000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+}
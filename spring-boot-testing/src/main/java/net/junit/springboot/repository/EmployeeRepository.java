@@ -1,30 +1,87 @@
 package net.junit.springboot.repository;
 
+import jakarta.persistence.QueryHint;
+import net.junit.springboot.config.CacheConfig;
+import net.junit.springboot.dto.EmployeeSummary;
 import net.junit.springboot.model.Employee;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 
-public interface EmployeeRepository extends JpaRepository<Employee, Long> {
+public interface EmployeeRepository extends JpaRepository<Employee, Long>, EmployeeRepositoryCustom {
+    //wiping the table bypasses EmployeeService, so the employees cache is dropped here
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true)
+    void deleteAll();
+
+    @Override
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true)
+    void deleteAllInBatch();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "employee-by-email")
+    })
     Optional<Employee> findByEmail(String email);
 
-    //define custom query using JPQL with index params
+    //duplicate check for a whole batch of emails in one round trip
+    @Query(value = "select e.email from employees e where e.email in :emails and e.deleted_at is null", nativeQuery = true)
+    Set<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    //the given ids that belong to an employee
+    @Query("select e.id from Employee e where e.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    //keyset walk over the ids matching an email pattern
+    @Query("select e.id from Employee e where e.id > :after and e.email like :pattern escape '!' order by e.id")
+    List<Long> findIdsByEmailLike(@Param("after") long after, @Param("pattern") String pattern, Limit limit);
 
+    //keyset pagination on the primary key
+    List<Employee> findByIdGreaterThanOrderByIdAsc(long id, Limit limit);
+
+    //constructor expression, no entity is managed
+    @Query("select new net.junit.springboot.dto.EmployeeSummary(e.id, concat(e.firstName, ' ', e.lastName)) "
+            + "from Employee e order by e.id")
+    List<EmployeeSummary> findAllSummaries();
+
+    //name lookup served by idx_employees_name
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "employee-by-name")
+    })
+    List<Employee> findByFirstNameAndLastNameOrderByIdAsc(String firstName, String lastName, Limit limit);
+
+    //define custom query using JPQL with index params
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "employee-by-name")
+    })
     @Query("select e from Employee e where e.firstName = ?1 and e.lastName = ?2")
     Employee findByJPQL(String firstName, String lastName);
 
     //define custom query using JPQL with named params
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = "employee-by-name")
+    })
     @Query("select e from Employee e where e.firstName =:firstName and e.lastName =:lastName")
     Employee findByJPQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
     //define custom query using Native SQL with index params
-    @Query(value = "select * from employees e where e.first_name=?1 and e.last_name=?2", nativeQuery = true)
+    @Query(value = "select * from employees e where e.first_name=?1 and e.last_name=?2 and e.deleted_at is null", nativeQuery = true)
     Employee findByNativeSQL(String firstName, String lastName);
 
     //define custom query using Native SQL with named params
-    @Query(value = "select * from employees e where e.first_name=:firstName and e.last_name=:lastName", nativeQuery = true)
+    @Query(value = "select * from employees e where e.first_name=:firstName and e.last_name=:lastName and e.deleted_at is null", nativeQuery = true)
     Employee findByNativeSQLNamed(@Param("firstName") String firstName, @Param("lastName") String lastName);
 }
@@ -0,0 +1,30 @@
+package net.junit.springboot.repository;
+
+import net.junit.springboot.dto.EmployeeField;
+import net.junit.springboot.model.Employee;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+public interface EmployeeRepositoryCustom {
+
+    // walks the whole table with a forward-only cursor, must be called inside a transaction
+    long scrollAll(int batchSize, Consumer<Employee> action);
+
+    // one JDBC batch inside a read-committed transaction, returns the employees whose email was taken meanwhile
+    List<Employee> insertAll(List<Employee> employees);
+
+    // id, version and the given fields of every employee in id order, one array per row as in EmployeeRows
+    List<Object[]> findAllColumns(List<EmployeeField> fields);
+
+    // a single statement, only when the version matches (if given); returns the number of rows changed
+    int updateIfVersionMatches(long id, Long version, String firstName, String lastName, String email);
+
+    // a single statement, only stamps deleted_at when soft delete is on
+    int deleteByIds(Collection<Long> ids);
+
+    // hard deletes up to limit employees that were soft-deleted before the given instant
+    int purgeDeleted(Instant deletedBefore, int limit);
+}
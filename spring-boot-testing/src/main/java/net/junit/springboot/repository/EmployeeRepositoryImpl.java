@@ -0,0 +1,253 @@
+package net.junit.springboot.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import net.junit.springboot.dto.EmployeeField;
+import net.junit.springboot.dto.EmployeeRows;
+import net.junit.springboot.model.Employee;
+import org.hibernate.Cache;
+import org.hibernate.CacheMode;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+public class EmployeeRepositoryImpl implements EmployeeRepositoryCustom {
+
+    private static final String INSERT_SQL = "insert into employees (first_name, last_name, email, version) values (?, ?, ?, 0)";
+
+    private static final String SELECT_PURGEABLE_SQL =
+            "select id from employees where deleted_at < ? order by deleted_at limit ?";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private boolean softDelete;
+
+    public EmployeeRepositoryImpl(JdbcTemplate jdbcTemplate,
+                                  @Value("${app.employees.soft-delete:false}") boolean softDelete) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.softDelete = softDelete;
+    }
+
+    @Override
+    public long scrollAll(int batchSize, Consumer<Employee> action) {
+        Session session = entityManager.unwrap(Session.class);
+        long count = 0;
+        try (ScrollableResults<Employee> results = session
+                .createSelectionQuery("select e from Employee e order by e.id", Employee.class)
+                .setReadOnly(true)
+                .setCacheMode(CacheMode.IGNORE)
+                .setFetchSize(batchSize)
+                .scroll(ScrollMode.FORWARD_ONLY)) {
+            while (results.next()) {
+                action.accept(results.get());
+                if (++count % batchSize == 0) {
+                    session.clear();
+                }
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public List<Employee> insertAll(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return List.of();
+        }
+        List<Employee> duplicates = new ArrayList<>();
+        List<Employee> remaining = employees;
+        while (!insertWithSavepoint(remaining)) {
+            // an email was taken since the caller checked, the rest is batched once more
+            Set<String> taken = findLiveEmails(remaining);
+            List<Employee> free = new ArrayList<>(remaining.size());
+            for (Employee employee : remaining) {
+                if (taken.contains(employee.getEmail().toLowerCase(Locale.ROOT))) {
+                    duplicates.add(employee);
+                } else {
+                    free.add(employee);
+                }
+            }
+            if (free.size() == remaining.size()) {
+                free.stream().filter(employee -> !insertWithSavepoint(List.of(employee))).forEach(duplicates::add);
+                break;
+            }
+            if (free.isEmpty()) {
+                break;
+            }
+            remaining = free;
+        }
+        if (duplicates.size() < employees.size()) {
+            evictAfterCommit(List.of());
+        }
+        return duplicates;
+    }
+
+    // lower-cased like the index compares them
+    private Set<String> findLiveEmails(List<Employee> employees) {
+        String placeholders = String.join(",", Collections.nCopies(employees.size(), "?"));
+        return jdbcTemplate.queryForList("select email from employees where deleted_at is null and email in ("
+                        + placeholders + ")", String.class, employees.stream().map(Employee::getEmail).toArray())
+                .stream()
+                .map(email -> email.toLowerCase(Locale.ROOT))
+                .collect(Collectors.toSet());
+    }
+
+    // a failed batch is rolled back to the savepoint instead of taking the whole transaction with it
+    private boolean insertWithSavepoint(List<Employee> employees) {
+        return jdbcTemplate.execute((ConnectionCallback<Boolean>) con -> {
+            Savepoint savepoint = con.setSavepoint();
+            try {
+                batchInsert(employees);
+            } catch (DuplicateKeyException e) {
+                con.rollback(savepoint);
+                return false;
+            }
+            con.releaseSavepoint(savepoint);
+            return true;
+        });
+    }
+
+    private void batchInsert(List<Employee> employees) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Employee employee = employees.get(i);
+                        ps.setString(1, employee.getFirstName());
+                        ps.setString(2, employee.getLastName());
+                        ps.setString(3, employee.getEmail());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return employees.size();
+                    }
+                },
+                keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        for (int i = 0; i < employees.size(); i++) {
+            employees.get(i).setId(((Number) keys.get(i).values().iterator().next()).longValue());
+        }
+    }
+
+    // plain JDBC writes evict only these employees, a bulk JPQL statement would drop the whole cache region
+    private void evictWritten(Collection<Long> ids) {
+        entityManager.clear();
+        Cache cache = secondLevelCache();
+        ids.forEach(id -> cache.evictEntityData(Employee.class, id));
+        evictAfterCommit(ids);
+    }
+
+    private void evictAfterCommit(Collection<Long> ids) {
+        Cache cache = secondLevelCache();
+        Runnable evict = () -> {
+            ids.forEach(id -> cache.evictEntityData(Employee.class, id));
+            cache.evictQueryRegions();
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict.run();
+            }
+        });
+    }
+
+    private Cache secondLevelCache() {
+        return entityManager.getEntityManagerFactory().getCache().unwrap(Cache.class);
+    }
+
+    @Override
+    public List<Object[]> findAllColumns(List<EmployeeField> fields) {
+        String columns = fields.stream().map(field -> ", " + field.getColumn()).collect(Collectors.joining());
+        return jdbcTemplate.query("select id, version" + columns + " from employees where deleted_at is null order by id",
+                (rs, rowNum) -> {
+                    Object[] row = new Object[EmployeeRows.FIRST_FIELD + fields.size()];
+                    row[EmployeeRows.ID] = rs.getLong(1);
+                    row[EmployeeRows.VERSION] = rs.getLong(2);
+                    for (int i = 0; i < fields.size(); i++) {
+                        int column = EmployeeRows.FIRST_FIELD + i + 1;
+                        row[EmployeeRows.FIRST_FIELD + i] = fields.get(i).isNumeric() ? rs.getLong(column) : rs.getString(column);
+                    }
+                    return row;
+                });
+    }
+
+    @Override
+    public int updateIfVersionMatches(long id, Long version, String firstName, String lastName, String email) {
+        entityManager.flush();
+        String sql = "update employees set first_name = ?, last_name = ?, email = ?, version = version + 1 "
+                + "where id = ? and deleted_at is null";
+        int updated = version == null
+                ? jdbcTemplate.update(sql, firstName, lastName, email, id)
+                : jdbcTemplate.update(sql + " and version = ?", firstName, lastName, email, id, version);
+        evictWritten(List.of(id));
+        return updated;
+    }
+
+    @Override
+    public int deleteByIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        entityManager.flush();
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        int deleted;
+        if (softDelete) {
+            List<Object> params = new ArrayList<>(ids.size() + 1);
+            params.add(Timestamp.from(Instant.now()));
+            params.addAll(ids);
+            // frees the email for a new employee before the purge
+            deleted = jdbcTemplate.update("update employees set deleted_at = ?, version = version + 1, "
+                    + "email = left(concat('deleted:', id, ':', email), 255) "
+                    + "where deleted_at is null and id in (" + placeholders + ")", params.toArray());
+        } else {
+            deleted = jdbcTemplate.update("delete from employees where id in (" + placeholders + ")", ids.toArray());
+        }
+        evictWritten(ids);
+        return deleted;
+    }
+
+    @Override
+    public int purgeDeleted(Instant deletedBefore, int limit) {
+        // deleted by primary key, so only the chunk is locked
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_PURGEABLE_SQL, Long.class, Timestamp.from(deletedBefore), limit);
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        String placeholders = String.join(",", Collections.nCopies(ids.size(), "?"));
+        return jdbcTemplate.update("delete from employees where deleted_at is not null and id in (" + placeholders + ")",
+                ids.toArray());
+    }
+}
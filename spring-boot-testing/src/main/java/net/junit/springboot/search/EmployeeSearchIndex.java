@@ -0,0 +1,211 @@
+package net.junit.springboot.search;
+
+import net.junit.springboot.event.EmployeeChangedEvent;
+import net.junit.springboot.model.Employee;
+import net.junit.springboot.service.EmployeeService;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+// In-process prefix index over first name, last name and email for GET /api/employees/search, kept current from
+// committed changes of this node
+@Component
+public class EmployeeSearchIndex {
+
+    private static final Pattern NAME_SEPARATORS = Pattern.compile("[\\s'-]+");
+
+    private static final Pattern EMAIL_SEPARATORS = Pattern.compile("[@._+-]+");
+
+    private final EmployeeService employeeService;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final NavigableMap<String, Set<Long>> tokens = new TreeMap<>();
+
+    private final Map<Long, Indexed> employees = new HashMap<>();
+
+    // deletes seen while the initial load runs, so the load cannot bring those employees back
+    private Set<Long> deletedDuringLoad;
+
+    public EmployeeSearchIndex(EmployeeService employeeService) {
+        this.employeeService = employeeService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        write(() -> deletedDuringLoad = new HashSet<>());
+        try {
+            employeeService.exportEmployees(this::loadEmployee);
+        } finally {
+            write(() -> deletedDuringLoad = null);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onEmployeeChanged(EmployeeChangedEvent event) {
+        write(() -> {
+            for (Employee employee : event.getEmployees()) {
+                if (event.getType() == EmployeeChangedEvent.Type.DELETED) {
+                    remove(employee.getId());
+                    if (deletedDuringLoad != null) {
+                        deletedDuringLoad.add(employee.getId());
+                    }
+                } else {
+                    put(employee);
+                }
+            }
+        });
+    }
+
+    // every whitespace separated term of the query has to be the prefix of one of the employee's tokens
+    public List<Employee> search(String query, int limit) {
+        List<String> terms = terms(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String first = terms.get(0);
+        List<Employee> result = new ArrayList<>(Math.min(limit, 64));
+        Set<Long> seen = new HashSet<>();
+        lock.readLock().lock();
+        try {
+            for (Set<Long> ids : tokens.subMap(first, true, first + Character.MAX_VALUE, false).values()) {
+                for (Long id : ids) {
+                    Indexed indexed = employees.get(id);
+                    if (seen.add(id) && indexed.matchesAll(terms)) {
+                        result.add(indexed.employee);
+                        if (result.size() == limit) {
+                            return result;
+                        }
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return employees.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void loadEmployee(Employee employee) {
+        write(() -> {
+            Indexed existing = employees.get(employee.getId());
+            if (deletedDuringLoad.contains(employee.getId())
+                    || (existing != null && existing.employee.getVersion() > employee.getVersion())) {
+                return;
+            }
+            put(employee);
+        });
+    }
+
+    private void put(Employee employee) {
+        remove(employee.getId());
+        Indexed indexed = new Indexed(Employee.builder()
+                .id(employee.getId())
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .version(employee.getVersion())
+                .build());
+        employees.put(employee.getId(), indexed);
+        for (String token : indexed.tokens) {
+            tokens.computeIfAbsent(token, key -> new LinkedHashSet<>()).add(employee.getId());
+        }
+    }
+
+    private void remove(long id) {
+        Indexed indexed = employees.remove(id);
+        if (indexed == null) {
+            return;
+        }
+        for (String token : indexed.tokens) {
+            Set<Long> ids = tokens.get(token);
+            if (ids != null && ids.remove(id) && ids.isEmpty()) {
+                tokens.remove(token);
+            }
+        }
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static List<String> terms(String query) {
+        if (query == null || query.isBlank()) {
+            return List.of();
+        }
+        return List.of(query.trim().toLowerCase(Locale.ROOT).split("\\s+"));
+    }
+
+    static Set<String> tokens(Employee employee) {
+        Set<String> tokens = new LinkedHashSet<>();
+        addTokens(tokens, employee.getFirstName(), NAME_SEPARATORS);
+        addTokens(tokens, employee.getLastName(), NAME_SEPARATORS);
+        addTokens(tokens, employee.getEmail(), EMAIL_SEPARATORS);
+        return tokens;
+    }
+
+    // the whole value plus its parts, so "tiwari" finds "ankesh.tiwari@gmail.com"
+    private static void addTokens(Set<String> tokens, String value, Pattern separators) {
+        if (value == null || value.isBlank()) {
+            return;
+        }
+        String normalized = value.trim().toLowerCase(Locale.ROOT);
+        tokens.add(normalized);
+        for (String part : separators.split(normalized)) {
+            if (!part.isEmpty()) {
+                tokens.add(part);
+            }
+        }
+    }
+
+    private static final class Indexed {
+
+        private final Employee employee;
+
+        private final Set<String> tokens;
+
+        private Indexed(Employee employee) {
+            this.employee = employee;
+            this.tokens = EmployeeSearchIndex.tokens(employee);
+        }
+
+        private boolean matchesAll(List<String> terms) {
+            for (int i = 1; i < terms.size(); i++) {
+                String term = terms.get(i);
+                if (tokens.stream().noneMatch(token -> token.startsWith(term))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
@@ -1,18 +1,44 @@
 package net.junit.springboot.service;
+import net.junit.springboot.dto.CursorPage;
+import net.junit.springboot.dto.EmployeeBatchResult;
+import net.junit.springboot.dto.EmployeeField;
+import net.junit.springboot.dto.EmployeePatch;
+import net.junit.springboot.dto.EmployeeRows;
+import net.junit.springboot.dto.EmployeeSummary;
 import net.junit.springboot.model.Employee;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 public interface EmployeeService {
     Employee saveEmployee(Employee employee);
 
+    List<EmployeeBatchResult> saveEmployees(List<Employee> employees);
+
     List<Employee> getAllEmployees();
 
+    EmployeeRows getAllEmployees(List<EmployeeField> fields);
+
+    List<EmployeeSummary> getEmployeeSummaries();
+
+    CursorPage<Employee> getEmployeesPage(String after, int limit);
+
+    long exportEmployees(Consumer<Employee> consumer);
+
+    List<Employee> getEmployeesByName(String firstName, String lastName, int limit);
+
     Optional<Employee> getEmployeeById(long id);
 
-    Employee updateEmployee (Employee employee);
+    Optional<Employee> updateEmployee (long id, Long expectedVersion, Employee employee);
+
+    Optional<Employee> patchEmployee(long id, Long expectedVersion, EmployeePatch patch);
+
+    boolean deleteEmployee (long id);
+
+    long deleteEmployees(Collection<Long> ids);
 
-    void deleteEmployee (long id);
+    long deleteEmployeesByEmailDomain(String emailDomain);
 
 }
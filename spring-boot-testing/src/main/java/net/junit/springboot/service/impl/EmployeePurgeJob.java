@@ -0,0 +1,62 @@
+package net.junit.springboot.service.impl;
+
+import net.junit.springboot.repository.EmployeeRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+
+// hard deletes soft-deleted employees older than the retention, chunk by chunk with a pause in between
+@Component
+@ConditionalOnProperty(name = "app.employees.soft-delete", havingValue = "true")
+public class EmployeePurgeJob {
+
+    private static final Logger log = LoggerFactory.getLogger(EmployeePurgeJob.class);
+
+    private final EmployeeRepository employeeRepository;
+
+    private final Duration retention;
+
+    private final int batchSize;
+
+    private final long pauseMillis;
+
+    public EmployeePurgeJob(EmployeeRepository employeeRepository,
+                            @Value("${app.employees.purge.retention:30d}") Duration retention,
+                            @Value("${app.employees.purge.batch-size:1000}") int batchSize,
+                            @Value("${app.employees.purge.pause-ms:100}") long pauseMillis) {
+        this.employeeRepository = employeeRepository;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.pauseMillis = pauseMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${app.employees.purge.interval-ms:3600000}")
+    public long purge() {
+        Instant deletedBefore = Instant.now().minus(retention);
+        long purged = 0;
+        try {
+            int deleted;
+            do {
+                deleted = employeeRepository.purgeDeleted(deletedBefore, batchSize);
+                purged += deleted;
+                if (deleted == batchSize && pauseMillis > 0) {
+                    Thread.sleep(pauseMillis);
+                }
+            } while (deleted == batchSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Purging deleted employees failed, retrying on the next run", e);
+        }
+        if (purged > 0) {
+            log.info("Purged {} employees deleted before {}", purged, deletedBefore);
+        }
+        return purged;
+    }
+}
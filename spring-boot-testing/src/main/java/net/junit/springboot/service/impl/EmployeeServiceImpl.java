@@ -1,32 +1,134 @@
 package net.junit.springboot.service.impl;
 
-import net.junit.springboot.exception.ResourceNotFoundException;
+import net.junit.springboot.config.CacheConfig;
+import net.junit.springboot.dto.CursorPage;
+import net.junit.springboot.dto.EmployeeBatchResult;
+import net.junit.springboot.dto.EmployeeField;
+import net.junit.springboot.dto.EmployeePatch;
+import net.junit.springboot.dto.EmployeeRows;
+import net.junit.springboot.dto.EmployeeSummary;
+import net.junit.springboot.event.EmployeeChangedEvent;
+import net.junit.springboot.exception.BadRequestException;
+import net.junit.springboot.exception.DuplicateEmailException;
+import net.junit.springboot.exception.PreconditionFailedException;
 import net.junit.springboot.model.Employee;
 import net.junit.springboot.repository.EmployeeRepository;
 import net.junit.springboot.service.EmployeeService;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
 import java.util.Optional;
+import java.util.function.Consumer;
 
+// read-only by default, every write method declares its own transaction
 @Service
+@Transactional(readOnly = true)
 public class EmployeeServiceImpl implements EmployeeService {
 
+    static final int MAX_PAGE_SIZE = 1000;
+
+    static final int EXPORT_BATCH_SIZE = 500;
+
+    static final int INSERT_BATCH_SIZE = 1000;
+
+    static final int DELETE_BATCH_SIZE = 1000;
+
     private EmployeeRepository employeeRepository;
 
-    public EmployeeServiceImpl(EmployeeRepository employeeRepository) {
+    private ApplicationEventPublisher eventPublisher;
+
+    public EmployeeServiceImpl(EmployeeRepository employeeRepository, ApplicationEventPublisher eventPublisher) {
         this.employeeRepository = employeeRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#result.id")
     public Employee saveEmployee(Employee employee) {
 
-        Optional<Employee> savedEmployee = employeeRepository.findByEmail(employee.getEmail());
-        if (savedEmployee.isPresent()) {
-            throw new ResourceNotFoundException("Employee already exit with given email: " + employee.getEmail());
+        // the unique index on email is the duplicate check
+        try {
+            Employee savedEmployee = employeeRepository.saveAndFlush(employee);
+            publish(EmployeeChangedEvent.Type.CREATED, List.of(savedEmployee));
+            return savedEmployee;
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateEmail(e)) {
+                throw new DuplicateEmailException("Employee already exit with given email: " + employee.getEmail(), e);
+            }
+            throw e;
         }
-        return employeeRepository.save(employee);
+    }
+
+    @Override
+    @Transactional(isolation = Isolation.READ_COMMITTED)
+    public List<EmployeeBatchResult> saveEmployees(List<Employee> employees) {
+        List<EmployeeBatchResult> results = new ArrayList<>(employees.size());
+        Set<String> seenEmails = new HashSet<>();
+
+        for (int from = 0; from < employees.size(); from += INSERT_BATCH_SIZE) {
+            List<Employee> chunk = employees.subList(from, Math.min(from + INSERT_BATCH_SIZE, employees.size()));
+            // compared ignoring case, as the index does
+            Set<String> existingEmails = new HashSet<>();
+            employeeRepository.findExistingEmails(chunk.stream().map(Employee::getEmail).toList())
+                    .forEach(email -> existingEmails.add(normalizeEmail(email)));
+
+            List<Employee> toInsert = new ArrayList<>(chunk.size());
+            List<Integer> insertIndexes = new ArrayList<>(chunk.size());
+            for (int i = 0; i < chunk.size(); i++) {
+                Employee employee = chunk.get(i);
+                String email = normalizeEmail(employee.getEmail());
+                if (existingEmails.contains(email) || !seenEmails.add(email)) {
+                    results.add(duplicate(from + i, employee));
+                } else {
+                    toInsert.add(employee);
+                    insertIndexes.add(results.size());
+                    results.add(null);
+                }
+            }
+
+            Set<Employee> lostRace = Collections.newSetFromMap(new IdentityHashMap<>());
+            lostRace.addAll(employeeRepository.insertAll(toInsert));
+            List<Employee> inserted = lostRace.isEmpty()
+                    ? toInsert
+                    : toInsert.stream().filter(employee -> !lostRace.contains(employee)).toList();
+            publish(EmployeeChangedEvent.Type.CREATED, inserted);
+            for (int i = 0; i < toInsert.size(); i++) {
+                Employee employee = toInsert.get(i);
+                int resultIndex = insertIndexes.get(i);
+                results.set(resultIndex, lostRace.contains(employee)
+                        ? duplicate(resultIndex, employee)
+                        : EmployeeBatchResult.builder()
+                                .index(resultIndex)
+                                .status(EmployeeBatchResult.Status.CREATED)
+                                .id(employee.getId())
+                                .email(employee.getEmail())
+                                .build());
+            }
+        }
+        return results;
     }
 
     @Override
@@ -34,19 +136,226 @@ public class EmployeeServiceImpl implements EmployeeService {
         return employeeRepository.findAll();
     }
 
+    // plain JDBC rows instead of entities
+    @Override
+    public EmployeeRows getAllEmployees(List<EmployeeField> fields) {
+        return new EmployeeRows(fields, employeeRepository.findAllColumns(fields));
+    }
+
     @Override
+    public List<EmployeeSummary> getEmployeeSummaries() {
+        return employeeRepository.findAllSummaries();
+    }
+
+    @Override
+    public CursorPage<Employee> getEmployeesPage(String after, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        // one extra row tells whether there is a next page
+        List<Employee> employees = employeeRepository.findByIdGreaterThanOrderByIdAsc(decodeCursor(after), Limit.of(pageSize + 1));
+        if (employees.size() <= pageSize) {
+            return new CursorPage<>(employees, null);
+        }
+        List<Employee> content = employees.subList(0, pageSize);
+        return new CursorPage<>(content, encodeCursor(content.get(pageSize - 1).getId()));
+    }
+
+    @Override
+    public long exportEmployees(Consumer<Employee> consumer) {
+        return employeeRepository.scrollAll(EXPORT_BATCH_SIZE, consumer);
+    }
+
+    @Override
+    public List<Employee> getEmployeesByName(String firstName, String lastName, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        return employeeRepository.findByFirstNameAndLastNameOrderByIdAsc(firstName, lastName, Limit.of(pageSize));
+    }
+
+    // an employee read from a replica is not cached
+    @Override
+    @Cacheable(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id",
+            unless = "#result == null || T(net.junit.springboot.config.ReplicaRoutingDataSource).lastReadFromReplica()")
     public Optional<Employee> getEmployeeById(long id) {
         return employeeRepository.findById(id);
     }
 
     @Override
-    public Employee updateEmployee(Employee employee) {
-        return employeeRepository.save(employee);
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id", unless = "#result == null")
+    public Optional<Employee> updateEmployee(long id, Long expectedVersion, Employee employee) {
+        int updated;
+        try {
+            updated = employeeRepository.updateIfVersionMatches(id, expectedVersion,
+                    employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateEmailException("Employee already exit with given email: " + employee.getEmail(), e);
+        }
+
+        if (updated == 0) {
+            if (expectedVersion != null && employeeRepository.existsById(id)) {
+                throw new PreconditionFailedException("Employee " + id + " no longer has version " + expectedVersion);
+            }
+            return Optional.empty();
+        }
+        Optional<Employee> updatedEmployee;
+        if (expectedVersion == null) {
+            updatedEmployee = employeeRepository.findById(id);
+        } else {
+            updatedEmployee = Optional.of(Employee.builder()
+                    .id(id)
+                    .firstName(employee.getFirstName())
+                    .lastName(employee.getLastName())
+                    .email(employee.getEmail())
+                    .version(expectedVersion + 1)
+                    .build());
+        }
+        updatedEmployee.ifPresent(e -> publish(EmployeeChangedEvent.Type.UPDATED, List.of(e)));
+        return updatedEmployee;
+    }
+
+    // written through the entity, the UPDATE is version-checked and names only the changed columns
+    @Override
+    @Transactional
+    @CachePut(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id", unless = "#result == null")
+    public Optional<Employee> patchEmployee(long id, Long expectedVersion, EmployeePatch patch) {
+        Optional<Employee> found = employeeRepository.findById(id);
+        if (found.isEmpty()) {
+            return found;
+        }
+        Employee employee = found.get();
+        if (expectedVersion != null && employee.getVersion() != expectedVersion) {
+            throw new PreconditionFailedException("Employee " + id + " no longer has version " + expectedVersion);
+        }
+
+        // a patch that changes nothing writes nothing
+        if (!applyPatch(employee, patch)) {
+            return found;
+        }
+        try {
+            employeeRepository.flush();
+        } catch (DataIntegrityViolationException e) {
+            if (isDuplicateEmail(e)) {
+                throw new DuplicateEmailException("Employee already exit with given email: " + patch.getEmail(), e);
+            }
+            throw e;
+        } catch (ObjectOptimisticLockingFailureException e) {
+            throw new PreconditionFailedException("Employee " + id + " was changed concurrently", e);
+        }
+        publish(EmployeeChangedEvent.Type.UPDATED, List.of(employee));
+        return found;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, key = "#id")
+    public boolean deleteEmployee(long id) {
+        return deleteChunk(List.of(id)) > 0;
     }
 
     @Override
-    public void deleteEmployee(long id) {
-        employeeRepository.deleteById(id);
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true)
+    public long deleteEmployees(Collection<Long> ids) {
+        List<Long> distinctIds = ids.stream().distinct().toList();
+        long deleted = 0;
+        for (int from = 0; from < distinctIds.size(); from += DELETE_BATCH_SIZE) {
+            List<Long> chunk = distinctIds.subList(from, Math.min(from + DELETE_BATCH_SIZE, distinctIds.size()));
+            deleted += deleteChunk(employeeRepository.findExistingIds(chunk));
+        }
+        return deleted;
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.EMPLOYEES_CACHE, allEntries = true)
+    public long deleteEmployeesByEmailDomain(String emailDomain) {
+        if (emailDomain == null || emailDomain.isBlank()) {
+            throw new BadRequestException("Email domain must not be empty");
+        }
+        String pattern = "%@" + escapeLike(emailDomain.trim());
+
+        // ids read without locks and deleted by primary key
+        long deleted = 0;
+        long after = 0;
+        List<Long> ids;
+        do {
+            ids = employeeRepository.findIdsByEmailLike(after, pattern, Limit.of(DELETE_BATCH_SIZE));
+            if (!ids.isEmpty()) {
+                deleted += deleteChunk(ids);
+                after = ids.get(ids.size() - 1);
+            }
+        } while (ids.size() == DELETE_BATCH_SIZE);
+        return deleted;
+    }
+
+    private int deleteChunk(List<Long> ids) {
+        int deleted = employeeRepository.deleteByIds(ids);
+        if (deleted > 0) {
+            publish(EmployeeChangedEvent.Type.DELETED, ids.stream().map(id -> Employee.builder().id(id).build()).toList());
+        }
+        return deleted;
+    }
+
+    // handled synchronously by EmployeeOutboxWriter, inside the caller's transaction
+    private void publish(EmployeeChangedEvent.Type type, List<Employee> employees) {
+        eventPublisher.publishEvent(new EmployeeChangedEvent(type, employees));
+    }
+
+    static EmployeeBatchResult duplicate(int index, Employee employee) {
+        return EmployeeBatchResult.builder()
+                .index(index)
+                .status(EmployeeBatchResult.Status.DUPLICATE)
+                .email(employee.getEmail())
+                .message("Employee already exit with given email: " + employee.getEmail())
+                .build();
+    }
+
+    static String normalizeEmail(String email) {
+        return email == null ? null : email.toLowerCase(Locale.ROOT);
+    }
+
+    static boolean isDuplicateEmail(DataIntegrityViolationException e) {
+        return e.getCause() instanceof ConstraintViolationException violation
+                && violation.getConstraintName() != null
+                && violation.getConstraintName().toLowerCase(Locale.ROOT).contains(Employee.EMAIL_UNIQUE_INDEX);
+    }
+
+    // sets only the values that differ, returns whether anything did
+    static boolean applyPatch(Employee employee, EmployeePatch patch) {
+        boolean changed = false;
+        if (patch.getFirstName() != null && !Objects.equals(patch.getFirstName(), employee.getFirstName())) {
+            employee.setFirstName(patch.getFirstName());
+            changed = true;
+        }
+        if (patch.getLastName() != null && !Objects.equals(patch.getLastName(), employee.getLastName())) {
+            employee.setLastName(patch.getLastName());
+            changed = true;
+        }
+        if (patch.getEmail() != null && !Objects.equals(patch.getEmail(), employee.getEmail())) {
+            employee.setEmail(patch.getEmail());
+            changed = true;
+        }
+        return changed;
+    }
+
+    static String escapeLike(String value) {
+        return value.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+    }
+
+    static String encodeCursor(long id) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(Long.toString(id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    static long decodeCursor(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return 0L;
+        }
+        try {
+            return Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid page cursor: " + cursor, e);
+        }
     }
 
 }
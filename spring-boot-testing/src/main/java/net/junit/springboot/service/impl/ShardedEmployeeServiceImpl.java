@@ -0,0 +1,250 @@
+package net.junit.springboot.service.impl;
+
+import net.junit.springboot.dto.CursorPage;
+import net.junit.springboot.dto.EmployeeBatchResult;
+import net.junit.springboot.dto.EmployeeField;
+import net.junit.springboot.dto.EmployeePatch;
+import net.junit.springboot.dto.EmployeeRows;
+import net.junit.springboot.dto.EmployeeSummary;
+import net.junit.springboot.event.EmployeeChangedEvent;
+import net.junit.springboot.exception.BadRequestException;
+import net.junit.springboot.exception.DuplicateEmailException;
+import net.junit.springboot.exception.PreconditionFailedException;
+import net.junit.springboot.model.Employee;
+import net.junit.springboot.service.EmployeeService;
+import net.junit.springboot.shard.ShardedEmployeeStore;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import static net.junit.springboot.service.impl.EmployeeServiceImpl.DELETE_BATCH_SIZE;
+import static net.junit.springboot.service.impl.EmployeeServiceImpl.EXPORT_BATCH_SIZE;
+import static net.junit.springboot.service.impl.EmployeeServiceImpl.INSERT_BATCH_SIZE;
+import static net.junit.springboot.service.impl.EmployeeServiceImpl.MAX_PAGE_SIZE;
+
+// The EmployeeService once app.shards.urls is set (see ShardingConfig), change events still go to the outbox of
+// the application database
+public class ShardedEmployeeServiceImpl implements EmployeeService {
+
+    private final ShardedEmployeeStore store;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public ShardedEmployeeServiceImpl(ShardedEmployeeStore store, ApplicationEventPublisher eventPublisher,
+                                      PlatformTransactionManager transactionManager) {
+        this.store = store;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public Employee saveEmployee(Employee employee) {
+        return write(() -> {
+            Employee savedEmployee = insert(employee);
+            publish(EmployeeChangedEvent.Type.CREATED, List.of(savedEmployee));
+            return savedEmployee;
+        });
+    }
+
+    // one batch per database for every INSERT_BATCH_SIZE employees
+    @Override
+    public List<EmployeeBatchResult> saveEmployees(List<Employee> employees) {
+        return write(() -> {
+            List<EmployeeBatchResult> results = new ArrayList<>(employees.size());
+            List<Employee> inserted = new ArrayList<>(employees.size());
+            for (int from = 0; from < employees.size(); from += INSERT_BATCH_SIZE) {
+                List<Employee> chunk = employees.subList(from, Math.min(from + INSERT_BATCH_SIZE, employees.size()));
+                Set<Employee> taken = Collections.newSetFromMap(new IdentityHashMap<>());
+                taken.addAll(store.insertAll(chunk));
+                for (int i = 0; i < chunk.size(); i++) {
+                    Employee employee = chunk.get(i);
+                    if (taken.contains(employee)) {
+                        results.add(EmployeeServiceImpl.duplicate(from + i, employee));
+                    } else {
+                        inserted.add(employee);
+                        results.add(EmployeeBatchResult.builder()
+                                .index(from + i)
+                                .status(EmployeeBatchResult.Status.CREATED)
+                                .id(employee.getId())
+                                .email(employee.getEmail())
+                                .build());
+                    }
+                }
+            }
+            publish(EmployeeChangedEvent.Type.CREATED, inserted);
+            return results;
+        });
+    }
+
+    @Override
+    public List<Employee> getAllEmployees() {
+        List<Employee> employees = new ArrayList<>();
+        store.forEach(EXPORT_BATCH_SIZE, employees::add);
+        return employees;
+    }
+
+    @Override
+    public EmployeeRows getAllEmployees(List<EmployeeField> fields) {
+        List<Object[]> rows = new ArrayList<>();
+        store.forEach(EXPORT_BATCH_SIZE, employee -> {
+            Object[] row = new Object[EmployeeRows.FIRST_FIELD + fields.size()];
+            row[EmployeeRows.ID] = employee.getId();
+            row[EmployeeRows.VERSION] = employee.getVersion();
+            for (int i = 0; i < fields.size(); i++) {
+                row[EmployeeRows.FIRST_FIELD + i] = switch (fields.get(i)) {
+                    case ID -> employee.getId();
+                    case FIRST_NAME -> employee.getFirstName();
+                    case LAST_NAME -> employee.getLastName();
+                    case EMAIL -> employee.getEmail();
+                    case VERSION -> employee.getVersion();
+                };
+            }
+            rows.add(row);
+        });
+        return new EmployeeRows(fields, rows);
+    }
+
+    @Override
+    public List<EmployeeSummary> getEmployeeSummaries() {
+        List<EmployeeSummary> summaries = new ArrayList<>();
+        store.forEach(EXPORT_BATCH_SIZE, employee ->
+                summaries.add(new EmployeeSummary(employee.getId(), employee.getFirstName() + " " + employee.getLastName())));
+        return summaries;
+    }
+
+    @Override
+    public CursorPage<Employee> getEmployeesPage(String after, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+
+        List<Employee> employees = store.findPage(EmployeeServiceImpl.decodeCursor(after), pageSize + 1);
+        if (employees.size() <= pageSize) {
+            return new CursorPage<>(employees, null);
+        }
+        List<Employee> content = employees.subList(0, pageSize);
+        return new CursorPage<>(content, EmployeeServiceImpl.encodeCursor(content.get(pageSize - 1).getId()));
+    }
+
+    @Override
+    public long exportEmployees(Consumer<Employee> consumer) {
+        return store.forEach(EXPORT_BATCH_SIZE, consumer);
+    }
+
+    @Override
+    public List<Employee> getEmployeesByName(String firstName, String lastName, int limit) {
+        return store.findByName(firstName, lastName, Math.min(Math.max(limit, 1), MAX_PAGE_SIZE));
+    }
+
+    @Override
+    public Optional<Employee> getEmployeeById(long id) {
+        return store.findById(id);
+    }
+
+    @Override
+    public Optional<Employee> updateEmployee(long id, Long expectedVersion, Employee employee) {
+        return write(() -> {
+            Optional<Employee> updated = update(id, expectedVersion, employee);
+            updated.ifPresent(updatedEmployee -> publish(EmployeeChangedEvent.Type.UPDATED, List.of(updatedEmployee)));
+            return updated;
+        });
+    }
+
+    @Override
+    public Optional<Employee> patchEmployee(long id, Long expectedVersion, EmployeePatch patch) {
+        Optional<Employee> found = store.findById(id);
+        if (found.isEmpty()) {
+            return found;
+        }
+        Employee employee = found.get();
+        if (expectedVersion != null && employee.getVersion() != expectedVersion) {
+            throw new PreconditionFailedException("Employee " + id + " no longer has version " + expectedVersion);
+        }
+        // a patch that changes nothing writes nothing
+        if (!EmployeeServiceImpl.applyPatch(employee, patch)) {
+            return found;
+        }
+        return updateEmployee(id, employee.getVersion(), employee);
+    }
+
+    @Override
+    public boolean deleteEmployee(long id) {
+        return deleteAll(List.of(id)) > 0;
+    }
+
+    @Override
+    public long deleteEmployees(Collection<Long> ids) {
+        return deleteAll(ids.stream().distinct().toList());
+    }
+
+    @Override
+    public long deleteEmployeesByEmailDomain(String emailDomain) {
+        if (emailDomain == null || emailDomain.isBlank()) {
+            throw new BadRequestException("Email domain must not be empty");
+        }
+        String pattern = "%@" + EmployeeServiceImpl.escapeLike(emailDomain.trim());
+
+        long deleted = 0;
+        long after = 0;
+        List<Employee> employees;
+        do {
+            employees = store.findByEmailLike(after, pattern, DELETE_BATCH_SIZE);
+            if (!employees.isEmpty()) {
+                deleted += deleteAll(employees.stream().map(Employee::getId).toList());
+                after = employees.get(employees.size() - 1).getId();
+            }
+        } while (employees.size() == DELETE_BATCH_SIZE);
+        return deleted;
+    }
+
+    private long deleteAll(List<Long> ids) {
+        return write(() -> {
+            List<Employee> deleted = new ArrayList<>(ids.size());
+            for (long id : ids) {
+                if (store.delete(id)) {
+                    deleted.add(Employee.builder().id(id).build());
+                }
+            }
+            publish(EmployeeChangedEvent.Type.DELETED, deleted);
+            return (long) deleted.size();
+        });
+    }
+
+    private Employee insert(Employee employee) {
+        try {
+            return store.insert(employee);
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateEmailException("Employee already exit with given email: " + employee.getEmail(), e);
+        }
+    }
+
+    private Optional<Employee> update(long id, Long expectedVersion, Employee employee) {
+        try {
+            return store.update(id, expectedVersion, employee);
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateEmailException("Employee already exit with given email: " + employee.getEmail(), e);
+        }
+    }
+
+    private <T> T write(Supplier<T> change) {
+        return transactionTemplate.execute(status -> change.get());
+    }
+
+    // handled synchronously by EmployeeOutboxWriter, inside the transaction of write
+    private void publish(EmployeeChangedEvent.Type type, List<Employee> employees) {
+        if (!employees.isEmpty()) {
+            eventPublisher.publishEvent(new EmployeeChangedEvent(type, employees));
+        }
+    }
+}
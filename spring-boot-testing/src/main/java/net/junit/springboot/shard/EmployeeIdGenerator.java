@@ -0,0 +1,79 @@
+package net.junit.springboot.shard;
+
+import java.util.function.LongSupplier;
+
+// Cluster-wide unique, time ordered ids of 53 bits (safe JavaScript integers): 41 bits of milliseconds since
+// EPOCH_MILLIS, 6 bits of node id and a 6 bit sequence. A used up sequence borrows up to MAX_BORROWED_MILLIS ahead.
+public class EmployeeIdGenerator {
+
+    static final long EPOCH_MILLIS = 1704067200000L; // 2024-01-01T00:00:00Z
+
+    static final int TIMESTAMP_BITS = 41;
+
+    static final int NODE_BITS = 6;
+
+    static final int SEQUENCE_BITS = 6;
+
+    static final long MAX_BORROWED_MILLIS = 2000;
+
+    // a longer wait means the clock was set back, nextId fails instead of blocking every caller that long
+    static final long MAX_WAIT_MILLIS = 5000;
+
+    private static final long MAX_SEQUENCE = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeId;
+
+    private final LongSupplier clockMillis;
+
+    private long lastMillis = -1;
+
+    private long sequence;
+
+    public EmployeeIdGenerator(long nodeId) {
+        this(nodeId, System::currentTimeMillis);
+    }
+
+    EmployeeIdGenerator(long nodeId, LongSupplier clockMillis) {
+        if (nodeId < 0 || nodeId >= (1L << NODE_BITS)) {
+            throw new IllegalArgumentException("Node id has to be between 0 and " + ((1L << NODE_BITS) - 1));
+        }
+        this.nodeId = nodeId;
+        this.clockMillis = clockMillis;
+    }
+
+    public synchronized long nextId() {
+        long nowMillis = clockMillis.getAsLong() - EPOCH_MILLIS;
+        long millis = Math.max(nowMillis, lastMillis);
+        long nextSequence = 0;
+        if (millis == lastMillis) {
+            nextSequence = (sequence + 1) & MAX_SEQUENCE;
+            if (nextSequence == 0) {
+                // sequence exhausted, borrow the next millisecond unless that runs too far ahead of the clock
+                millis++;
+                long waitMillis = millis - MAX_BORROWED_MILLIS - nowMillis;
+                if (waitMillis > MAX_WAIT_MILLIS) {
+                    throw new IllegalStateException("The clock is " + waitMillis + " ms behind the employee ids of node "
+                            + nodeId + ", it was probably set back");
+                }
+                if (waitMillis > 0) {
+                    sleep(waitMillis);
+                }
+            }
+        }
+        if (millis >= (1L << TIMESTAMP_BITS)) {
+            throw new IllegalStateException("Employee ids are exhausted, the timestamp no longer fits in " + TIMESTAMP_BITS + " bits");
+        }
+        lastMillis = millis;
+        sequence = nextSequence;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the clock to catch up with the employee ids", e);
+        }
+    }
+}
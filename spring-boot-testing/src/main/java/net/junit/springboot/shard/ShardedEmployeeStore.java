@@ -0,0 +1,379 @@
+package net.junit.springboot.shard;
+
+import net.junit.springboot.exception.PreconditionFailedException;
+import net.junit.springboot.model.Employee;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+// Employees partitioned over several databases by a hash of their id, emails kept unique by a directory database.
+// An email is claimed in the directory before the shard write and released when that fails.
+public class ShardedEmployeeStore implements Closeable {
+
+    private static final String COLUMNS = "id, first_name, last_name, email, version";
+
+    private static final String INSERT_SQL =
+            "insert into employees (id, first_name, last_name, email, version) values (?, ?, ?, ?, 0)";
+
+    private static final String UPDATE_SQL = "update employees set first_name = ?, last_name = ?, email = ?, "
+            + "version = version + 1 where id = ?";
+
+    private static final RowMapper<Employee> EMPLOYEE_ROW_MAPPER = (rs, rowNum) -> Employee.builder()
+            .id(rs.getLong("id"))
+            .firstName(rs.getString("first_name"))
+            .lastName(rs.getString("last_name"))
+            .email(rs.getString("email"))
+            .version(rs.getLong("version"))
+            .build();
+
+    private final List<DataSource> shardDataSources;
+
+    private final List<JdbcTemplate> shards = new ArrayList<>();
+
+    private final DataSource directoryDataSource;
+
+    private final JdbcTemplate directory;
+
+    private final EmployeeIdGenerator idGenerator;
+
+    private final ExecutorService fanOutExecutor;
+
+    public ShardedEmployeeStore(List<DataSource> shardDataSources, DataSource directoryDataSource,
+                                EmployeeIdGenerator idGenerator, ExecutorService fanOutExecutor) {
+        if (shardDataSources.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is needed");
+        }
+        this.shardDataSources = List.copyOf(shardDataSources);
+        this.shardDataSources.forEach(dataSource -> shards.add(new JdbcTemplate(dataSource)));
+        this.directoryDataSource = directoryDataSource;
+        this.directory = new JdbcTemplate(directoryDataSource);
+        this.idGenerator = idGenerator;
+        this.fanOutExecutor = fanOutExecutor;
+    }
+
+    // stable for a fixed number of shards
+    public int shardOf(long id) {
+        return (int) Math.floorMod(mix(id), (long) shards.size());
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    // assigns the id, throws DuplicateKeyException when the email belongs to another employee
+    public Employee insert(Employee employee) {
+        long id = idGenerator.nextId();
+        claimEmail(employee.getEmail(), id);
+        try {
+            shard(id).update(INSERT_SQL, id, employee.getFirstName(), employee.getLastName(), employee.getEmail());
+        } catch (RuntimeException e) {
+            releaseEmail(employee.getEmail(), id);
+            throw e;
+        }
+        return Employee.builder()
+                .id(id)
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .version(0)
+                .build();
+    }
+
+    // one batch per database, returns the employees whose email is taken (compared ignoring case)
+    public List<Employee> insertAll(List<Employee> employees) {
+        if (employees.isEmpty()) {
+            return List.of();
+        }
+        List<Employee> taken = new ArrayList<>();
+        Set<String> claimedEmails = new HashSet<>();
+        directory.queryForList("select email from employee_email_directory where email in ("
+                        + String.join(", ", Collections.nCopies(employees.size(), "?")) + ")",
+                        String.class, employees.stream().map(Employee::getEmail).toArray())
+                .forEach(email -> claimedEmails.add(email.toLowerCase(Locale.ROOT)));
+
+        List<Employee> toClaim = new ArrayList<>(employees.size());
+        List<Long> ids = new ArrayList<>(employees.size());
+        for (Employee employee : employees) {
+            if (claimedEmails.add(employee.getEmail().toLowerCase(Locale.ROOT))) {
+                toClaim.add(employee);
+                ids.add(idGenerator.nextId());
+            } else {
+                taken.add(employee);
+            }
+        }
+
+        List<Employee> claimed = new ArrayList<>(toClaim.size());
+        List<Long> claimedIds = new ArrayList<>(toClaim.size());
+        try {
+            directory.batchUpdate("insert into employee_email_directory (email, employee_id) values (?, ?)",
+                    emailClaims(toClaim, ids));
+            claimed = toClaim;
+            claimedIds = ids;
+        } catch (DuplicateKeyException e) {
+            // claimed concurrently, the claims are retried one by one
+            for (int i = 0; i < toClaim.size(); i++) {
+                if (claimOrCheck(toClaim.get(i).getEmail(), ids.get(i))) {
+                    claimed.add(toClaim.get(i));
+                    claimedIds.add(ids.get(i));
+                } else {
+                    taken.add(toClaim.get(i));
+                }
+            }
+        }
+
+        List<List<Integer>> byShard = new ArrayList<>(shards.size());
+        shards.forEach(shard -> byShard.add(new ArrayList<>()));
+        for (int i = 0; i < claimed.size(); i++) {
+            byShard.get(shardOf(claimedIds.get(i))).add(i);
+        }
+        for (int shard = 0; shard < shards.size(); shard++) {
+            List<Object[]> rows = new ArrayList<>(byShard.get(shard).size());
+            for (int i : byShard.get(shard)) {
+                Employee employee = claimed.get(i);
+                rows.add(new Object[]{claimedIds.get(i), employee.getFirstName(), employee.getLastName(), employee.getEmail()});
+            }
+            try {
+                shards.get(shard).batchUpdate(INSERT_SQL, rows);
+            } catch (RuntimeException e) {
+                List<Object[]> claims = new ArrayList<>();
+                for (int rest = shard; rest < shards.size(); rest++) {
+                    for (int i : byShard.get(rest)) {
+                        claims.add(new Object[]{claimed.get(i).getEmail(), claimedIds.get(i)});
+                    }
+                }
+                directory.batchUpdate("delete from employee_email_directory where email = ? and employee_id = ?", claims);
+                throw e;
+            }
+        }
+        for (int i = 0; i < claimed.size(); i++) {
+            claimed.get(i).setId(claimedIds.get(i));
+            claimed.get(i).setVersion(0);
+        }
+        return taken;
+    }
+
+    public Optional<Employee> findById(long id) {
+        return shard(id).query("select " + COLUMNS + " from employees where id = ?", EMPLOYEE_ROW_MAPPER, id)
+                .stream().findFirst();
+    }
+
+    public Optional<Employee> findByEmail(String email) {
+        List<Long> ids = directory.queryForList(
+                "select employee_id from employee_email_directory where email = ?", Long.class, email);
+        // the directory matches ignoring case, an orphaned claim has no row on the shard
+        return ids.isEmpty() ? Optional.empty() : findById(ids.get(0)).filter(e -> e.getEmail().equalsIgnoreCase(email));
+    }
+
+    // keyset page over all shards, merged by id
+    public List<Employee> findPage(long afterId, int limit) {
+        return fanOut(shard -> shard.query("select " + COLUMNS + " from employees where id > ? order by id limit ?",
+                EMPLOYEE_ROW_MAPPER, afterId, limit), limit);
+    }
+
+    // walks all employees in id order, a page at a time
+    public long forEach(int pageSize, Consumer<Employee> action) {
+        long visited = 0;
+        long after = 0;
+        List<Employee> employees;
+        do {
+            employees = findPage(after, pageSize);
+            employees.forEach(action);
+            visited += employees.size();
+            if (!employees.isEmpty()) {
+                after = employees.get(employees.size() - 1).getId();
+            }
+        } while (employees.size() == pageSize);
+        return visited;
+    }
+
+    // keyset over the employees whose email matches a LIKE pattern escaped with '!'
+    public List<Employee> findByEmailLike(long afterId, String pattern, int limit) {
+        return fanOut(shard -> shard.query("select " + COLUMNS + " from employees where id > ? and email like ? escape '!' "
+                + "order by id limit ?", EMPLOYEE_ROW_MAPPER, afterId, pattern, limit), limit);
+    }
+
+    public List<Employee> findByName(String firstName, String lastName, int limit) {
+        return fanOut(shard -> shard.query("select " + COLUMNS + " from employees where first_name = ? and last_name = ? "
+                + "order by id limit ?", EMPLOYEE_ROW_MAPPER, firstName, lastName, limit), limit);
+    }
+
+    // version-checked when an expected version is given, an email change moves its directory claim
+    public Optional<Employee> update(long id, Long expectedVersion, Employee employee) {
+        Optional<Employee> current = findById(id);
+        if (current.isEmpty()) {
+            return Optional.empty();
+        }
+        String oldEmail = current.get().getEmail();
+        boolean emailChanged = !Objects.equals(oldEmail, employee.getEmail());
+        if (emailChanged) {
+            claimEmail(employee.getEmail(), id);
+        }
+
+        int updated;
+        try {
+            updated = expectedVersion == null
+                    ? shard(id).update(UPDATE_SQL, employee.getFirstName(), employee.getLastName(), employee.getEmail(), id)
+                    : shard(id).update(UPDATE_SQL + " and version = ?", employee.getFirstName(), employee.getLastName(),
+                    employee.getEmail(), id, expectedVersion);
+        } catch (RuntimeException e) {
+            if (emailChanged) {
+                releaseEmail(employee.getEmail(), id);
+            }
+            throw e;
+        }
+        if (updated == 0) {
+            if (emailChanged) {
+                releaseEmail(employee.getEmail(), id);
+            }
+            if (expectedVersion == null) {
+                return Optional.empty();
+            }
+            throw new PreconditionFailedException("Employee " + id + " no longer has version " + expectedVersion);
+        }
+        if (emailChanged) {
+            releaseEmail(oldEmail, id);
+        }
+        if (expectedVersion == null) {
+            return findById(id);
+        }
+        return Optional.of(Employee.builder()
+                .id(id)
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email(employee.getEmail())
+                .version(expectedVersion + 1)
+                .build());
+    }
+
+    public boolean delete(long id) {
+        Optional<Employee> current = findById(id);
+        if (current.isEmpty() || shard(id).update("delete from employees where id = ?", id) == 0) {
+            return false;
+        }
+        releaseEmail(current.get().getEmail(), id);
+        return true;
+    }
+
+    private void claimEmail(String email, long id) {
+        try {
+            directory.update("insert into employee_email_directory (email, employee_id) values (?, ?)", email, id);
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateKeyException("Employee already exists with given email: " + email, e);
+        }
+    }
+
+    // false when the email belongs to another employee
+    private boolean claimOrCheck(String email, long id) {
+        try {
+            directory.update("insert into employee_email_directory (email, employee_id) values (?, ?)", email, id);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return directory.queryForList("select employee_id from employee_email_directory where email = ?",
+                    Long.class, email).contains(id);
+        }
+    }
+
+    private static List<Object[]> emailClaims(List<Employee> employees, List<Long> ids) {
+        List<Object[]> claims = new ArrayList<>(employees.size());
+        for (int i = 0; i < employees.size(); i++) {
+            claims.add(new Object[]{employees.get(i).getEmail(), ids.get(i)});
+        }
+        return claims;
+    }
+
+    // only removes the claim when it is still held by this employee
+    private void releaseEmail(String email, long id) {
+        directory.update("delete from employee_email_directory where email = ? and employee_id = ?", email, id);
+    }
+
+    private JdbcTemplate shard(long id) {
+        return shards.get(shardOf(id));
+    }
+
+    private List<Employee> fanOut(Function<JdbcTemplate, List<Employee>> query, int limit) {
+        List<CompletableFuture<List<Employee>>> results = shards.stream()
+                .map(shard -> CompletableFuture.supplyAsync(() -> query.apply(shard), fanOutExecutor))
+                .toList();
+        try {
+            CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+        return mergeById(results.stream().map(CompletableFuture::join).toList(), limit);
+    }
+
+    // k-way merge of lists that are each sorted by id
+    static List<Employee> mergeById(List<List<Employee>> sortedLists, int limit) {
+        record Head(Employee employee, Iterator<Employee> rest) {
+        }
+        PriorityQueue<Head> heads = new PriorityQueue<>(Math.max(1, sortedLists.size()),
+                Comparator.comparingLong(head -> head.employee().getId()));
+        for (List<Employee> list : sortedLists) {
+            Iterator<Employee> iterator = list.iterator();
+            if (iterator.hasNext()) {
+                heads.add(new Head(iterator.next(), iterator));
+            }
+        }
+        List<Employee> merged = new ArrayList<>(Math.min(limit, sortedLists.stream().mapToInt(List::size).sum()));
+        while (merged.size() < limit && !heads.isEmpty()) {
+            Head head = heads.poll();
+            merged.add(head.employee());
+            if (head.rest().hasNext()) {
+                heads.add(new Head(head.rest().next(), head.rest()));
+            }
+        }
+        return merged;
+    }
+
+    // murmur3 finalizer
+    static long mix(long id) {
+        long h = id;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    @Override
+    public void close() {
+        fanOutExecutor.shutdownNow();
+        shardDataSources.forEach(ShardedEmployeeStore::closeQuietly);
+        if (!shardDataSources.contains(directoryDataSource)) {
+            closeQuietly(directoryDataSource);
+        }
+    }
+
+    private static void closeQuietly(DataSource dataSource) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                // shutting down anyway
+            }
+        }
+    }
+}
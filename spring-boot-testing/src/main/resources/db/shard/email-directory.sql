@@ -0,0 +1,6 @@
+-- global email to employee id lookup, its primary key keeps emails unique across all shards
+create table employee_email_directory (
+    email varchar(255) not null,
+    employee_id bigint not null,
+    primary key (email)
+);
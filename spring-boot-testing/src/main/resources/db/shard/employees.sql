@@ -0,0 +1,11 @@
+-- schema of every employee shard, ids come from EmployeeIdGenerator and are never generated by the database
+create table employees (
+    id bigint not null,
+    first_name varchar(255) not null,
+    last_name varchar(255) not null,
+    email varchar(255) not null,
+    version bigint not null,
+    primary key (id)
+);
+create unique index uk_employees_email on employees (email);
+create index idx_employees_name on employees (first_name, last_name);
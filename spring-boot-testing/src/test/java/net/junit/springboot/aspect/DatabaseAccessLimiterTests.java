@@ -0,0 +1,110 @@
+package net.junit.springboot.aspect;
+
+import net.junit.springboot.exception.DatabaseBusyException;
+import net.junit.springboot.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class DatabaseAccessLimiterTests {
+
+    private EmployeeService employeeService;
+
+    private EmployeeService limitedEmployeeService;
+
+    private DatabaseAccessLimiter limiter;
+
+    @BeforeEach
+    public void setup() {
+        employeeService = mock(EmployeeService.class);
+        limiter = new DatabaseAccessLimiter(1, 50);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(employeeService);
+        proxyFactory.addAspect(limiter);
+        limitedEmployeeService = proxyFactory.getProxy();
+    }
+
+    // Junit test for a call while all permits are taken
+    @DisplayName("Junit test for a call while all permits are taken")
+    @Test
+    public void givenAllPermitsTaken_whenCallService_thenThrowException() throws Exception {
+        // given- precondition or setup
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(employeeService.getAllEmployees()).willAnswer((invocation) -> {
+            started.countDown();
+            release.await();
+            return Collections.emptyList();
+        });
+        CompletableFuture<?> slowCall = CompletableFuture.runAsync(limitedEmployeeService::getAllEmployees);
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output
+        assertThrows(DatabaseBusyException.class, () -> limitedEmployeeService.getEmployeeById(1L));
+
+        release.countDown();
+        slowCall.get(5, TimeUnit.SECONDS);
+        assertThat(limiter.availablePermits()).isEqualTo(1);
+    }
+
+    // Junit test for nested calls on the same thread
+    @DisplayName("Junit test for nested calls on the same thread")
+    @Test
+    public void givenPermitHeld_whenNestedCallOnSameThread_thenNoSecondPermitIsNeeded() {
+        // given- precondition or setup
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.empty());
+        given(employeeService.getAllEmployees()).willAnswer((invocation) -> {
+            limitedEmployeeService.getEmployeeById(1L);
+            return Collections.emptyList();
+        });
+
+        // when - action or the behaviour that we are going test
+        limitedEmployeeService.getAllEmployees();
+
+        // then - verify the output
+        assertThat(limiter.availablePermits()).isEqualTo(1);
+    }
+
+
+    // Junit test for the streaming export
+    @DisplayName("Junit test for the streaming export")
+    @Test
+    public void givenExportInProgress_whenCallService_thenExportHoldsNoPermit() throws Exception {
+        // given- precondition or setup
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        given(employeeService.exportEmployees(any())).willAnswer((invocation) -> {
+            started.countDown();
+            release.await();
+            return 0L;
+        });
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.empty());
+        CompletableFuture<?> export = CompletableFuture.runAsync(() -> limitedEmployeeService.exportEmployees(employee -> {
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when - action or the behaviour that we are going test
+        Optional<?> employee = limitedEmployeeService.getEmployeeById(1L);
+
+        // then - verify the output
+        assertThat(employee).isEmpty();
+        assertThat(limiter.availablePermits()).isEqualTo(1);
+
+        release.countDown();
+        export.get(5, TimeUnit.SECONDS);
+    }
+
+}
@@ -0,0 +1,108 @@
+package net.junit.springboot.aspect;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.junit.springboot.exception.DuplicateEmailException;
+import net.junit.springboot.exception.ResourceNotFoundException;
+import net.junit.springboot.model.Employee;
+import net.junit.springboot.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+public class EmployeeServiceMetricsTests {
+
+    private EmployeeService employeeService;
+
+    private EmployeeService timedEmployeeService;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        employeeService = mock(EmployeeService.class);
+        meterRegistry = new SimpleMeterRegistry();
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(employeeService);
+        proxyFactory.addAspect(new EmployeeServiceMetrics(meterRegistry));
+        timedEmployeeService = proxyFactory.getProxy();
+    }
+
+    // Junit test for timing a successful call
+    @DisplayName("Junit test for timing a successful call")
+    @Test
+    public void givenEmployee_whenGetEmployeeById_thenTimerTaggedSuccess() {
+        // given- precondition or setup
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(Employee.builder().id(1L).build()));
+
+        // when - action or the behaviour that we are going test
+        timedEmployeeService.getEmployeeById(1L);
+
+        // then - verify the output
+        assertThat(meterRegistry.get(EmployeeServiceMetrics.CALLS)
+                .tag("method", "getEmployeeById").tag("outcome", "success")
+                .timer().count()).isEqualTo(1);
+    }
+
+    // Junit test for timing a lookup that finds nothing
+    @DisplayName("Junit test for timing a lookup that finds nothing")
+    @Test
+    public void givenNoEmployee_whenGetEmployeeById_thenTimerTaggedNotFound() {
+        // given- precondition or setup
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.empty());
+
+        // when - action or the behaviour that we are going test
+        timedEmployeeService.getEmployeeById(1L);
+
+        // then - verify the output
+        assertThat(meterRegistry.get(EmployeeServiceMetrics.CALLS)
+                .tag("method", "getEmployeeById").tag("outcome", "not_found")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.find(EmployeeServiceMetrics.ERRORS).counter()).isNull();
+    }
+
+    // Junit test for counting a duplicate email rejection
+    @DisplayName("Junit test for counting a duplicate email rejection")
+    @Test
+    public void givenDuplicateEmail_whenSaveEmployee_thenErrorCounterTaggedDuplicateEmail() {
+        // given- precondition or setup
+        given(employeeService.saveEmployee(any(Employee.class))).willThrow(new DuplicateEmailException(
+                "Employee already exit with given email: ankesh@gmail.com", new DataIntegrityViolationException("uk_employees_email")));
+
+        // when - action or the behaviour that we are going test
+        assertThrows(ResourceNotFoundException.class, () -> timedEmployeeService.saveEmployee(new Employee()));
+
+        // then - verify the output
+        assertThat(meterRegistry.get(EmployeeServiceMetrics.ERRORS)
+                .tag("method", "saveEmployee").tag("outcome", "duplicate_email")
+                .counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get(EmployeeServiceMetrics.CALLS)
+                .tag("method", "saveEmployee").tag("outcome", "duplicate_email")
+                .timer().count()).isEqualTo(1);
+    }
+
+    // Junit test for counting a missing employee raised as an exception
+    @DisplayName("Junit test for counting a missing employee raised as an exception")
+    @Test
+    public void givenResourceNotFoundWithIntegrityCause_whenSaveEmployee_thenErrorCounterTaggedNotFound() {
+        // given- precondition or setup
+        given(employeeService.saveEmployee(any(Employee.class))).willThrow(new ResourceNotFoundException(
+                "Employee not found", new DataIntegrityViolationException("fk_employees")));
+
+        // when - action or the behaviour that we are going test
+        assertThrows(ResourceNotFoundException.class, () -> timedEmployeeService.saveEmployee(new Employee()));
+
+        // then - verify the output
+        assertThat(meterRegistry.get(EmployeeServiceMetrics.ERRORS)
+                .tag("method", "saveEmployee").tag("outcome", "not_found")
+                .counter().count()).isEqualTo(1);
+    }
+}
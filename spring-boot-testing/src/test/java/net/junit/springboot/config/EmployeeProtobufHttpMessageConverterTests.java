@@ -0,0 +1,132 @@
+package net.junit.springboot.config;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.UnknownFieldSet;
+import net.junit.springboot.dto.EmployeeBatchResult;
+import net.junit.springboot.model.Employee;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the protobuf runtime's schema-less parser stands in for a client generated from employee.proto
+public class EmployeeProtobufHttpMessageConverterTests {
+
+    private static final Employee EMPLOYEE = Employee.builder()
+            .id(1L)
+            .firstName("Ankesh")
+            .lastName("Tiwari")
+            .email("ankesh@gmail.com")
+            .version(3L)
+            .build();
+
+    private static final Employee NEW_EMPLOYEE = Employee.builder()
+            .firstName("Akt")
+            .lastName("Tiwari")
+            .email("akt@gmail.com")
+            .build();
+
+    // Junit test for writing employee lists in the wire format of employee.proto
+    @DisplayName("Junit test for writing employee lists in the wire format of employee.proto")
+    @Test
+    public void givenEmployees_whenWriteEmployees_thenEncodeEmployeeListMessage() throws IOException {
+        // when - action or the behaviour that we are going test
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        EmployeeProtobufHttpMessageConverter.writeEmployees(List.of(EMPLOYEE, NEW_EMPLOYEE), output);
+
+        // then - verify the output
+        List<ByteString> employees = UnknownFieldSet.parseFrom(output.toByteArray())
+                .getField(1).getLengthDelimitedList();
+        assertThat(employees).hasSize(2);
+        UnknownFieldSet first = UnknownFieldSet.parseFrom(employees.get(0));
+        assertThat(first.getField(1).getVarintList()).containsExactly(1L);
+        assertThat(first.getField(2).getLengthDelimitedList()).containsExactly(ByteString.copyFromUtf8("Ankesh"));
+        assertThat(first.getField(4).getLengthDelimitedList()).containsExactly(ByteString.copyFromUtf8("ankesh@gmail.com"));
+        assertThat(first.getField(5).getVarintList()).containsExactly(3L);
+        // zero id and version are left out, as proto3 does
+        UnknownFieldSet second = UnknownFieldSet.parseFrom(employees.get(1));
+        assertThat(second.hasField(1)).isFalse();
+        assertThat(second.hasField(5)).isFalse();
+    }
+
+    // Junit test for reading what was written, skipping fields of a newer schema
+    @DisplayName("Junit test for reading what was written, skipping fields of a newer schema")
+    @Test
+    public void givenEncodedEmployees_whenReadEmployees_thenReturnSameEmployees() throws IOException {
+        // given- precondition or setup
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        EmployeeProtobufHttpMessageConverter.writeEmployees(List.of(EMPLOYEE, NEW_EMPLOYEE), output);
+        ByteArrayOutputStream single = new ByteArrayOutputStream();
+        EmployeeProtobufHttpMessageConverter.writeEmployee(EMPLOYEE, single);
+        CodedOutputStream newerField = CodedOutputStream.newInstance(single);
+        newerField.writeString(9, "Engineering");
+        newerField.flush();
+
+        // when - action or the behaviour that we are going test
+        List<Employee> employees = EmployeeProtobufHttpMessageConverter.readEmployees(new ByteArrayInputStream(output.toByteArray()));
+        Employee employee = EmployeeProtobufHttpMessageConverter.readEmployee(new ByteArrayInputStream(single.toByteArray()));
+
+        // then - verify the output
+        assertThat(employees).usingRecursiveFieldByFieldElementComparator().containsExactly(EMPLOYEE, NEW_EMPLOYEE);
+        assertThat(employee).usingRecursiveComparison().isEqualTo(EMPLOYEE);
+    }
+
+    // Junit test for writing batch results in the wire format of employee.proto
+    @DisplayName("Junit test for writing batch results in the wire format of employee.proto")
+    @Test
+    public void givenBatchResults_whenWriteBatchResults_thenEncodeEmployeeBatchResultListMessage() throws IOException {
+        // given- precondition or setup
+        EmployeeBatchResult created = EmployeeBatchResult.builder().index(0).status(EmployeeBatchResult.Status.CREATED)
+                .id(7L).email("ankesh@gmail.com").build();
+        EmployeeBatchResult duplicate = EmployeeBatchResult.builder().index(1).status(EmployeeBatchResult.Status.DUPLICATE)
+                .email("akt@gmail.com").message("Employee already exit with given email: akt@gmail.com").build();
+
+        // when - action or the behaviour that we are going test
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        EmployeeProtobufHttpMessageConverter.writeBatchResults(List.of(created, duplicate), output);
+
+        // then - verify the output
+        List<ByteString> results = UnknownFieldSet.parseFrom(output.toByteArray()).getField(1).getLengthDelimitedList();
+        assertThat(results).hasSize(2);
+        UnknownFieldSet first = UnknownFieldSet.parseFrom(results.get(0));
+        // index 0 is left out, as proto3 does
+        assertThat(first.hasField(1)).isFalse();
+        assertThat(first.getField(2).getVarintList()).containsExactly(1L);
+        assertThat(first.getField(3).getVarintList()).containsExactly(7L);
+        assertThat(first.hasField(5)).isFalse();
+        UnknownFieldSet second = UnknownFieldSet.parseFrom(results.get(1));
+        assertThat(second.getField(1).getVarintList()).containsExactly(1L);
+        assertThat(second.getField(2).getVarintList()).containsExactly(2L);
+        assertThat(second.hasField(3)).isFalse();
+        assertThat(second.getField(5).getLengthDelimitedList())
+                .containsExactly(ByteString.copyFromUtf8("Employee already exit with given email: akt@gmail.com"));
+    }
+
+    // Junit test for bodies the converter cannot write
+    @DisplayName("Junit test for bodies the converter cannot write")
+    @Test
+    public void givenListWithoutElementType_whenCanWrite_thenRefuse() {
+        // given - precondition or setup
+        EmployeeProtobufHttpMessageConverter converter = new EmployeeProtobufHttpMessageConverter();
+        MediaType protobuf = EmployeeProtobufHttpMessageConverter.APPLICATION_PROTOBUF;
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output, a ResponseEntity<?> only tells the converter the runtime class
+        assertThat(converter.canWrite(Object.class, ArrayList.class, protobuf)).isFalse();
+        assertThat(converter.canWrite(Object.class, Employee.class, protobuf)).isTrue();
+        assertThat(converter.canWrite(new ParameterizedTypeReference<List<Employee>>() {}.getType(), ArrayList.class, protobuf)).isTrue();
+        assertThat(converter.canWrite(new ParameterizedTypeReference<List<String>>() {}.getType(), ArrayList.class, protobuf)).isFalse();
+        assertThat(converter.canWrite(new ParameterizedTypeReference<List<EmployeeBatchResult>>() {}.getType(), ArrayList.class, protobuf)).isTrue();
+        // batch results are only ever written
+        assertThat(converter.canRead(new ParameterizedTypeReference<List<EmployeeBatchResult>>() {}.getType(), null, protobuf)).isFalse();
+    }
+}
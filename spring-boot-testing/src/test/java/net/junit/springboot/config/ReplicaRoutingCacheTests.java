@@ -0,0 +1,172 @@
+package net.junit.springboot.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import net.junit.springboot.model.Employee;
+import net.junit.springboot.repository.EmployeeRepository;
+import net.junit.springboot.service.EmployeeService;
+import net.junit.springboot.service.impl.EmployeeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheType;
+import org.springframework.boot.test.autoconfigure.core.AutoConfigureCache;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the application on two in-memory H2 databases, a primary and a replica that only gets what the test copies
+// over; every read goes through both caches, the Hibernate second-level cache and the Spring employees cache
+@DataJpaTest
+@AutoConfigureCache(cacheProvider = CacheType.CAFFEINE)
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+@Import({CacheConfig.class, EmployeeServiceImpl.class, ReplicaRoutingCacheTests.ReplicaDatabases.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class ReplicaRoutingCacheTests {
+
+    private static final DriverManagerDataSource PRIMARY =
+            new DriverManagerDataSource("jdbc:h2:mem:cache-primary;DB_CLOSE_DELAY=-1", "sa", "");
+
+    private static final DriverManagerDataSource REPLICA =
+            new DriverManagerDataSource("jdbc:h2:mem:cache-replica;DB_CLOSE_DELAY=-1", "sa", "");
+
+    @TestConfiguration
+    static class ReplicaDatabases {
+
+        @Bean
+        public ReplicaRoutingDataSource dataSource() {
+            return new ReplicaRoutingDataSource(PRIMARY, List.of(REPLICA), 1000);
+        }
+
+        @Bean
+        public static BeanPostProcessor replicaAwareJpaDialect() {
+            return ReplicaRoutingConfig.replicaAwareJpaDialect();
+        }
+    }
+
+    @Autowired
+    private ReplicaRoutingDataSource dataSource;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate primary;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    public void setup() {
+        primary = new JdbcTemplate(PRIMARY);
+        replica = new JdbcTemplate(REPLICA);
+        replica.execute("create table if not exists replica_heartbeat (id int not null primary key, beat_millis bigint not null)");
+        replica.execute("create table if not exists employees (id bigint not null primary key, first_name varchar(255) not null, "
+                + "last_name varchar(255) not null, email varchar(255) not null, version bigint not null, "
+                + "deleted_at timestamp(6) with time zone)");
+        primary.update("delete from employees");
+        replica.update("delete from employees");
+        entityManagerFactory.getCache().evictAll();
+        cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE).clear();
+    }
+
+    // the replica holds the heartbeat of the primary, so the lag check lets it serve reads
+    private void replicateHeartbeat() {
+        dataSource.checkReplicaLag();
+        Long beat = primary.queryForObject("select beat_millis from replica_heartbeat where id = 1", Long.class);
+        replica.update("merge into replica_heartbeat (id, beat_millis) key (id) values (1, ?)", beat);
+        dataSource.checkReplicaLag();
+    }
+
+    private void replicateEmployees() {
+        for (Map<String, Object> row : primary.queryForList("select id, first_name, last_name, email, version from employees")) {
+            replica.update("merge into employees (id, first_name, last_name, email, version) key (id) values (?, ?, ?, ?, ?)",
+                    row.get("id"), row.get("first_name"), row.get("last_name"), row.get("email"), row.get("version"));
+        }
+    }
+
+    // Junit test for a read through a lagging replica followed by a read from the primary
+    @DisplayName("Junit test for a read through a lagging replica followed by a read from the primary")
+    @Test
+    public void givenUpdateNotYetReplicated_whenReadFromReplicaThenPrimary_thenStaleRowIsNotCached() {
+        // given- precondition or setup - the replica still has the employee as it was before the update
+        Employee employee = employeeRepository.save(Employee.builder()
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email("ankesh@gmail.com")
+                .build());
+        replicateEmployees();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> employeeRepository
+                .updateIfVersionMatches(employee.getId(), null, "Ram", "Tiwari", "ankesh@gmail.com"));
+        replicateHeartbeat();
+
+        // when - action or the behaviour that we are going test
+        String fromReplica = employeeService.getEmployeeById(employee.getId()).orElseThrow().getFirstName();
+        boolean cachedFromReplica = entityManagerFactory.getCache().contains(Employee.class, employee.getId())
+                || cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE).get(employee.getId()) != null;
+        replica.update("update replica_heartbeat set beat_millis = ? where id = 1", System.currentTimeMillis() - 60_000);
+        dataSource.checkReplicaLag();
+        String fromPrimary = employeeService.getEmployeeById(employee.getId()).orElseThrow().getFirstName();
+
+        // then - verify the output
+        assertThat(fromReplica).isEqualTo("Ankesh");
+        assertThat(cachedFromReplica).isFalse();
+        assertThat(fromPrimary).isEqualTo("Ram");
+        // a read from the primary is cached as before
+        assertThat(entityManagerFactory.getCache().contains(Employee.class, employee.getId())).isTrue();
+        assertThat(cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE).get(employee.getId())).isNotNull();
+    }
+
+    // Junit test for the cacheable email finder on a replica
+    @DisplayName("Junit test for the cacheable email finder on a replica")
+    @Test
+    public void givenReplicaInSync_whenFindByEmail_thenResultIsNotCached() {
+        // given- precondition or setup
+        Employee employee = employeeRepository.save(Employee.builder()
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email("ankesh@gmail.com")
+                .build());
+        replicateEmployees();
+        replicateHeartbeat();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+
+        // when - action or the behaviour that we are going test
+        readOnly.executeWithoutResult(status -> employeeRepository.findByEmail("ankesh@gmail.com"));
+        replica.update("delete from employees");
+        List<Employee> found = readOnly.execute(status -> employeeRepository.findByEmail("ankesh@gmail.com").stream().toList());
+
+        // then - verify the output - the second lookup went to the replica again instead of a cached result
+        assertThat(found).isEmpty();
+        assertThat(entityManagerFactory.getCache().contains(Employee.class, employee.getId())).isFalse();
+    }
+}
@@ -0,0 +1,41 @@
+package net.junit.springboot.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// the whole application with a replica configured, so the dataSource bean is the router wrapped by SqlStatementConfig
+@SpringBootTest(properties = "app.datasource.replica.urls=jdbc:h2:mem:config-replica;DB_CLOSE_DELAY=-1")
+@ActiveProfiles("h2")
+public class ReplicaRoutingConfigTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Junit test for the JpaDialect behind the statement counting proxy
+    @DisplayName("Junit test for the JpaDialect behind the statement counting proxy")
+    @Test
+    public void givenProxiedRoutingDataSource_whenContextStarts_thenReplicaAwareDialectIsInstalled() throws Exception {
+        // given- precondition or setup
+
+        // when - action or the behaviour that we are going test
+        ReplicaRoutingDataSource routing = dataSource.unwrap(ReplicaRoutingDataSource.class);
+
+        // then - verify the output
+        assertThat(dataSource).isInstanceOf(ProxyDataSource.class);
+        assertThat(routing).isNotNull();
+        assertThat(((JpaTransactionManager) transactionManager).getJpaDialect()).isInstanceOf(ReplicaAwareJpaDialect.class);
+    }
+}
@@ -0,0 +1,161 @@
+package net.junit.springboot.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// two independent in-memory H2 databases stand in for the primary and its replica, each table row says
+// which database answered
+public class ReplicaRoutingDataSourceTests {
+
+    private DriverManagerDataSource primary;
+
+    private DriverManagerDataSource replica;
+
+    private ReplicaRoutingDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    public void setup() {
+        primary = new DriverManagerDataSource("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1", "sa", "");
+        replica = new DriverManagerDataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1", "sa", "");
+        for (DriverManagerDataSource database : List.of(primary, replica)) {
+            JdbcTemplate jdbc = new JdbcTemplate(database);
+            jdbc.execute("drop all objects");
+            jdbc.execute("create table replica_heartbeat (id int not null primary key, beat_millis bigint not null)");
+            jdbc.execute("create table origin (name varchar(20))");
+            jdbc.update("insert into origin (name) values (?)", database == primary ? "primary" : "replica");
+        }
+        dataSource = new ReplicaRoutingDataSource(primary, List.of(replica), 1000);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        ReadYourWrites.end();
+    }
+
+    private String origin(TransactionTemplate transaction) {
+        return transaction.execute(status -> jdbcTemplate.queryForObject("select name from origin", String.class));
+    }
+
+    // the replica is in sync as far as the lag check can tell
+    private void replicateHeartbeat() {
+        dataSource.checkReplicaLag();
+        Long beat = new JdbcTemplate(primary).queryForObject("select beat_millis from replica_heartbeat where id = 1", Long.class);
+        new JdbcTemplate(replica).update("merge into replica_heartbeat (id, beat_millis) key (id) values (1, ?)", beat);
+        dataSource.checkReplicaLag();
+    }
+
+    // Junit test for routing read-only transactions to the replica
+    @DisplayName("Junit test for routing read-only transactions to the replica")
+    @Test
+    public void givenReplicaInSync_whenReadOnlyTransaction_thenReadFromReplica() {
+        // given- precondition or setup
+        replicateHeartbeat();
+
+        // when - action or the behaviour that we are going test
+        String readOnlyOrigin = origin(readOnlyTransaction);
+        String readWriteOrigin = origin(readWriteTransaction);
+        String nonTransactionalOrigin = jdbcTemplate.queryForObject("select name from origin", String.class);
+
+        // then - verify the output
+        assertThat(readOnlyOrigin).isEqualTo("replica");
+        assertThat(readWriteOrigin).isEqualTo("primary");
+        assertThat(nonTransactionalOrigin).isEqualTo("primary");
+        assertThat(dataSource.getReplicaLag(0)).isLessThanOrEqualTo(1000);
+    }
+
+    // Junit test for falling back to the primary while the replica lags
+    @DisplayName("Junit test for falling back to the primary while the replica lags")
+    @Test
+    public void givenLaggingReplica_whenReadOnlyTransaction_thenReadFromPrimary() {
+        // given- precondition or setup
+        replicateHeartbeat();
+        new JdbcTemplate(replica).update("update replica_heartbeat set beat_millis = ? where id = 1",
+                System.currentTimeMillis() - 60_000);
+
+        // when - action or the behaviour that we are going test
+        dataSource.checkReplicaLag();
+        String origin = origin(readOnlyTransaction);
+
+        // then - verify the output
+        assertThat(origin).isEqualTo("primary");
+        assertThat(dataSource.getReplicaLag(0)).isGreaterThan(1000);
+    }
+
+    // Junit test for reading your own writes from the primary
+    @DisplayName("Junit test for reading your own writes from the primary")
+    @Test
+    public void givenWriteInRequest_whenReadOnlyTransaction_thenReadFromPrimary() {
+        // given- precondition or setup
+        replicateHeartbeat();
+        int[] cookiesSet = new int[1];
+        ReadYourWrites.begin(0, () -> cookiesSet[0]++);
+        String beforeWrite = origin(readOnlyTransaction);
+
+        // when - action or the behaviour that we are going test
+        readWriteTransaction.executeWithoutResult(status -> jdbcTemplate.update("update origin set name = name"));
+        String afterWrite = origin(readOnlyTransaction);
+
+        // then - verify the output
+        assertThat(beforeWrite).isEqualTo("replica");
+        assertThat(afterWrite).isEqualTo("primary");
+        assertThat(cookiesSet[0]).isEqualTo(1);
+    }
+
+    // Junit test for a client that wrote within the read-your-writes window
+    @DisplayName("Junit test for a client that wrote within the read-your-writes window")
+    @Test
+    public void givenRecentWriteOfClient_whenReadOnlyTransaction_thenReadFromPrimary() {
+        // given- precondition or setup
+        replicateHeartbeat();
+        ReadYourWrites.begin(System.currentTimeMillis() + 3000, () -> {
+        });
+
+        // when - action or the behaviour that we are going test
+        String origin = origin(readOnlyTransaction);
+
+        // then - verify the output
+        assertThat(origin).isEqualTo("primary");
+    }
+
+
+    // Junit test for a replica that holds the beat of the previous check
+    @DisplayName("Junit test for a replica that holds the beat of the previous check")
+    @Test
+    public void givenReplicaCaughtUpBeforeCheckInterval_whenCheckReplicaLag_thenReadFromReplica() throws InterruptedException {
+        // given- precondition or setup - the check interval is longer than the allowed lag of 1000 ms
+        replicateHeartbeat();
+        Long beat = new JdbcTemplate(primary).queryForObject("select beat_millis from replica_heartbeat where id = 1", Long.class);
+        new JdbcTemplate(replica).update("update replica_heartbeat set beat_millis = ? where id = 1", beat);
+        Thread.sleep(1500);
+
+        // when - action or the behaviour that we are going test
+        dataSource.checkReplicaLag();
+        String origin = origin(readOnlyTransaction);
+
+        // then - verify the output
+        assertThat(origin).isEqualTo("replica");
+        assertThat(dataSource.getReplicaLag(0)).isEqualTo(0);
+    }
+
+}
@@ -0,0 +1,80 @@
+package net.junit.springboot.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SqlStatementConfigTests {
+
+    private BeanPostProcessor dataSourceProxy;
+
+    private DataSource dataSource;
+
+    @BeforeEach
+    public void setup() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("sqlStatementCounter", new SqlStatementCounter(200, new SimpleMeterRegistry()));
+        dataSourceProxy = SqlStatementConfig.sqlStatementDataSourceProxy(beanFactory.getBeanProvider(SqlStatementCounter.class));
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:sql-statements;DB_CLOSE_DELAY=-1", "sa", "");
+    }
+
+    // Junit test for the application DataSource
+    @DisplayName("Junit test for the application DataSource")
+    @Test
+    public void givenApplicationDataSource_whenPostProcess_thenItIsProxied() {
+        // given - precondition or setup
+
+        // when - action or the behaviour that we are going test
+        Object processed = dataSourceProxy.postProcessAfterInitialization(dataSource, SqlStatementConfig.APPLICATION_DATA_SOURCE);
+
+        // then - verify the output
+        assertThat(processed).isInstanceOf(ProxyDataSource.class);
+    }
+
+    // Junit test for a DataSource the application builds for itself
+    @DisplayName("Junit test for a DataSource the application builds for itself")
+    @Test
+    public void givenOtherDataSource_whenPostProcess_thenItIsLeftAlone() {
+        // given - precondition or setup
+
+        // when - action or the behaviour that we are going test
+        Object processed = dataSourceProxy.postProcessAfterInitialization(dataSource, "emailDirectoryDataSource");
+
+        // then - verify the output
+        assertThat(processed).isSameAs(dataSource);
+    }
+
+
+    // Junit test for counting connection checkouts
+    @DisplayName("Junit test for counting connection checkouts")
+    @Test
+    public void givenProxiedDataSource_whenGetConnection_thenCheckoutIsCounted() throws Exception {
+        // given - precondition or setup
+        DataSource proxied = (DataSource) dataSourceProxy.postProcessAfterInitialization(dataSource, SqlStatementConfig.APPLICATION_DATA_SOURCE);
+        SqlStatementCounter.Stats stats = SqlStatementCounter.begin();
+
+        // when - action or the behaviour that we are going test
+        try (Connection connection = proxied.getConnection()) {
+            new JdbcTemplate(new SingleConnectionDataSource(connection, true)).queryForObject("select 1", Integer.class);
+        } finally {
+            SqlStatementCounter.end();
+        }
+
+        // then - verify the output
+        assertThat(stats.getConnections()).isEqualTo(1);
+        assertThat(stats.getStatements()).isEqualTo(1);
+    }
+
+}
@@ -2,7 +2,21 @@ package net.junit.springboot.controller;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnknownFieldSet;
+import net.junit.springboot.config.EmployeeProtobufHttpMessageConverter;
+import net.junit.springboot.dto.CursorPage;
+import net.junit.springboot.dto.EmployeeBatchDeleteRequest;
+import net.junit.springboot.dto.EmployeeBatchResult;
+import net.junit.springboot.dto.EmployeeField;
+import net.junit.springboot.dto.EmployeePatch;
+import net.junit.springboot.dto.EmployeeRows;
+import net.junit.springboot.dto.EmployeeSummary;
+import net.junit.springboot.event.EmployeeChangeFeed;
+import net.junit.springboot.exception.PreconditionFailedException;
 import net.junit.springboot.model.Employee;
+import net.junit.springboot.search.EmployeeSearchIndex;
 import net.junit.springboot.service.EmployeeService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,17 +24,23 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.*;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.is;
 
 
@@ -33,6 +53,12 @@ public class EmployeeControllerTests {
     @MockBean
     private EmployeeService employeeService;
 
+    @MockBean
+    private EmployeeChangeFeed employeeChangeFeed;
+
+    @MockBean
+    private EmployeeSearchIndex employeeSearchIndex;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -74,7 +100,7 @@ public class EmployeeControllerTests {
         List<Employee> listOfEmployees = new ArrayList<>();
         listOfEmployees.add(Employee.builder().firstName("Ankesh").lastName("Tiwari").email("ankesh@gmail.com").build());
         listOfEmployees.add(Employee.builder().firstName("Akt").lastName("Tiwari").email("akt@gmail.com").build());
-        given(employeeService.getAllEmployees()).willReturn(listOfEmployees);
+        given(employeeService.getEmployeesPage(null, EmployeeController.MAX_LIST_SIZE)).willReturn(new CursorPage<>(listOfEmployees, null));
 
         // when - action or the behaviour that we are going test
         ResultActions response = mockMvc.perform(get("/api/employees"));
@@ -88,6 +114,24 @@ public class EmployeeControllerTests {
 
     }
 
+    // Junit test for Get all employees REST API on a table larger than one list
+    @Test
+    public void givenMoreEmployeesThanOneList_whenGetAllEmployees_thenLinkToNextPage() throws Exception {
+        // given- precondition or setup
+        List<Employee> listOfEmployees = new ArrayList<>();
+        listOfEmployees.add(Employee.builder().id(1L).firstName("Ankesh").lastName("Tiwari").email("ankesh@gmail.com").build());
+        given(employeeService.getEmployeesPage(null, EmployeeController.MAX_LIST_SIZE)).willReturn(new CursorPage<>(listOfEmployees, "MQ"));
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(header().string("Link", "</api/employees/page?after=MQ&limit=1000>; rel=\"next\""));
+        verify(employeeService, never()).getAllEmployees();
+    }
+
     // Junit test for GET employee by id REST API
     @Test
     public void givenEmployeeId_whenGetEmployeeById_thenReturnEmployeeObject() throws Exception {
@@ -152,9 +196,8 @@ public class EmployeeControllerTests {
                 .email("akt@gmail.com")
                 .build();
 
-        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(savedEmployee));
-        given(employeeService.updateEmployee(any(Employee.class)))
-                .willAnswer((invocation) -> invocation.getArgument(0));
+        given(employeeService.updateEmployee(eq(employeeId), isNull(), any(Employee.class)))
+                .willAnswer((invocation) -> Optional.of(invocation.getArgument(2)));
 
 
         // when - action or the behaviour that we are going test
@@ -189,9 +232,8 @@ public class EmployeeControllerTests {
                 .email("akt@gmail.com")
                 .build();
 
-        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.empty());
-        given(employeeService.updateEmployee(any(Employee.class)))
-                .willAnswer((invocation) -> invocation.getArgument(0));
+        given(employeeService.updateEmployee(eq(employeeId), isNull(), any(Employee.class)))
+                .willReturn(Optional.empty());
 
 
         // when - action or the behaviour that we are going test
@@ -206,12 +248,34 @@ public class EmployeeControllerTests {
 
     }
 
+    // Junit test for update employee REST API with a body that leaves out a field
+    @Test
+    public void givenEmployeeWithoutEmail_whenUpdateEmployee_thenReturn400() throws Exception {
+        // given- precondition or setup
+        long employeeId = 1l;
+        Employee updatedEmployee = Employee.builder()
+                .firstName("Akt")
+                .lastName("Tiwari")
+                .build();
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+        verify(employeeService, never()).updateEmployee(anyLong(), any(), any(Employee.class));
+
+    }
+
     // Junit test for delete employee REST API
     @Test
     public void givenEmployeeId_whenDeleteEmployee_thenReturn200() throws Exception {
         // given- precondition or setup
         long employeeId = 1l;
-        willDoNothing().given(employeeService).deleteEmployee(employeeId);
+        given(employeeService.deleteEmployee(employeeId)).willReturn(true);
 
         // when - action or the behaviour that we are going test
         ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
@@ -221,5 +285,584 @@ public class EmployeeControllerTests {
                 .andDo(print());
     }
 
+    // Junit test for delete employee REST API - negative scenario
+    @Test
+    public void givenMissingEmployeeId_whenDeleteEmployee_thenReturn404() throws Exception {
+        // given- precondition or setup
+        long employeeId = 1l;
+        given(employeeService.deleteEmployee(employeeId)).willReturn(false);
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(delete("/api/employees/{id}", employeeId));
+
+        // then - verify the output
+        response.andExpect(status().isNotFound())
+                .andDo(print());
+    }
+
+    // Junit test for batch delete REST API
+    @Test
+    public void givenIdList_whenDeleteEmployees_thenReturnDeletedCount() throws Exception {
+        // given- precondition or setup
+        given(employeeService.deleteEmployees(List.of(1L, 2L, 3L))).willReturn(2L);
+        EmployeeBatchDeleteRequest request = EmployeeBatchDeleteRequest.builder().ids(List.of(1L, 2L, 3L)).build();
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.deleted", is(2)));
+    }
+
+    // Junit test for batch delete REST API - negative scenario
+    @Test
+    public void givenIdsAndEmailDomain_whenDeleteEmployees_thenReturn400() throws Exception {
+        // given- precondition or setup
+        EmployeeBatchDeleteRequest request = new EmployeeBatchDeleteRequest(List.of(1L), "contractor.com");
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch-delete")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+        verifyNoInteractions(employeeService);
+    }
+
+    // Junit test for Get employees page REST API
+    @Test
+    public void givenEmployeesPage_whenGetEmployeesPage_thenReturnPageWithCursor() throws Exception {
+        // given- precondition or setup
+        List<Employee> listOfEmployees = new ArrayList<>();
+        listOfEmployees.add(Employee.builder().id(1L).firstName("Ankesh").lastName("Tiwari").email("ankesh@gmail.com").build());
+        listOfEmployees.add(Employee.builder().id(2L).firstName("Akt").lastName("Tiwari").email("akt@gmail.com").build());
+        given(employeeService.getEmployeesPage(null, 2)).willReturn(new CursorPage<>(listOfEmployees, "Mg"));
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/page").param("limit", "2"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.content.size()", is(listOfEmployees.size())))
+                .andExpect(jsonPath("$.nextCursor", is("Mg")));
+
+    }
+
+    // Junit test for export employees REST API
+    @Test
+    public void givenEmployees_whenExportEmployees_thenStreamNdjson() throws Exception {
+        // given- precondition or setup
+        Employee employee = Employee.builder().id(1L).firstName("Ankesh").lastName("Tiwari").email("ankesh@gmail.com").build();
+        Employee employee1 = Employee.builder().id(2L).firstName("Akt").lastName("Tiwari").email("akt@gmail.com").build();
+        given(employeeService.exportEmployees(any())).willAnswer((invocation) -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            consumer.accept(employee);
+            consumer.accept(employee1);
+            return 2L;
+        });
+
+        // when - action or the behaviour that we are going test
+        MvcResult result = mockMvc.perform(get("/api/employees/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        ResultActions response = mockMvc.perform(asyncDispatch(result));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(content().string(
+                        objectMapper.writeValueAsString(employee) + "\n"
+                                + objectMapper.writeValueAsString(employee1) + "\n"));
+
+    }
+
+    // Junit test for batch create employees REST API
+    @Test
+    public void givenListOfEmployees_whenCreateEmployees_thenReturnResultPerEmployee() throws Exception {
+        // given- precondition or setup
+        List<Employee> listOfEmployees = new ArrayList<>();
+        listOfEmployees.add(Employee.builder().firstName("Ankesh").lastName("Tiwari").email("ankesh@gmail.com").build());
+        listOfEmployees.add(Employee.builder().firstName("Akt").lastName("Tiwari").email("akt@gmail.com").build());
+        given(employeeService.saveEmployees(anyList())).willReturn(List.of(
+                EmployeeBatchResult.builder().index(0).status(EmployeeBatchResult.Status.CREATED).id(1L).email("ankesh@gmail.com").build(),
+                EmployeeBatchResult.builder().index(1).status(EmployeeBatchResult.Status.DUPLICATE).email("akt@gmail.com").build()));
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(post("/api/employees/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(listOfEmployees)));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(listOfEmployees.size())))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[1].status", is("DUPLICATE")));
+
+    }
+
+    // Junit test for GET employees by name REST API
+    @Test
+    public void givenFirstNameAndLastName_whenGetEmployeesByName_thenReturnEmployeesList() throws Exception {
+        // given- precondition or setup
+        List<Employee> listOfEmployees = new ArrayList<>();
+        listOfEmployees.add(Employee.builder().firstName("Ankesh").lastName("Tiwari").email("ankesh@gmail.com").build());
+        listOfEmployees.add(Employee.builder().firstName("Ankesh").lastName("Tiwari").email("ankesh2@gmail.com").build());
+        given(employeeService.getEmployeesByName("Ankesh", "Tiwari", 10)).willReturn(listOfEmployees);
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/by-name")
+                .param("firstName", "Ankesh")
+                .param("lastName", "Tiwari")
+                .param("limit", "10"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(jsonPath("$.size()", is(listOfEmployees.size())));
+
+    }
+
+    // Junit test for GET employee by id REST API with a matching ETag
+    @Test
+    public void givenMatchingETag_whenGetEmployeeById_thenReturn304() throws Exception {
+        // given- precondition or setup
+        long employeeId = 1L;
+        Employee employee = Employee.builder()
+                .id(employeeId)
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email("ankesh@gmail.com")
+                .version(3L)
+                .build();
+        given(employeeService.getEmployeeById(employeeId)).willReturn(Optional.of(employee));
+
+        // when - action or the behaviour that we are going test
+        String eTag = mockMvc.perform(get("/api/employees/{id}", employeeId))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1-3-json\""))
+                .andReturn().getResponse().getHeader("ETag");
+        ResultActions response = mockMvc.perform(get("/api/employees/{id}", employeeId)
+                .header("If-None-Match", eTag));
+
+        // then - verify the output
+        response.andExpect(status().isNotModified())
+                .andDo(print())
+                .andExpect(content().string(""));
+    }
+
+    // Junit test for Get all employees REST API with a matching ETag
+    @Test
+    public void givenMatchingETag_whenGetAllEmployees_thenReturn304() throws Exception {
+        // given- precondition or setup
+        List<Employee> listOfEmployees = new ArrayList<>();
+        listOfEmployees.add(Employee.builder().id(1L).firstName("Ankesh").lastName("Tiwari").email("ankesh@gmail.com").build());
+        listOfEmployees.add(Employee.builder().id(2L).firstName("Akt").lastName("Tiwari").email("akt@gmail.com").build());
+        given(employeeService.getEmployeesPage(null, EmployeeController.MAX_LIST_SIZE)).willReturn(new CursorPage<>(listOfEmployees, null));
+        String eTag = mockMvc.perform(get("/api/employees"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees").header("If-None-Match", eTag));
+
+        // then - verify the output
+        response.andExpect(status().isNotModified())
+                .andDo(print())
+                .andExpect(content().string(""));
+
+        // a new version of any employee changes the list ETag
+        listOfEmployees.get(1).setVersion(1L);
+        mockMvc.perform(get("/api/employees").header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+    }
+
+    // Junit test for update employee REST API with If-Match
+    @Test
+    public void givenIfMatch_whenUpdateEmployee_thenReturnUpdatedEmployeeWithNewETag() throws Exception {
+        // given- precondition or setup
+        long employeeId = 1L;
+        Employee updatedEmployee = Employee.builder()
+                .firstName("Akt")
+                .lastName("Tiwari")
+                .email("akt@gmail.com")
+                .build();
+        given(employeeService.updateEmployee(eq(employeeId), eq(3L), any(Employee.class)))
+                .willAnswer((invocation) -> {
+                    Employee employee = invocation.getArgument(2);
+                    employee.setId(employeeId);
+                    employee.setVersion(4L);
+                    return Optional.of(employee);
+                });
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header("If-Match", "\"1-3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().string("ETag", "\"1-4-json\""))
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(jsonPath("$.firstName", is(updatedEmployee.getFirstName())));
+    }
+
+    // Junit test for update employee REST API with a stale If-Match
+    @Test
+    public void givenStaleIfMatch_whenUpdateEmployee_thenReturn412() throws Exception {
+        // given- precondition or setup
+        long employeeId = 1L;
+        Employee updatedEmployee = Employee.builder()
+                .firstName("Akt")
+                .lastName("Tiwari")
+                .email("akt@gmail.com")
+                .build();
+        given(employeeService.updateEmployee(eq(employeeId), eq(2L), any(Employee.class)))
+                .willThrow(new PreconditionFailedException("Employee 1 no longer has version 2"));
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", employeeId)
+                .header("If-Match", "\"1-2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(updatedEmployee)));
+
+        // then - verify the output
+        response.andExpect(status().isPreconditionFailed())
+                .andDo(print());
+
+        // an ETag of another employee can never match
+        mockMvc.perform(put("/api/employees/{id}", employeeId)
+                        .header("If-Match", "\"7-2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedEmployee)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+
+    // Junit test for subscribing to the change feed
+    @Test
+    public void givenLastEventId_whenStreamChanges_thenSubscribeFromThatId() throws Exception {
+        // given - precondition or setup
+        given(employeeChangeFeed.subscribe(42L)).willReturn(new SseEmitter());
+
+        // when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/changes")
+                .header("Last-Event-ID", "42")
+                .accept(MediaType.TEXT_EVENT_STREAM));
+
+        // then - verify the output
+        response.andExpect(request().asyncStarted());
+        verify(employeeChangeFeed).subscribe(42L);
+    }
+
+
+    // Junit test for search employees REST API
+    @Test
+    public void givenQuery_whenSearchEmployees_thenReturnMatchesWithCappedLimit() throws Exception {
+        // given - precondition or setup
+        Employee employee = Employee.builder().id(1L).firstName("Ankesh").lastName("Tiwari").email("ankesh@gmail.com").build();
+        given(employeeSearchIndex.search("ank", 100)).willReturn(List.of(employee));
+
+        // when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(get("/api/employees/search")
+                .param("q", "ank")
+                .param("limit", "5000"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andExpect(jsonPath("$.size()", is(1)))
+                .andExpect(jsonPath("$[0].email", is("ankesh@gmail.com")));
+    }
+
+    // Junit test for patch employee REST API
+    @Test
+    public void givenMergePatch_whenPatchEmployee_thenReturnPatchedEmployee() throws Exception {
+        // given- precondition or setup
+        Employee patchedEmployee = Employee.builder()
+                .id(1L)
+                .firstName("Ram")
+                .lastName("Tiwari")
+                .email("ankesh@gmail.com")
+                .version(1L)
+                .build();
+        given(employeeService.patchEmployee(eq(1L), eq(0L), any(EmployeePatch.class))).willReturn(Optional.of(patchedEmployee));
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", 1L)
+                .header("If-Match", "\"1-0\"")
+                .contentType(EmployeeController.APPLICATION_MERGE_PATCH_JSON_VALUE)
+                .content("{\"firstName\":\"Ram\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().string("ETag", "\"1-1-json\""))
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(jsonPath("$.firstName", is("Ram")));
+        verify(employeeService).patchEmployee(eq(1L), eq(0L),
+                argThat(patch -> "Ram".equals(patch.getFirstName()) && patch.getEmail() == null));
+    }
+
+    // Junit test for patch employee REST API - negative scenario
+    @Test
+    public void givenMergePatchRemovingField_whenPatchEmployee_thenReturn400() throws Exception {
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", 1L)
+                .contentType(EmployeeController.APPLICATION_MERGE_PATCH_JSON_VALUE)
+                .content("{\"email\":null}"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+        verifyNoInteractions(employeeService);
+    }
+
+
+    // Junit test for Get all employees REST API with a field selection
+    @Test
+    public void givenFields_whenGetAllEmployees_thenReturnOnlyThoseFields() throws Exception {
+        // given- precondition or setup
+        List<EmployeeField> fields = List.of(EmployeeField.EMAIL, EmployeeField.ID);
+        given(employeeService.getAllEmployees(fields)).willReturn(new EmployeeRows(fields, List.of(
+                new Object[]{1L, 0L, "ankesh@gmail.com", 1L},
+                new Object[]{2L, 3L, "akt@gmail.com", 2L})));
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("fields", "email,id,email"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().exists("ETag"))
+                .andExpect(content().json("[{\"email\":\"ankesh@gmail.com\",\"id\":1},{\"email\":\"akt@gmail.com\",\"id\":2}]", true));
+        verify(employeeService, never()).getAllEmployees();
+    }
+
+    // Junit test for Get all employees REST API with an unknown field
+    @Test
+    public void givenUnknownField_whenGetAllEmployees_thenReturn400() throws Exception {
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("fields", "id,salary"));
+
+        // then - verify the output
+        response.andExpect(status().isBadRequest())
+                .andDo(print());
+        verify(employeeService, never()).getAllEmployees(anyList());
+    }
+
+    // Junit test for employee summaries REST API
+    @Test
+    public void givenEmployees_whenGetEmployeeSummaries_thenReturnIdAndDisplayName() throws Exception {
+        // given- precondition or setup
+        given(employeeService.getEmployeeSummaries()).willReturn(List.of(
+                new EmployeeSummary(1L, "Ankesh Tiwari"),
+                new EmployeeSummary(2L, "Akt Tiwari")));
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees/summaries"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(content().json("[{\"id\":1,\"displayName\":\"Ankesh Tiwari\"},{\"id\":2,\"displayName\":\"Akt Tiwari\"}]", true));
+    }
+
+
+    // Junit test for GET employee by id REST API in CBOR
+    @Test
+    public void givenAcceptCbor_whenGetEmployeeById_thenReturnCborEmployee() throws Exception {
+        // given- precondition or setup
+        Employee employee = Employee.builder().id(1L).firstName("Ankesh").lastName("Tiwari").email("ankesh@gmail.com").version(3L).build();
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(employee));
+
+        // when - action or the behaviour that we are going test
+        MvcResult result = mockMvc.perform(get("/api/employees/{id}", 1L).accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().string("ETag", "\"1-3-cbor\""))
+                .andExpect(header().string("Vary", "Accept"))
+                .andReturn();
+
+        // then - verify the output
+        Employee cborEmployee = new CBORMapper().readValue(result.getResponse().getContentAsByteArray(), Employee.class);
+        assertThat(cborEmployee).usingRecursiveComparison().isEqualTo(employee);
+    }
+
+    // Junit test for Get all employees REST API in protobuf, JSON without an Accept header
+    @Test
+    public void givenAcceptProtobuf_whenGetAllEmployees_thenReturnEmployeeListMessage() throws Exception {
+        // given- precondition or setup
+        List<Employee> listOfEmployees = new ArrayList<>();
+        listOfEmployees.add(Employee.builder().id(1L).firstName("Ankesh").lastName("Tiwari").email("ankesh@gmail.com").build());
+        listOfEmployees.add(Employee.builder().id(2L).firstName("Akt").lastName("Tiwari").email("akt@gmail.com").build());
+        given(employeeService.getEmployeesPage(null, EmployeeController.MAX_LIST_SIZE)).willReturn(new CursorPage<>(listOfEmployees, null));
+
+        // when - action or the behaviour that we are going test
+        MvcResult result = mockMvc.perform(get("/api/employees").accept(EmployeeProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(EmployeeProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andReturn();
+
+        // then - verify the output
+        List<Employee> employees = EmployeeProtobufHttpMessageConverter.readEmployees(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()));
+        assertThat(employees).extracting(Employee::getEmail)
+                .containsExactly("ankesh@gmail.com", "akt@gmail.com");
+        mockMvc.perform(get("/api/employees"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+        // only employees have a protobuf schema
+        mockMvc.perform(get("/api/employees/summaries").accept(EmployeeProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andExpect(status().isNotAcceptable());
+    }
+
+    // Junit test for create employee REST API with a protobuf body
+    @Test
+    public void givenProtobufEmployee_whenCreateEmployee_thenReturnSavedEmployee() throws Exception {
+        // given - precondition or setup
+        Employee employee = Employee.builder().firstName("Ankesh").lastName("Tiwari").email("ankesh@gmail.com").build();
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        EmployeeProtobufHttpMessageConverter.writeEmployee(employee, body);
+        given(employeeService.saveEmployee(any(Employee.class)))
+                .willAnswer((invocation) -> invocation.getArgument(0));
+
+        // when - action or behaviour that we are going to test
+        ResultActions response = mockMvc.perform(post("/api/employees")
+                .contentType(EmployeeProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                .accept(MediaType.APPLICATION_JSON)
+                .content(body.toByteArray()));
+
+        // then - verify the result or output using assert statements
+        response.andDo(print())
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.firstName", is(employee.getFirstName())))
+                .andExpect(jsonPath("$.email", is(employee.getEmail())));
+    }
+
+    // Junit test for batch create employees REST API in protobuf
+    @Test
+    public void givenProtobufEmployeeList_whenCreateEmployees_thenReturnBatchResultListMessage() throws Exception {
+        // given - precondition or setup
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        EmployeeProtobufHttpMessageConverter.writeEmployees(List.of(
+                Employee.builder().firstName("Ankesh").lastName("Tiwari").email("ankesh@gmail.com").build(),
+                Employee.builder().firstName("Akt").lastName("Tiwari").email("akt@gmail.com").build()), body);
+        given(employeeService.saveEmployees(anyList())).willReturn(List.of(
+                EmployeeBatchResult.builder().index(0).status(EmployeeBatchResult.Status.CREATED).id(1L).email("ankesh@gmail.com").build(),
+                EmployeeBatchResult.builder().index(1).status(EmployeeBatchResult.Status.DUPLICATE).email("akt@gmail.com").build()));
+
+        // when - action or behaviour that we are going to test
+        MvcResult result = mockMvc.perform(post("/api/employees/batch")
+                        .contentType(EmployeeProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                        .accept(EmployeeProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                        .content(body.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(EmployeeProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andReturn();
+
+        // then - verify the result or output using assert statements
+        List<ByteString> results = UnknownFieldSet.parseFrom(result.getResponse().getContentAsByteArray())
+                .getField(1).getLengthDelimitedList();
+        assertThat(results).hasSize(2);
+        UnknownFieldSet duplicate = UnknownFieldSet.parseFrom(results.get(1));
+        assertThat(duplicate.getField(1).getVarintList()).containsExactly(1L);
+        assertThat(duplicate.getField(2).getVarintList()).containsExactly(2L);
+        verify(employeeService).saveEmployees(argThat(employees -> employees.size() == 2
+                && employees.get(1).getEmail().equals("akt@gmail.com")));
+    }
+
+    // Junit test for GET employee by id REST API revalidating one of several representations
+    @Test
+    public void givenETagOfAnotherFormat_whenGetEmployeeById_thenReturnTheRequestedFormat() throws Exception {
+        // given- precondition or setup
+        Employee employee = Employee.builder().id(1L).firstName("Ankesh").lastName("Tiwari").email("ankesh@gmail.com").version(3L).build();
+        given(employeeService.getEmployeeById(1L)).willReturn(Optional.of(employee));
+
+        // when - action or the behaviour that we are going test
+        ResultActions cborWithJsonTag = mockMvc.perform(get("/api/employees/{id}", 1L)
+                .accept("application/cbor")
+                .header("If-None-Match", "\"1-3-json\""));
+        ResultActions cborWithCborTag = mockMvc.perform(get("/api/employees/{id}", 1L)
+                .accept("application/cbor")
+                .header("If-None-Match", "\"1-3-json\", \"1-3-cbor\""));
+
+        // then - verify the output
+        cborWithJsonTag.andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andExpect(header().string("ETag", "\"1-3-cbor\""));
+        cborWithCborTag.andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"1-3-cbor\""))
+                .andExpect(content().string(""));
+    }
+
+    // Junit test for update employee REST API with the If-Match of another format
+    @Test
+    public void givenIfMatchOfProtobufRepresentation_whenUpdateEmployee_thenVersionIsChecked() throws Exception {
+        // given- precondition or setup
+        Employee changes = Employee.builder().firstName("Akt").lastName("Tiwari").email("akt@gmail.com").build();
+        given(employeeService.updateEmployee(eq(1L), eq(3L), any(Employee.class)))
+                .willAnswer((invocation) -> {
+                    Employee employee = invocation.getArgument(2);
+                    employee.setId(1L);
+                    employee.setVersion(4L);
+                    return Optional.of(employee);
+                });
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", 1L)
+                .header("If-Match", "\"1-3-protobuf\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .accept(EmployeeProtobufHttpMessageConverter.APPLICATION_PROTOBUF)
+                .content(objectMapper.writeValueAsString(changes)));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().string("ETag", "\"1-4-protobuf\""))
+                .andExpect(header().string("Vary", "Accept"));
+        verify(employeeService).updateEmployee(eq(1L), eq(3L), any(Employee.class));
+    }
+
+    // Junit test for update employee REST API with a list of If-Match tags
+    @Test
+    public void givenIfMatchList_whenUpdateEmployee_thenEveryTagIsRead() throws Exception {
+        // given- precondition or setup
+        Employee changes = Employee.builder().firstName("Akt").lastName("Tiwari").email("akt@gmail.com").build();
+        given(employeeService.updateEmployee(eq(1L), eq(3L), any(Employee.class)))
+                .willAnswer((invocation) -> {
+                    Employee employee = invocation.getArgument(2);
+                    employee.setId(1L);
+                    employee.setVersion(4L);
+                    return Optional.of(employee);
+                });
+
+        // when - action or the behaviour that we are going test
+        // weak and foreign tags can never match, the tags of one version in several formats can
+        ResultActions response = mockMvc.perform(put("/api/employees/{id}", 1L)
+                .header("If-Match", "W/\"1-9-json\", \"7-2-json\", \"1-3-json\", \"1-3-cbor\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(changes)));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(header().string("ETag", "\"1-4-json\""));
+        verify(employeeService).updateEmployee(eq(1L), eq(3L), any(Employee.class));
+
+        // a list naming two versions of the employee is refused
+        mockMvc.perform(put("/api/employees/{id}", 1L)
+                        .header("If-Match", "\"1-2-json\", \"1-3-json\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(changes)))
+                .andExpect(status().isPreconditionFailed());
+        verify(employeeService, never()).updateEmployee(eq(1L), eq(2L), any(Employee.class));
+    }
 
 }
@@ -0,0 +1,71 @@
+package net.junit.springboot.controller;
+
+import net.junit.springboot.model.Employee;
+import net.junit.springboot.service.EmployeeService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+
+// a real Tomcat whose default async timeout is cut to one second, so an export that runs three seconds only
+// completes when spring.mvc.async.request-timeout is applied to it
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("h2")
+public class EmployeeExportTimeoutTests {
+
+    private static final int EMPLOYEES = 30;
+
+    @TestConfiguration
+    static class ShortContainerAsyncTimeout {
+
+        @Bean
+        public WebServerFactoryCustomizer<TomcatServletWebServerFactory> shortAsyncTimeout() {
+            return factory -> factory.addConnectorCustomizers(connector -> connector.setAsyncTimeout(1000));
+        }
+    }
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @MockBean
+    private EmployeeService employeeService;
+
+    // Junit test for an export that streams longer than the container's async timeout
+    @DisplayName("Junit test for an export that streams longer than the container's async timeout")
+    @Test
+    public void givenSlowExport_whenExportEmployees_thenEveryEmployeeIsStreamed() {
+        // given- precondition or setup
+        given(employeeService.exportEmployees(any())).willAnswer((invocation) -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            for (long id = 1; id <= EMPLOYEES; id++) {
+                Thread.sleep(100);
+                consumer.accept(Employee.builder().id(id).firstName("first" + id).lastName("last" + id)
+                        .email(id + "@gmail.com").build());
+            }
+            return (long) EMPLOYEES;
+        });
+
+        // when - action or the behaviour that we are going test
+        ResponseEntity<String> response = restTemplate.getForEntity("/api/employees/export", String.class);
+
+        // then - verify the output
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(response.getBody().lines()).hasSize(EMPLOYEES);
+        assertThat(response.getBody().lines().toList().get(EMPLOYEES - 1)).contains("\"email\":\"30@gmail.com\"");
+    }
+}
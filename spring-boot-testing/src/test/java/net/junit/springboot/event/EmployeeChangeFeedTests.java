@@ -0,0 +1,228 @@
+package net.junit.springboot.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import net.junit.springboot.controller.EmployeeController;
+import net.junit.springboot.model.Employee;
+import net.junit.springboot.search.EmployeeSearchIndex;
+import net.junit.springboot.service.EmployeeService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+public class EmployeeChangeFeedTests {
+
+    private EmployeeChangeFeed employeeChangeFeed;
+
+    @BeforeEach
+    public void setup() {
+        employeeChangeFeed = new EmployeeChangeFeed(4, 5000, 1, 200);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        employeeChangeFeed.close();
+    }
+
+    private void change(EmployeeChangedEvent.Type type, long... ids) {
+        employeeChangeFeed.onEmployeeChanged(new EmployeeChangedEvent(type, LongStream.of(ids)
+                .mapToObj(id -> Employee.builder().id(id).firstName("Ankesh").lastName("Tiwari")
+                        .email("ankesh" + id + "@gmail.com").build())
+                .toList()));
+    }
+
+    // Junit test for replaying changes after a Last-Event-ID
+    @DisplayName("Junit test for replaying changes after a Last-Event-ID")
+    @Test
+    public void givenBufferedChanges_whenSince_thenReturnChangesAfterTheIdInOrder() {
+        // given- precondition or setup
+        long before = employeeChangeFeed.latestId();
+        change(EmployeeChangedEvent.Type.CREATED, 1L, 2L);
+        change(EmployeeChangedEvent.Type.DELETED, 1L);
+
+        // when - action or the behaviour that we are going test
+        List<EmployeeChangeFeed.Change> changes = employeeChangeFeed.since(before);
+
+        // then - verify the output
+        assertThat(changes).extracting(EmployeeChangeFeed.Change::employeeId).containsExactly(1L, 2L, 1L);
+        assertThat(changes.get(2).type()).isEqualTo(EmployeeChangedEvent.Type.DELETED);
+        assertThat(changes.get(2).employee()).isNull();
+        assertThat(employeeChangeFeed.since(employeeChangeFeed.latestId())).isEmpty();
+    }
+
+    // Junit test for a Last-Event-ID that fell out of the ring buffer
+    @DisplayName("Junit test for a Last-Event-ID that fell out of the ring buffer")
+    @Test
+    public void givenOverwrittenChanges_whenSince_thenReturnNull() {
+        // given- precondition or setup
+        long before = employeeChangeFeed.latestId();
+        change(EmployeeChangedEvent.Type.UPDATED, 1L, 2L, 3L, 4L, 5L, 6L);
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output
+        assertThat(employeeChangeFeed.since(before)).isNull();
+        assertThat(employeeChangeFeed.since(employeeChangeFeed.latestId() - 4))
+                .extracting(EmployeeChangeFeed.Change::employeeId).containsExactly(3L, 4L, 5L, 6L);
+        // an id this node never handed out, e.g. from before a restart
+        assertThat(employeeChangeFeed.since(employeeChangeFeed.latestId() + 10)).isNull();
+    }
+
+    // Junit test for streaming changes as server-sent events
+    @DisplayName("Junit test for streaming changes as server-sent events")
+    @Test
+    public void givenLastEventId_whenStreamChanges_thenResumeAfterItAndPushNewChanges() throws Exception {
+        // given- precondition or setup
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(
+                new EmployeeController(mock(EmployeeService.class), new ObjectMapper(),
+                        employeeChangeFeed, mock(EmployeeSearchIndex.class))).build();
+        change(EmployeeChangedEvent.Type.CREATED, 1L);
+        long lastSeen = employeeChangeFeed.latestId();
+        change(EmployeeChangedEvent.Type.CREATED, 2L);
+
+        // when - action or the behaviour that we are going test
+        MvcResult result = mockMvc.perform(get("/api/employees/changes").header("Last-Event-ID", lastSeen))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        change(EmployeeChangedEvent.Type.UPDATED, 2L);
+
+        // then - verify the output
+        String body = awaitContent(result, "event:updated");
+        assertThat(body).doesNotContain("\"employeeId\":1");
+        assertThat(body).contains("id:" + (lastSeen + 1), "event:created", "\"employeeId\":2");
+        assertThat(body.indexOf("event:created")).isLessThan(body.indexOf("event:updated"));
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String body = result.getResponse().getContentAsString();
+        while (!body.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            body = result.getResponse().getContentAsString();
+        }
+        return body;
+    }
+
+
+    // Junit test for a subscriber that stopped reading
+    @DisplayName("Junit test for a subscriber that stopped reading")
+    @Test
+    public void givenBlockedSubscriber_whenSendTimesOut_thenItIsDroppedAndOthersKeepReceiving() throws Exception {
+        // given- precondition or setup, the only sender thread is stuck in the blocked send
+        long before = employeeChangeFeed.latestId();
+        CountDownLatch blockedInSend = new CountDownLatch(1);
+        SseEmitter blocked = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                blockedInSend.countDown();
+                try {
+                    new CountDownLatch(1).await();
+                } catch (InterruptedException e) {
+                    throw new InterruptedIOException("send interrupted");
+                }
+            }
+        };
+        employeeChangeFeed.subscribe(blocked, before);
+        change(EmployeeChangedEvent.Type.CREATED, 1L);
+        assertThat(blockedInSend.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // when - action or the behaviour that we are going test
+        List<SseEmitter.SseEventBuilder> received = new CopyOnWriteArrayList<>();
+        employeeChangeFeed.subscribe(new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                received.add(builder);
+            }
+        }, before);
+
+        // then - verify the output
+        long deadline = System.currentTimeMillis() + 5000;
+        while (received.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(received).hasSize(1);
+        assertThat(employeeChangeFeed.subscriberCount()).isEqualTo(1);
+    }
+
+
+    // Junit test for subscribers whose send holds the emitter lock and ignores the interrupt
+    @DisplayName("Junit test for subscribers whose send holds the emitter lock and ignores the interrupt")
+    @Test
+    public void givenSendsHoldingTheEmitterLock_whenSendTimesOut_thenEveryStuckSubscriberIsDropped() throws Exception {
+        // given- precondition or setup, two sender threads each stuck in a send like a blocking socket write
+        EmployeeChangeFeed changeFeed = new EmployeeChangeFeed(4, 5000, 2, 200);
+        long before = changeFeed.latestId();
+        CountDownLatch blockedInSend = new CountDownLatch(2);
+        CountDownLatch writeReturns = new CountDownLatch(1);
+        List<Throwable> completions = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            changeFeed.subscribe(new SseEmitter() {
+                @Override
+                public synchronized void send(SseEventBuilder builder) throws IOException {
+                    blockedInSend.countDown();
+                    boolean interrupted = false;
+                    while (true) {
+                        try {
+                            writeReturns.await();
+                            break;
+                        } catch (InterruptedException e) {
+                            interrupted = true;
+                        }
+                    }
+                    if (interrupted) {
+                        throw new InterruptedIOException("send interrupted");
+                    }
+                }
+
+                @Override
+                public synchronized void completeWithError(Throwable ex) {
+                    completions.add(ex);
+                    super.completeWithError(ex);
+                }
+            }, before);
+        }
+
+        try {
+            // when - action or the behaviour that we are going test
+            changeFeed.onEmployeeChanged(new EmployeeChangedEvent(EmployeeChangedEvent.Type.CREATED,
+                    List.of(Employee.builder().id(1L).firstName("Ankesh").lastName("Tiwari").email("ankesh@gmail.com").build())));
+            assertThat(blockedInSend.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // then - verify the output
+            long deadline = System.currentTimeMillis() + 5000;
+            while (changeFeed.subscriberCount() > 0 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(changeFeed.subscriberCount()).isEqualTo(0);
+            assertThat(completions).isEmpty();
+
+            writeReturns.countDown();
+            deadline = System.currentTimeMillis() + 5000;
+            while (completions.size() < 2 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertThat(completions).hasSize(2).allMatch(TimeoutException.class::isInstance);
+        } finally {
+            writeReturns.countDown();
+            changeFeed.close();
+        }
+    }
+
+}
@@ -0,0 +1,30 @@
+package net.junit.springboot.event;
+
+import net.junit.springboot.model.OutboxEvent;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// test sink that keeps what was published and can be told to fail
+public class InMemoryEmployeeEventSink implements EmployeeEventSink {
+
+    private final List<OutboxEvent> published = new CopyOnWriteArrayList<>();
+
+    private volatile boolean failing;
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        if (failing) {
+            throw new IllegalStateException("sink is down");
+        }
+        published.addAll(events);
+    }
+
+    public List<OutboxEvent> getPublished() {
+        return published;
+    }
+
+    public void setFailing(boolean failing) {
+        this.failing = failing;
+    }
+}
@@ -0,0 +1,138 @@
+package net.junit.springboot.event;
+
+import net.junit.springboot.model.Employee;
+import net.junit.springboot.model.OutboxEvent;
+import net.junit.springboot.repository.EmployeeRepository;
+import net.junit.springboot.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest
+@Import(EmployeeOutboxWriter.class)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+public class OutboxPublisherTests {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private InMemoryEmployeeEventSink sink;
+
+    private OutboxPublisher outboxPublisher;
+
+    @BeforeEach
+    public void setup() {
+        outboxEventRepository.deleteAll();
+        employeeRepository.deleteAll();
+        sink = new InMemoryEmployeeEventSink();
+        outboxPublisher = new OutboxPublisher(outboxEventRepository, sink, transactionManager, 2);
+    }
+
+    private void changeEmployees(EmployeeChangedEvent.Type type, int count) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (int i = 0; i < count; i++) {
+                Employee employee = employeeRepository.save(Employee.builder()
+                        .firstName("Ankesh")
+                        .lastName("Tiwari")
+                        .email("ankesh" + i + "@gmail.com")
+                        .build());
+                eventPublisher.publishEvent(new EmployeeChangedEvent(type, List.of(employee)));
+            }
+        });
+    }
+
+    // Junit test for writing the outbox in the caller's transaction
+    @DisplayName("Junit test for writing the outbox in the caller's transaction")
+    @Test
+    public void givenRolledBackChange_whenPublishEvent_thenNoOutboxRow() {
+        // given- precondition or setup
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // when - action or the behaviour that we are going test
+        transactionTemplate.executeWithoutResult(status -> {
+            eventPublisher.publishEvent(new EmployeeChangedEvent(EmployeeChangedEvent.Type.DELETED,
+                    List.of(Employee.builder().id(42L).build())));
+            status.setRollbackOnly();
+        });
+
+        // then - verify the output
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    // Junit test for publishing outside of a transaction
+    @DisplayName("Junit test for publishing outside of a transaction")
+    @Test
+    public void givenNoTransaction_whenPublishEvent_thenRejected() {
+        // given- precondition or setup
+        EmployeeChangedEvent event = new EmployeeChangedEvent(EmployeeChangedEvent.Type.DELETED,
+                List.of(Employee.builder().id(42L).build()));
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output
+        assertThrows(IllegalTransactionStateException.class, () -> eventPublisher.publishEvent(event));
+    }
+
+    // Junit test for draining the outbox in batches
+    @DisplayName("Junit test for draining the outbox in batches")
+    @Test
+    public void givenPendingEvents_whenPublishPending_thenSinkGetsAllInOrderAndOutboxIsEmpty() {
+        // given- precondition or setup
+        changeEmployees(EmployeeChangedEvent.Type.CREATED, 5);
+
+        // when - action or the behaviour that we are going test
+        outboxPublisher.publishPending();
+
+        // then - verify the output
+        assertThat(sink.getPublished()).hasSize(5)
+                .extracting(OutboxEvent::getEventType).containsOnly("CREATED");
+        assertThat(sink.getPublished()).extracting(OutboxEvent::getId).isSorted();
+        assertThat(sink.getPublished().get(0).getPayload()).contains("\"email\":\"ankesh0@gmail.com\"");
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+
+    // Junit test for a failing sink
+    @DisplayName("Junit test for a failing sink")
+    @Test
+    public void givenFailingSink_whenPublishPending_thenEventsStayForTheNextPoll() {
+        // given- precondition or setup
+        changeEmployees(EmployeeChangedEvent.Type.UPDATED, 3);
+        sink.setFailing(true);
+
+        // when - action or the behaviour that we are going test
+        outboxPublisher.publishPending();
+
+        // then - verify the output
+        assertThat(outboxEventRepository.count()).isEqualTo(3);
+
+        sink.setFailing(false);
+        outboxPublisher.publishPending();
+        assertThat(sink.getPublished()).hasSize(3);
+        assertThat(outboxEventRepository.count()).isZero();
+    }
+}
@@ -1,6 +1,7 @@
 package net.junit.springboot.integration;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import net.junit.springboot.controller.SqlStatementHeaderAdvice;
 import net.junit.springboot.model.Employee;
 import net.junit.springboot.repository.EmployeeRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,16 +17,21 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static net.junit.springboot.integration.SqlStatementResultMatchers.sqlConnections;
+import static net.junit.springboot.integration.SqlStatementResultMatchers.sqlStatements;
 import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.willDoNothing;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
-@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "app.sql.debug-headers=true")
 @AutoConfigureMockMvc
 public class EmployeeControllerITest {
 
@@ -62,6 +68,9 @@ public class EmployeeControllerITest {
         // then - verify the result or output using assert statements
         response.andDo(print())
                 .andExpect(status().isCreated())
+                // the employee insert plus its outbox row, in one transaction on one connection
+                .andExpect(sqlStatements().isEqualTo(2))
+                .andExpect(sqlConnections().isEqualTo(1))
                 .andExpect(jsonPath("$.firstName",
                         is(employee.getFirstName())))
                 .andExpect(jsonPath("$.lastName",
@@ -88,12 +97,42 @@ public class EmployeeControllerITest {
         // then - verify the output
         response.andExpect(status().isOk())
                 .andDo(print())
+                .andExpect(sqlStatements().isEqualTo(1))
+                .andExpect(sqlConnections().isEqualTo(1))
                 .andExpect(jsonPath("$.size()",
                         is(listOfEmployees.size())));
 
 
     }
 
+    // Junit test for Get all employees REST API with a field selection
+    @Test
+    public void givenListOfEmployees_whenGetAllEmployeesWithFields_thenReturnOnlyThoseFields() throws Exception {
+        // given- precondition or setup
+        List<Employee> listOfEmployees = new ArrayList<>();
+        listOfEmployees.add(Employee.builder().firstName("Ankesh").lastName("Tiwari").email("ankesh@gmail.com").build());
+        listOfEmployees.add(Employee.builder().firstName("Akt").lastName("Tiwari").email("akt@gmail.com").build());
+
+        employeeRepository.saveAll(listOfEmployees);
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(get("/api/employees").param("fields", "id,email"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                .andExpect(sqlStatements().isEqualTo(1))
+                .andExpect(jsonPath("$.size()", is(listOfEmployees.size())))
+                .andExpect(jsonPath("$[0].id", is((int) listOfEmployees.get(0).getId())))
+                .andExpect(jsonPath("$[0].email", is("ankesh@gmail.com")))
+                .andExpect(jsonPath("$[0].firstName").doesNotExist());
+
+        mockMvc.perform(get("/api/employees/summaries"))
+                .andExpect(status().isOk())
+                .andExpect(sqlStatements().isEqualTo(1))
+                .andExpect(jsonPath("$[1].displayName", is("Akt Tiwari")));
+    }
+
     // Junit test for GET employee by id REST API
     @Test
     public void givenEmployeeId_whenGetEmployeeById_thenReturnEmployeeObject() throws Exception {
@@ -113,6 +152,10 @@ public class EmployeeControllerITest {
         // then - verify the output
         response.andExpect(status().isOk())
                 .andDo(print())
+                .andExpect(sqlStatements().atMost(1))
+                .andExpect(sqlConnections().atMost(1))
+                .andExpect(header().string(SqlStatementHeaderAdvice.STATEMENTS_HEADER, notNullValue()))
+                .andExpect(header().string(SqlStatementHeaderAdvice.CONNECTIONS_HEADER, notNullValue()))
                 .andExpect(jsonPath("$.firstName", is(employee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", is(employee.getLastName())))
                 .andExpect(jsonPath("$.email", is(employee.getEmail())));
@@ -167,6 +210,7 @@ public class EmployeeControllerITest {
         // then - verify the output
         response.andExpect(status().isOk())
                 .andDo(print())
+                .andExpect(sqlStatements().atMost(3))
                 .andExpect(jsonPath("$.firstName", is(updatedEmployee.getFirstName())))
                 .andExpect(jsonPath("$.lastName", is(updatedEmployee.getLastName())))
                 .andExpect(jsonPath("$.email", is(updatedEmployee.getEmail())));
@@ -219,7 +263,61 @@ public class EmployeeControllerITest {
 
         // then - verify the output
         response.andExpect(status().isOk())
+                // one delete statement without a prior select, plus its outbox row
+                .andExpect(sqlStatements().isEqualTo(2))
                 .andDo(print());
     }
 
+
+    // Junit test for patch employee REST API
+    @Test
+    public void givenMergePatch_whenPatchEmployee_thenOnlyGivenFieldIsUpdated() throws Exception {
+        // given- precondition or setup
+        Employee savedEmployee = Employee.builder()
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email("ankesh@gmail.com")
+                .build();
+        employeeRepository.save(savedEmployee);
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", savedEmployee.getId())
+                .contentType("application/merge-patch+json")
+                .content("{\"firstName\":\"Akt\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                // the lookup, an update of first_name and version only, plus its outbox row
+                .andExpect(sqlStatements().atMost(3))
+                .andExpect(sqlConnections().isEqualTo(1))
+                .andExpect(jsonPath("$.firstName", is("Akt")))
+                .andExpect(jsonPath("$.email", is(savedEmployee.getEmail())))
+                .andExpect(jsonPath("$.version", is(1)));
+    }
+
+    // Junit test for patch employee REST API with a patch that changes nothing
+    @Test
+    public void givenUnchangedMergePatch_whenPatchEmployee_thenNothingIsWritten() throws Exception {
+        // given- precondition or setup
+        Employee savedEmployee = Employee.builder()
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email("ankesh@gmail.com")
+                .build();
+        employeeRepository.save(savedEmployee);
+
+        // when - action or the behaviour that we are going test
+        ResultActions response = mockMvc.perform(patch("/api/employees/{id}", savedEmployee.getId())
+                .contentType("application/merge-patch+json")
+                .content("{\"firstName\":\"Ankesh\"}"));
+
+        // then - verify the output
+        response.andExpect(status().isOk())
+                .andDo(print())
+                // at most the lookup, no update and no outbox row
+                .andExpect(sqlStatements().atMost(1))
+                .andExpect(jsonPath("$.version", is(0)));
+    }
+
 }
@@ -0,0 +1,51 @@
+package net.junit.springboot.integration;
+
+import net.junit.springboot.config.SqlStatementCounter;
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import java.util.function.ToIntFunction;
+
+import static org.springframework.test.util.AssertionErrors.assertNotNull;
+import static org.springframework.test.util.AssertionErrors.assertTrue;
+
+// MockMvc assertions on the SQL a request issued, e.g. andExpect(sqlStatements().atMost(1)),
+// so an endpoint that regresses into N+1 queries fails its integration test.
+public final class SqlStatementResultMatchers {
+
+    private final String what;
+
+    private final ToIntFunction<SqlStatementCounter.Stats> count;
+
+    private SqlStatementResultMatchers(String what, ToIntFunction<SqlStatementCounter.Stats> count) {
+        this.what = what;
+        this.count = count;
+    }
+
+    public static SqlStatementResultMatchers sqlStatements() {
+        return new SqlStatementResultMatchers("SQL statements", SqlStatementCounter.Stats::getStatements);
+    }
+
+    // checkouts from the connection pool, one per transaction
+    public static SqlStatementResultMatchers sqlConnections() {
+        return new SqlStatementResultMatchers("connection checkouts", SqlStatementCounter.Stats::getConnections);
+    }
+
+    public ResultMatcher atMost(int max) {
+        return result -> {
+            int actual = count.applyAsInt(stats(result.getRequest().getAttribute(SqlStatementCounter.REQUEST_ATTRIBUTE)));
+            assertTrue("Expected at most " + max + " " + what + " but the request had " + actual, actual <= max);
+        };
+    }
+
+    public ResultMatcher isEqualTo(int expected) {
+        return result -> {
+            int actual = count.applyAsInt(stats(result.getRequest().getAttribute(SqlStatementCounter.REQUEST_ATTRIBUTE)));
+            assertTrue("Expected " + expected + " " + what + " but the request had " + actual, actual == expected);
+        };
+    }
+
+    private static SqlStatementCounter.Stats stats(Object attribute) {
+        assertNotNull("No SQL statistics on the request, is SqlStatementFilter registered?", attribute);
+        return (SqlStatementCounter.Stats) attribute;
+    }
+}
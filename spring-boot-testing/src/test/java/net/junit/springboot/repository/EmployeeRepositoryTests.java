@@ -1,17 +1,32 @@
 package net.junit.springboot.repository;
 
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import net.junit.springboot.dto.EmployeeField;
+import net.junit.springboot.dto.EmployeeSummary;
 import net.junit.springboot.model.Employee;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
-
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 @DataJpaTest
 public class EmployeeRepositoryTests {
@@ -19,6 +34,12 @@ public class EmployeeRepositoryTests {
     @Autowired
     private EmployeeRepository employeeRepository;
 
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     private Employee employee;
 
     @BeforeEach
@@ -263,5 +284,357 @@ public class EmployeeRepositoryTests {
 
     }
 
+    // Junit test for keyset pagination query
+    @DisplayName("Junit test for keyset pagination query")
+    @Test
+    public void givenEmployeeList_whenFindByIdGreaterThan_thenReturnNextPage() {
+        // given- precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("akt")
+                .lastName("wl")
+                .email("akt@gmail.com")
+                .build();
+        Employee employee2 = Employee.builder()
+                .firstName("ram")
+                .lastName("wl")
+                .email("ram@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(employee1);
+        employeeRepository.save(employee2);
+
+        // when - action or the behaviour that we are going test
+        List<Employee> employeeList = employeeRepository.findByIdGreaterThanOrderByIdAsc(employee.getId(), Limit.of(1));
+
+        // then - verify the output
+        assertThat(employeeList).hasSize(1);
+        assertThat(employeeList.get(0).getId()).isEqualTo(employee1.getId());
+
+    }
+
+    // Junit test for scrolling through all employees
+    @DisplayName("Junit test for scrolling through all employees")
+    @Test
+    public void givenEmployeeList_whenScrollAll_thenVisitEveryEmployeeInIdOrder() {
+        // given- precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("akt")
+                .lastName("wl")
+                .email("akt@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(employee1);
+
+        // when - action or the behaviour that we are going test
+        List<Long> visitedIds = new ArrayList<>();
+        long count = employeeRepository.scrollAll(1, e -> visitedIds.add(e.getId()));
+
+        // then - verify the output
+        assertThat(count).isEqualTo(2);
+        assertThat(visitedIds).containsExactly(employee.getId(), employee1.getId());
+
+    }
+
+    // Junit test for batch insert and batched email lookup
+    @DisplayName("Junit test for batch insert and batched email lookup")
+    @Test
+    public void givenEmployeeList_whenInsertAll_thenAssignIdsAndFindExistingEmails() {
+        // given- precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("akt")
+                .lastName("wl")
+                .email("akt@gmail.com")
+                .build();
+
+        // when - action or the behaviour that we are going test
+        employeeRepository.insertAll(List.of(employee, employee1));
+        Set<String> existingEmails = employeeRepository.findExistingEmails(
+                List.of(employee.getEmail(), employee1.getEmail(), "new@gmail.com"));
+
+        // then - verify the output
+        assertThat(employee.getId()).isGreaterThan(0);
+        assertThat(employee1.getId()).isGreaterThan(employee.getId());
+        assertThat(existingEmails).containsExactlyInAnyOrder(employee.getEmail(), employee1.getEmail());
+
+    }
+
+    // Junit test for unique email constraint
+    @DisplayName("Junit test for unique email constraint")
+    @Test
+    public void givenExistingEmail_whenSave_thenThrowDataIntegrityViolation() {
+        // given- precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        Employee employee1 = Employee.builder()
+                .firstName("akt")
+                .lastName("wl")
+                .email(employee.getEmail())
+                .build();
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output
+        assertThatThrownBy(() -> employeeRepository.saveAndFlush(employee1))
+                .isInstanceOf(DataIntegrityViolationException.class);
+
+    }
+
+    // Junit test for name lookup returning every match
+    @DisplayName("Junit test for name lookup returning every match")
+    @Test
+    public void givenEmployeesSharingName_whenFindByFirstNameAndLastName_thenReturnAllMatches() {
+        // given- precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName(employee.getFirstName())
+                .lastName(employee.getLastName())
+                .email("ankesh2@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(employee1);
+
+        // when - action or the behaviour that we are going test
+        List<Employee> employeeList = employeeRepository.findByFirstNameAndLastNameOrderByIdAsc(
+                employee.getFirstName(), employee.getLastName(), Limit.of(10));
+
+        // then - verify the output
+        assertThat(employeeList).extracting(Employee::getId)
+                .containsExactly(employee.getId(), employee1.getId());
+
+    }
+
+    // Junit test for query cache on find by email and entity cache on find by id
+    // runs outside the test transaction because cached query results are only used once the insert has committed
+    @DisplayName("Junit test for query cache on find by email and entity cache on find by id")
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void givenSavedEmployee_whenLookedUpAgain_thenServedFromSecondLevelCache() {
+        // given- precondition or setup
+        employeeRepository.save(employee);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        try {
+            // when - action or the behaviour that we are going test
+            employeeRepository.findByEmail(employee.getEmail());
+            Optional<Employee> cachedEmployee = employeeRepository.findByEmail(employee.getEmail());
+            Optional<Employee> employeeById = employeeRepository.findById(employee.getId());
+
+            // then - verify the output
+            assertThat(cachedEmployee).isPresent();
+            assertThat(employeeById).isPresent();
+            assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+            assertThat(statistics.getSecondLevelCacheHitCount()).isGreaterThanOrEqualTo(1);
+        } finally {
+            employeeRepository.deleteAll();
+        }
+
+    }
+
+    // Junit test for set-based delete evicting only the deleted employees from the second-level cache
+    // runs outside the test transaction because the second-level cache is only filled from committed data
+    @DisplayName("Junit test for set-based delete evicting only the deleted employees from the second-level cache")
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void givenCachedEmployees_whenDeleteByIds_thenOtherEmployeesStayCached() {
+        // given- precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("akt")
+                .lastName("wl")
+                .email("akt@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(employee1);
+        Cache cache = entityManagerFactory.getCache();
+
+        try {
+            cache.evictAll();
+            employeeRepository.findById(employee.getId());
+            employeeRepository.findById(employee1.getId());
+            assertThat(cache.contains(Employee.class, employee.getId())).isTrue();
+
+            // when - action or the behaviour that we are going test
+            Integer deleted = new TransactionTemplate(transactionManager)
+                    .execute(status -> employeeRepository.deleteByIds(List.of(employee.getId())));
+
+            // then - verify the output
+            assertThat(deleted).isEqualTo(1);
+            assertThat(cache.contains(Employee.class, employee.getId())).isFalse();
+            assertThat(cache.contains(Employee.class, employee1.getId())).isTrue();
+            assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+        } finally {
+            employeeRepository.deleteAll();
+        }
+
+    }
+
+    // Junit test for set-based delete query
+    @DisplayName("Junit test for set-based delete query")
+    @Test
+    public void givenEmployeeList_whenDeleteByIds_thenRemoveOnlyExistingEmployees() {
+        // given- precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("akt")
+                .lastName("wl")
+                .email("akt@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(employee1);
+
+        // when - action or the behaviour that we are going test
+        int deleted = employeeRepository.deleteByIds(List.of(employee.getId(), employee1.getId(), employee1.getId() + 100));
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(2);
+        assertThat(employeeRepository.findAll()).isEmpty();
+
+    }
+
+    // Junit test for keyset walk over the ids matching an email pattern
+    @DisplayName("Junit test for keyset walk over the ids matching an email pattern")
+    @Test
+    public void givenEmployeeList_whenFindIdsByEmailLike_thenReturnMatchingIdsAfterCursor() {
+        // given- precondition or setup
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            employees.add(employeeRepository.save(Employee.builder()
+                    .firstName("Ankesh" + i)
+                    .lastName("Tiwari")
+                    .email("ankesh" + i + (i % 2 == 0 ? "@contractor.com" : "@gmail.com"))
+                    .build()));
+        }
+
+        // when - action or the behaviour that we are going test
+        List<Long> firstChunk = employeeRepository.findIdsByEmailLike(0L, "%@contractor.com", Limit.of(1));
+        List<Long> secondChunk = employeeRepository.findIdsByEmailLike(firstChunk.get(0), "%@contractor.com", Limit.of(1));
+
+        // then - verify the output
+        assertThat(firstChunk).containsExactly(employees.get(0).getId());
+        assertThat(secondChunk).containsExactly(employees.get(2).getId());
+
+    }
+
+
+    // Junit test for projections that load no entities
+    @DisplayName("Junit test for projections that load no entities")
+    @Test
+    public void givenEmployeeList_whenFindAllSummariesAndColumns_thenReturnOnlyProjectedValues() {
+        // given- precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("akt")
+                .lastName("wl")
+                .email("akt@gmail.com")
+                .build();
+        employeeRepository.saveAndFlush(employee);
+        employeeRepository.saveAndFlush(employee1);
+
+        // when - action or the behaviour that we are going test
+        List<EmployeeSummary> summaries = employeeRepository.findAllSummaries();
+        List<Object[]> rows = employeeRepository.findAllColumns(List.of(EmployeeField.EMAIL, EmployeeField.FIRST_NAME));
+
+        // then - verify the output
+        assertThat(summaries).extracting(EmployeeSummary::getId).containsExactly(employee.getId(), employee1.getId());
+        assertThat(summaries).extracting(EmployeeSummary::getDisplayName).containsExactly("Ankesh Tiwari", "akt wl");
+        assertThat(rows).containsExactly(
+                new Object[]{employee.getId(), 0L, "ankesh@gmail.com", "Ankesh"},
+                new Object[]{employee1.getId(), 0L, "akt@gmail.com", "akt"});
+
+    }
+
+
+    // Junit test for a batch insert that runs into the unique email index
+    @DisplayName("Junit test for a batch insert that runs into the unique email index")
+    @Test
+    public void givenTakenEmail_whenInsertAll_thenInsertTheOthersAndReturnTheDuplicate() {
+        // given- precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        Employee taken = Employee.builder()
+                .firstName("Ram")
+                .lastName("Tiwari")
+                .email(employee.getEmail())
+                .build();
+        Employee employee1 = Employee.builder()
+                .firstName("akt")
+                .lastName("wl")
+                .email("akt@gmail.com")
+                .build();
+        Employee employee2 = Employee.builder()
+                .firstName("Shyam")
+                .lastName("Tiwari")
+                .email("shyam@gmail.com")
+                .build();
+
+        // when - action or the behaviour that we are going test
+        List<Employee> duplicates = employeeRepository.insertAll(List.of(employee1, taken, employee2));
+
+        // then - verify the output
+        assertThat(duplicates).containsExactly(taken);
+        assertThat(employee1.getId()).isGreaterThan(employee.getId());
+        assertThat(employee2.getId()).isGreaterThan(employee1.getId());
+        assertThat(employeeRepository.findExistingEmails(List.of("akt@gmail.com", "shyam@gmail.com")))
+                .containsExactlyInAnyOrder("akt@gmail.com", "shyam@gmail.com");
+
+    }
+
+    // Junit test for a batch insert whose emails are all taken
+    @DisplayName("Junit test for a batch insert whose emails are all taken")
+    @Test
+    public void givenOnlyTakenEmails_whenInsertAll_thenReturnThemAll() {
+        // given- precondition or setup
+        employeeRepository.saveAndFlush(employee);
+        Employee taken = Employee.builder()
+                .firstName("Ram")
+                .lastName("Tiwari")
+                .email(employee.getEmail())
+                .build();
+
+        // when - action or the behaviour that we are going test
+        List<Employee> duplicates = employeeRepository.insertAll(List.of(taken));
+
+        // then - verify the output
+        assertThat(duplicates).containsExactly(taken);
+        assertThat(employeeRepository.count()).isEqualTo(1);
+
+    }
+
+
+    // Junit test for version checked update evicting only that employee from the second-level cache
+    // runs outside the test transaction because the second-level cache is only filled from committed data
+    @DisplayName("Junit test for version checked update evicting only that employee from the second-level cache")
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void givenCachedEmployees_whenUpdateIfVersionMatches_thenOnlyCurrentVersionIsUpdated() {
+        // given- precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("akt")
+                .lastName("wl")
+                .email("akt@gmail.com")
+                .build();
+        employeeRepository.save(employee);
+        employeeRepository.save(employee1);
+        Cache cache = entityManagerFactory.getCache();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        try {
+            cache.evictAll();
+            employeeRepository.findById(employee.getId());
+            employeeRepository.findById(employee1.getId());
+
+            // when - action or the behaviour that we are going test
+            Integer updated = transaction.execute(status -> employeeRepository.updateIfVersionMatches(
+                    employee.getId(), 0L, "Ram", "Tiwari", "ram@gmail.com"));
+            Integer staleUpdate = transaction.execute(status -> employeeRepository.updateIfVersionMatches(
+                    employee.getId(), 0L, "Shyam", "Tiwari", "shyam@gmail.com"));
+
+            // then - verify the output
+            assertThat(updated).isEqualTo(1);
+            assertThat(staleUpdate).isEqualTo(0);
+            assertThat(cache.contains(Employee.class, employee.getId())).isFalse();
+            assertThat(cache.contains(Employee.class, employee1.getId())).isTrue();
+            Employee updatedEmployee = employeeRepository.findById(employee.getId()).get();
+            assertThat(updatedEmployee.getFirstName()).isEqualTo("Ram");
+            assertThat(updatedEmployee.getVersion()).isEqualTo(1);
+        } finally {
+            employeeRepository.deleteAll();
+        }
+
+    }
 
 }
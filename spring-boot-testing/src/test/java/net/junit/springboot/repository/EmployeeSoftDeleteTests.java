@@ -0,0 +1,109 @@
+package net.junit.springboot.repository;
+
+import net.junit.springboot.model.Employee;
+import net.junit.springboot.service.impl.EmployeePurgeJob;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "app.employees.soft-delete=true")
+public class EmployeeSoftDeleteTests {
+
+    @Autowired
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setUp() {
+        employee = employeeRepository.save(Employee.builder()
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email("ankesh@gmail.com")
+                .build());
+    }
+
+    // Junit test for soft delete hiding the employee
+    @DisplayName("Junit test for soft delete hiding the employee")
+    @Test
+    public void givenEmployeeObject_whenDeleteByIds_thenEmployeeIsHiddenButRowIsKept() {
+        // when - action or the behaviour that we are going test
+        int deleted = employeeRepository.deleteByIds(List.of(employee.getId()));
+        int deletedAgain = employeeRepository.deleteByIds(List.of(employee.getId()));
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(1);
+        assertThat(deletedAgain).isEqualTo(0);
+        assertThat(employeeRepository.findById(employee.getId())).isEmpty();
+        assertThat(employeeRepository.findByEmail("ankesh@gmail.com")).isEmpty();
+        assertThat(employeeRepository.findByNativeSQL("Ankesh", "Tiwari")).isNull();
+        assertThat(jdbcTemplate.queryForObject("select count(*) from employees where deleted_at is not null", Long.class))
+                .isEqualTo(1);
+        // the email is free again before the row is purged
+        assertThat(employeeRepository.findExistingEmails(List.of("ankesh@gmail.com"))).isEmpty();
+        assertThat(jdbcTemplate.queryForObject("select email from employees where id = ?", String.class, employee.getId()))
+                .isEqualTo("deleted:" + employee.getId() + ":ankesh@gmail.com");
+    }
+
+    // Junit test for creating an employee with the email of a soft-deleted one
+    @DisplayName("Junit test for creating an employee with the email of a soft-deleted one")
+    @Test
+    public void givenSoftDeletedEmployee_whenSaveWithSameEmail_thenEmployeeIsCreated() {
+        // given- precondition or setup
+        employeeRepository.deleteByIds(List.of(employee.getId()));
+
+        // when - action or the behaviour that we are going test
+        Employee recreated = employeeRepository.saveAndFlush(Employee.builder()
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email("ankesh@gmail.com")
+                .build());
+
+        // then - verify the output
+        assertThat(recreated.getId()).isNotEqualTo(employee.getId());
+        assertThat(employeeRepository.findByEmail("ankesh@gmail.com")).get()
+                .extracting(Employee::getId).isEqualTo(recreated.getId());
+        assertThat(jdbcTemplate.queryForObject("select count(*) from employees", Long.class)).isEqualTo(2);
+    }
+
+    // Junit test for purging soft-deleted employees in chunks
+    @DisplayName("Junit test for purging soft-deleted employees in chunks")
+    @Test
+    public void givenSoftDeletedEmployees_whenPurge_thenRowsAreDeletedInChunks() {
+        // given- precondition or setup
+        Employee employee1 = employeeRepository.save(Employee.builder()
+                .firstName("akt")
+                .lastName("wl")
+                .email("akt@gmail.com")
+                .build());
+        Employee employee2 = employeeRepository.save(Employee.builder()
+                .firstName("Ram")
+                .lastName("Tiwari")
+                .email("ram@gmail.com")
+                .build());
+        employeeRepository.deleteByIds(List.of(employee.getId(), employee1.getId()));
+        EmployeePurgeJob purgeJob = new EmployeePurgeJob(employeeRepository, Duration.ofSeconds(-1), 1, 0);
+
+        // when - action or the behaviour that we are going test
+        int notYetDue = employeeRepository.purgeDeleted(Instant.now().minus(Duration.ofDays(1)), 10);
+        long purged = purgeJob.purge();
+
+        // then - verify the output
+        assertThat(notYetDue).isEqualTo(0);
+        assertThat(purged).isEqualTo(2);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from employees", Long.class)).isEqualTo(1);
+        assertThat(employeeRepository.findById(employee2.getId())).isPresent();
+    }
+}
@@ -0,0 +1,105 @@
+package net.junit.springboot.search;
+
+import net.junit.springboot.event.EmployeeChangedEvent;
+import net.junit.springboot.model.Employee;
+import net.junit.springboot.service.EmployeeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+
+public class EmployeeSearchIndexTests {
+
+    private EmployeeService employeeService;
+
+    private EmployeeSearchIndex employeeSearchIndex;
+
+    @BeforeEach
+    public void setup() {
+        employeeService = mock(EmployeeService.class);
+        employeeSearchIndex = new EmployeeSearchIndex(employeeService);
+    }
+
+    private static Employee employee(long id, String firstName, String lastName, String email, long version) {
+        return Employee.builder().id(id).firstName(firstName).lastName(lastName).email(email).version(version).build();
+    }
+
+    private void change(EmployeeChangedEvent.Type type, Employee... employees) {
+        employeeSearchIndex.onEmployeeChanged(new EmployeeChangedEvent(type, List.of(employees)));
+    }
+
+    // Junit test for prefix search over names and email
+    @DisplayName("Junit test for prefix search over names and email")
+    @Test
+    public void givenIndexedEmployees_whenSearchByPrefix_thenMatchNamesAndEmailParts() {
+        // given- precondition or setup
+        change(EmployeeChangedEvent.Type.CREATED,
+                employee(1L, "Ankesh", "Tiwari", "ankesh@gmail.com", 0),
+                employee(2L, "Tony", "Stark", "tony.stark@avengers.com", 0),
+                employee(3L, "Anita", "Sharma", "anita@yahoo.com", 0));
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output
+        assertThat(employeeSearchIndex.search("An", 10)).extracting(Employee::getId).containsExactlyInAnyOrder(1L, 3L);
+        assertThat(employeeSearchIndex.search("tiw", 10)).extracting(Employee::getId).containsExactly(1L);
+        assertThat(employeeSearchIndex.search("stark@", 10)).isEmpty();
+        assertThat(employeeSearchIndex.search("tony.st", 10)).extracting(Employee::getId).containsExactly(2L);
+        assertThat(employeeSearchIndex.search("aveng", 10)).extracting(Employee::getId).containsExactly(2L);
+        assertThat(employeeSearchIndex.search("an sh", 10)).extracting(Employee::getId).containsExactly(3L);
+        assertThat(employeeSearchIndex.search("an", 1)).hasSize(1);
+        assertThat(employeeSearchIndex.search("  ", 10)).isEmpty();
+    }
+
+    // Junit test for keeping the index current on update and delete
+    @DisplayName("Junit test for keeping the index current on update and delete")
+    @Test
+    public void givenUpdateAndDelete_whenSearch_thenOldTokensAreGone() {
+        // given- precondition or setup
+        change(EmployeeChangedEvent.Type.CREATED,
+                employee(1L, "Ankesh", "Tiwari", "ankesh@gmail.com", 0),
+                employee(2L, "Tony", "Stark", "tony@gmail.com", 0));
+
+        // when - action or the behaviour that we are going test
+        change(EmployeeChangedEvent.Type.UPDATED, employee(1L, "Ram", "Tiwari", "ram@gmail.com", 1));
+        change(EmployeeChangedEvent.Type.DELETED, Employee.builder().id(2L).build());
+
+        // then - verify the output
+        assertThat(employeeSearchIndex.search("ank", 10)).isEmpty();
+        assertThat(employeeSearchIndex.search("ram", 10)).extracting(Employee::getFirstName).containsExactly("Ram");
+        assertThat(employeeSearchIndex.search("gmail", 10)).extracting(Employee::getId).containsExactly(1L);
+        assertThat(employeeSearchIndex.size()).isEqualTo(1);
+    }
+
+    // Junit test for the initial load racing with writes
+    @DisplayName("Junit test for the initial load racing with writes")
+    @Test
+    public void givenChangesDuringLoad_whenLoad_thenLoadDoesNotUndoThem() {
+        // given- precondition or setup
+        willAnswer(invocation -> {
+            Consumer<Employee> consumer = invocation.getArgument(0);
+            // both rows were read before the changes below committed
+            change(EmployeeChangedEvent.Type.UPDATED, employee(1L, "Ram", "Tiwari", "ram@gmail.com", 1));
+            change(EmployeeChangedEvent.Type.DELETED, Employee.builder().id(2L).build());
+            consumer.accept(employee(1L, "Ankesh", "Tiwari", "ankesh@gmail.com", 0));
+            consumer.accept(employee(2L, "Tony", "Stark", "tony@gmail.com", 0));
+            consumer.accept(employee(3L, "Anita", "Sharma", "anita@yahoo.com", 0));
+            return 3L;
+        }).given(employeeService).exportEmployees(any());
+
+        // when - action or the behaviour that we are going test
+        employeeSearchIndex.load();
+
+        // then - verify the output
+        assertThat(employeeSearchIndex.search("ram", 10)).hasSize(1);
+        assertThat(employeeSearchIndex.search("ank", 10)).isEmpty();
+        assertThat(employeeSearchIndex.search("tony", 10)).isEmpty();
+        assertThat(employeeSearchIndex.search("anita", 10)).hasSize(1);
+    }
+}
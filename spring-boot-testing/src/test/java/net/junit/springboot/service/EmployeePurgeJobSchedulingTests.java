@@ -0,0 +1,92 @@
+package net.junit.springboot.service;
+
+import net.junit.springboot.config.OutboxConfig;
+import net.junit.springboot.event.OutboxPublisher;
+import net.junit.springboot.repository.EmployeeRepository;
+import net.junit.springboot.repository.OutboxEventRepository;
+import net.junit.springboot.service.impl.EmployeePurgeJob;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+// both jobs on the scheduler configured in application.properties, the purge never finishes its first chunk
+@SpringBootTest(classes = {OutboxConfig.class, OutboxPublisher.class, EmployeePurgeJob.class,
+        EmployeePurgeJobSchedulingTests.Repositories.class},
+        properties = {"app.employees.soft-delete=true",
+                "app.employees.purge.interval-ms=10",
+                "app.outbox.poll-interval-ms=10"})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, TaskSchedulingAutoConfiguration.class})
+public class EmployeePurgeJobSchedulingTests {
+
+    private static final CountDownLatch purgeStarted = new CountDownLatch(1);
+
+    private static final CountDownLatch releasePurge = new CountDownLatch(1);
+
+    // stubbed before the scheduler starts, stubbing a mock other threads are calling is not safe
+    @TestConfiguration
+    static class Repositories {
+
+        @Bean
+        EmployeeRepository employeeRepository() {
+            EmployeeRepository employeeRepository = mock(EmployeeRepository.class);
+            given(employeeRepository.purgeDeleted(any(Instant.class), anyInt())).willAnswer(invocation -> {
+                purgeStarted.countDown();
+                releasePurge.await(10, TimeUnit.SECONDS);
+                return 0;
+            });
+            return employeeRepository;
+        }
+
+        @Bean
+        OutboxEventRepository outboxEventRepository() {
+            return mock(OutboxEventRepository.class);
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager() {
+            return mock(PlatformTransactionManager.class);
+        }
+    }
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @AfterEach
+    public void tearDown() {
+        releasePurge.countDown();
+    }
+
+    // Junit test for the purge job and the outbox publisher sharing the scheduler
+    @DisplayName("Junit test for the purge job and the outbox publisher sharing the scheduler")
+    @Test
+    public void givenPurgeStillRunning_whenOutboxPollIsDue_thenOutboxIsStillPolled() throws Exception {
+        // given - precondition or setup
+        assertThat(purgeStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        clearInvocations(outboxEventRepository);
+
+        // when - action or the behaviour that we are going test
+        // then - verify the output
+        verify(outboxEventRepository, timeout(5000).atLeast(3)).findByOrderByIdAsc(any());
+    }
+}
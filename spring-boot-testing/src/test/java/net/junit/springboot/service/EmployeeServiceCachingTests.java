@@ -0,0 +1,124 @@
+package net.junit.springboot.service;
+
+import net.junit.springboot.config.CacheConfig;
+import net.junit.springboot.model.Employee;
+import net.junit.springboot.repository.EmployeeRepository;
+import net.junit.springboot.service.impl.EmployeeServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.cache.CacheAutoConfiguration;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest(classes = {CacheConfig.class, EmployeeServiceImpl.class})
+@ImportAutoConfiguration(CacheAutoConfiguration.class)
+public class EmployeeServiceCachingTests {
+
+    @MockBean
+    private EmployeeRepository employeeRepository;
+
+    @Autowired
+    private EmployeeService employeeService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Employee employee;
+
+    @BeforeEach
+    public void setup() {
+        cacheManager.getCache(CacheConfig.EMPLOYEES_CACHE).clear();
+        employee = Employee.builder()
+                .id(1L)
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email("ankesh@gmail.com")
+                .build();
+    }
+
+    // Junit test for cached getEmployeeById method
+    @DisplayName("Junit test for cached getEmployeeById method")
+    @Test
+    public void givenCachedEmployee_whenGetEmployeeById_thenRepositoryIsCalledOnce() {
+        // given- precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+
+        // when - action or the behaviour that we are going test
+        employeeService.getEmployeeById(1L);
+        Optional<Employee> cachedEmployee = employeeService.getEmployeeById(1L);
+
+        // then - verify the output
+        assertThat(cachedEmployee).contains(employee);
+        verify(employeeRepository, times(1)).findById(1L);
+    }
+
+    // Junit test for getEmployeeById method when the employee does not exist
+    @DisplayName("Junit test for getEmployeeById method when the employee does not exist")
+    @Test
+    public void givenMissingEmployee_whenGetEmployeeById_thenMissIsNotCached() {
+        // given- precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.empty());
+
+        // when - action or the behaviour that we are going test
+        employeeService.getEmployeeById(1L);
+        employeeService.getEmployeeById(1L);
+
+        // then - verify the output
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+
+    // Junit test for updateEmployee method refreshing the cache
+    @DisplayName("Junit test for updateEmployee method refreshing the cache")
+    @Test
+    public void givenCachedEmployee_whenUpdateEmployee_thenCacheHoldsUpdatedEmployee() {
+        // given- precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        given(employeeRepository.updateIfVersionMatches(1L, 0L, "Shyam", "Tiwari", "shyam@gmail.com")).willReturn(1);
+        employeeService.getEmployeeById(1L);
+        Employee updatedEmployee = Employee.builder()
+                .id(1L)
+                .firstName("Shyam")
+                .lastName("Tiwari")
+                .email("shyam@gmail.com")
+                .build();
+
+        // when - action or the behaviour that we are going test
+        employeeService.updateEmployee(1L, 0L, updatedEmployee);
+
+        // then - verify the output
+        Optional<Employee> cachedEmployee = employeeService.getEmployeeById(1L);
+        assertThat(cachedEmployee).get().extracting(Employee::getFirstName).isEqualTo("Shyam");
+        assertThat(cachedEmployee).get().extracting(Employee::getEmail).isEqualTo("shyam@gmail.com");
+        // once for the first lookup, none for the update or the lookup after it
+        verify(employeeRepository, times(1)).findById(1L);
+    }
+
+    // Junit test for deleteEmployee method evicting the cache
+    @DisplayName("Junit test for deleteEmployee method evicting the cache")
+    @Test
+    public void givenCachedEmployee_whenDeleteEmployee_thenEntryIsEvicted() {
+        // given- precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        employeeService.getEmployeeById(1L);
+        given(employeeRepository.deleteByIds(List.of(1L))).willReturn(1);
+
+        // when - action or the behaviour that we are going test
+        employeeService.deleteEmployee(1L);
+        employeeService.getEmployeeById(1L);
+
+        // then - verify the output
+        verify(employeeRepository, times(2)).findById(1L);
+    }
+}
@@ -1,28 +1,53 @@
 package net.junit.springboot.service;
 
+import net.junit.springboot.dto.CursorPage;
+import net.junit.springboot.dto.EmployeeBatchResult;
+import net.junit.springboot.dto.EmployeeField;
+import net.junit.springboot.dto.EmployeePatch;
+import net.junit.springboot.dto.EmployeeRows;
+import net.junit.springboot.event.EmployeeChangedEvent;
+import net.junit.springboot.exception.BadRequestException;
+import net.junit.springboot.exception.DuplicateEmailException;
+import net.junit.springboot.exception.PreconditionFailedException;
 import net.junit.springboot.exception.ResourceNotFoundException;
 import net.junit.springboot.model.Employee;
 import net.junit.springboot.repository.EmployeeRepository;
 import net.junit.springboot.service.impl.EmployeeServiceImpl;
 import org.assertj.core.api.Assertions;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
-import static org.mockito.BDDMockito.willDoNothing;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.*;
 
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
 
 @ExtendWith(MockitoExtension.class)
 public class EmployeeServiceTests {
@@ -30,6 +55,9 @@ public class EmployeeServiceTests {
     @Mock
     private EmployeeRepository employeeRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private EmployeeServiceImpl employeeService;
 
@@ -53,10 +81,7 @@ public class EmployeeServiceTests {
     public void givenEmployeeObject_whenSaveEmployee_thenReturnEmployeeObject() {
         // given- precondition or setup
 
-        given(employeeRepository.findByEmail(employee.getEmail()))
-                .willReturn(Optional.empty());
-
-        given(employeeRepository.save(employee)).willReturn(employee);
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
         System.out.println(employeeRepository);
         System.out.println(employeeService);
 
@@ -76,10 +101,10 @@ public class EmployeeServiceTests {
     public void givenEmployeeObject_whenSaveEmployee_thenThrowException() {
         // given- precondition or setup
 
-        given(employeeRepository.findByEmail(employee.getEmail()))
-                .willReturn(Optional.of(employee));
+        given(employeeRepository.saveAndFlush(employee))
+                .willThrow(new DataIntegrityViolationException("duplicate email",
+                        new ConstraintViolationException("duplicate email", null, "employees.uk_employees_email")));
 
-        //given(employeeRepository.save(employee)).willReturn(employee);
         System.out.println(employeeRepository);
         System.out.println(employeeService);
 
@@ -88,7 +113,7 @@ public class EmployeeServiceTests {
             employeeService.saveEmployee(employee);
         });
         // then
-        verify(employeeRepository, never()).save(any(Employee.class));
+        verify(employeeRepository, never()).findByEmail(anyString());
 
     }
 
@@ -139,6 +164,25 @@ public class EmployeeServiceTests {
 
     }
 
+    // Junit test for getAllEmployees method with a field selection
+    @DisplayName("Junit test for getAllEmployees method with a field selection")
+    @Test
+    public void givenFields_whenGetAllEmployees_thenReturnRowsWithoutLoadingEntities() {
+        // given- precondition or setup
+        List<EmployeeField> fields = List.of(EmployeeField.ID, EmployeeField.EMAIL);
+        List<Object[]> rows = List.<Object[]>of(new Object[]{1L, 0L, 1L, "ankesh@gmail.com"});
+        given(employeeRepository.findAllColumns(fields)).willReturn(rows);
+
+        // when - action or the behaviour that we are going test
+        EmployeeRows employeeRows = employeeService.getAllEmployees(fields);
+
+        // then - verify the output
+        Assertions.assertThat(employeeRows.getFields()).isEqualTo(fields);
+        Assertions.assertThat(employeeRows.getRows()).isSameAs(rows);
+        verify(employeeRepository, never()).findAll();
+
+    }
+
     // JUnit test for getEmployeeById
     @DisplayName("JUnit test for getEmployeeById")
     @Test
@@ -160,12 +204,23 @@ public class EmployeeServiceTests {
     @Test
     public void givenEmployeeObject_whenUpdateEmplyee_thenReturnEmployeeObject() {
         // given- precondition or setup
-        given(employeeRepository.save(employee)).willReturn(employee);
-        employee.setEmail("shyam@gmail.com");
-        employee.setFirstName("Shyam");
+        given(employeeRepository.updateIfVersionMatches(1L, null, "Shyam", "Tiwari", "shyam@gmail.com"))
+                .willReturn(1);
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(Employee.builder()
+                .id(1L)
+                .firstName("Shyam")
+                .lastName("Tiwari")
+                .email("shyam@gmail.com")
+                .version(1L)
+                .build()));
+        Employee changes = Employee.builder()
+                .firstName("Shyam")
+                .lastName("Tiwari")
+                .email("shyam@gmail.com")
+                .build();
 
         // when - action or the behaviour that we are going test
-        Employee updatedEmployee = employeeService.updateEmployee(employee);
+        Employee updatedEmployee = employeeService.updateEmployee(1L, null, changes).get();
 
         // then - verify the output
         Assertions.assertThat(updatedEmployee.getFirstName()).isEqualTo("Shyam");
@@ -180,14 +235,452 @@ public class EmployeeServiceTests {
     public void givenEmployeeId_whenDeleteEmployee_thenNothing() {
         // given- precondition or setup
         long employeeId = 1L;
-        willDoNothing().given(employeeRepository).deleteById(employeeId);
+        given(employeeRepository.deleteByIds(List.of(employeeId))).willReturn(1);
+
+        // when - action or the behaviour that we are going test
+        boolean deleted = employeeService.deleteEmployee(employeeId);
+
+        // then - verify the output
+        Assertions.assertThat(deleted).isTrue();
+        verify(employeeRepository, times(1)).deleteByIds(List.of(employeeId));
+
+    }
+
+    // Junit test for deleteEmployee method when the employee does not exist
+    @DisplayName("Junit test for deleteEmployee method when the employee does not exist")
+    @Test
+    public void givenMissingEmployeeId_whenDeleteEmployee_thenReturnFalse() {
+        // given- precondition or setup
+        given(employeeRepository.deleteByIds(List.of(1L))).willReturn(0);
+
+        // when - action or the behaviour that we are going test
+        boolean deleted = employeeService.deleteEmployee(1L);
+
+        // then - verify the output
+        Assertions.assertThat(deleted).isFalse();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    // Junit test for getEmployeesPage method
+    @DisplayName("Junit test for getEmployeesPage method")
+    @Test
+    public void givenMoreEmployeesThanLimit_whenGetEmployeesPage_thenReturnPageWithNextCursor() {
+        // given- precondition or setup
+        Employee employee1 = Employee.builder()
+                .id(2L)
+                .firstName("akt")
+                .lastName("Tiwari")
+                .email("akt@gmail.com")
+                .build();
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2)))
+                .willReturn(List.of(employee, employee1));
+
+        // when - action or the behaviour that we are going test
+        CursorPage<Employee> page = employeeService.getEmployeesPage(null, 1);
+
+        // then - verify the output
+        Assertions.assertThat(page.getContent()).containsExactly(employee);
+        Assertions.assertThat(page.getNextCursor()).isNotNull();
+
+        // the next cursor resumes right after the last returned employee
+        given(employeeRepository.findByIdGreaterThanOrderByIdAsc(1L, Limit.of(2)))
+                .willReturn(List.of(employee1));
+        CursorPage<Employee> nextPage = employeeService.getEmployeesPage(page.getNextCursor(), 1);
+        Assertions.assertThat(nextPage.getContent()).containsExactly(employee1);
+        Assertions.assertThat(nextPage.getNextCursor()).isNull();
+
+    }
+
+    // Junit test for getEmployeesPage method which throw exception
+    @DisplayName("Junit test for getEmployeesPage method which throw exception")
+    @Test
+    public void givenInvalidCursor_whenGetEmployeesPage_thenThrowException() {
+        // when - action or the behaviour that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class, () -> {
+            employeeService.getEmployeesPage("not-a-cursor!", 10);
+        });
+
+        // then
+        verify(employeeRepository, never()).findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class));
+
+    }
+
+    // Junit test for exportEmployees method
+    @DisplayName("Junit test for exportEmployees method")
+    @Test
+    public void givenEmployees_whenExportEmployees_thenScrollInBatches() {
+        // given- precondition or setup
+        Consumer<Employee> consumer = e -> { };
+        given(employeeRepository.scrollAll(anyInt(), eq(consumer))).willReturn(2L);
+
+        // when - action or the behaviour that we are going test
+        long count = employeeService.exportEmployees(consumer);
+
+        // then - verify the output
+        Assertions.assertThat(count).isEqualTo(2L);
+        verify(employeeRepository, never()).findAll();
+
+    }
+
+    // Junit test for saveEmployees method
+    @DisplayName("Junit test for saveEmployees method")
+    @Test
+    public void givenEmployeesWithDuplicates_whenSaveEmployees_thenInsertOnlyNewEmployees() {
+        // given- precondition or setup
+        Employee employee1 = Employee.builder()
+                .firstName("akt")
+                .lastName("Tiwari")
+                .email("akt@gmail.com")
+                .build();
+        Employee employee2 = Employee.builder()
+                .firstName("akt")
+                .lastName("Tiwari")
+                .email("akt@gmail.com")
+                .build();
+        given(employeeRepository.findExistingEmails(anyCollection())).willReturn(Set.of(employee.getEmail()));
+        willAnswer((invocation) -> {
+            List<Employee> employees = invocation.getArgument(0);
+            employees.forEach(e -> e.setId(10L));
+            return List.of();
+        }).given(employeeRepository).insertAll(anyList());
+
+        // when - action or the behaviour that we are going test
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(List.of(employee, employee1, employee2));
+
+        // then - verify the output
+        Assertions.assertThat(results).extracting(EmployeeBatchResult::getStatus).containsExactly(
+                EmployeeBatchResult.Status.DUPLICATE,
+                EmployeeBatchResult.Status.CREATED,
+                EmployeeBatchResult.Status.DUPLICATE);
+        Assertions.assertThat(results.get(1).getId()).isEqualTo(10L);
+        verify(employeeRepository, times(1)).insertAll(List.of(employee1));
+        verify(employeeRepository, never()).findByEmail(anyString());
+
+    }
+
+    // Junit test for saveEmployees method with emails differing in case and a concurrent insert
+    @DisplayName("Junit test for saveEmployees method with emails differing in case and a concurrent insert")
+    @Test
+    public void givenEmailsDifferingInCase_whenSaveEmployees_thenReportDuplicatesInsteadOfFailing() {
+        // given- precondition or setup
+        Employee upperCase = Employee.builder()
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email("ANKESH@gmail.com")
+                .build();
+        Employee employee1 = Employee.builder()
+                .firstName("akt")
+                .lastName("Tiwari")
+                .email("akt@gmail.com")
+                .build();
+        Employee employee2 = Employee.builder()
+                .firstName("ram")
+                .lastName("Tiwari")
+                .email("ram@gmail.com")
+                .build();
+        given(employeeRepository.findExistingEmails(anyCollection())).willReturn(Set.of("Akt@Gmail.com"));
+        // ram@gmail.com is inserted by someone else between the check and the batch
+        given(employeeRepository.insertAll(anyList())).willAnswer((invocation) -> {
+            List<Employee> employees = invocation.getArgument(0);
+            employees.get(0).setId(10L);
+            return List.of(employees.get(1));
+        });
+
+        // when - action or the behaviour that we are going test
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(List.of(employee, upperCase, employee1, employee2));
+
+        // then - verify the output
+        Assertions.assertThat(results).extracting(EmployeeBatchResult::getStatus).containsExactly(
+                EmployeeBatchResult.Status.CREATED,
+                EmployeeBatchResult.Status.DUPLICATE,
+                EmployeeBatchResult.Status.DUPLICATE,
+                EmployeeBatchResult.Status.DUPLICATE);
+        Assertions.assertThat(results).extracting(EmployeeBatchResult::getIndex).containsExactly(0, 1, 2, 3);
+        verify(employeeRepository).insertAll(List.of(employee, employee2));
+        verify(eventPublisher).publishEvent(argThat((EmployeeChangedEvent event) -> event.getEmployees().equals(List.of(employee))));
+
+    }
+
+    // Junit test for getEmployeesByName method
+    @DisplayName("Junit test for getEmployeesByName method")
+    @Test
+    public void givenFirstNameAndLastName_whenGetEmployeesByName_thenReturnEmployeesList() {
+        // given- precondition or setup
+        given(employeeRepository.findByFirstNameAndLastNameOrderByIdAsc("Ankesh", "Tiwari", Limit.of(1000)))
+                .willReturn(List.of(employee));
+
+        // when - action or the behaviour that we are going test
+        List<Employee> employeeList = employeeService.getEmployeesByName("Ankesh", "Tiwari", 100_000);
+
+        // then - verify the output
+        Assertions.assertThat(employeeList).containsExactly(employee);
+
+    }
+
+    // Junit test for version checked updateEmployee method
+    @DisplayName("Junit test for version checked updateEmployee method")
+    @Test
+    public void givenExpectedVersion_whenUpdateEmployee_thenSingleUpdateStatement() {
+        // given- precondition or setup
+        given(employeeRepository.updateIfVersionMatches(1L, 0L, "Shyam", "Tiwari", "shyam@gmail.com"))
+                .willReturn(1);
+        Employee changes = Employee.builder()
+                .firstName("Shyam")
+                .lastName("Tiwari")
+                .email("shyam@gmail.com")
+                .build();
+
+        // when - action or the behaviour that we are going test
+        Optional<Employee> updatedEmployee = employeeService.updateEmployee(1L, 0L, changes);
+
+        // then - verify the output
+        Assertions.assertThat(updatedEmployee).isPresent();
+        Assertions.assertThat(updatedEmployee.get().getVersion()).isEqualTo(1L);
+        Assertions.assertThat(updatedEmployee.get().getFirstName()).isEqualTo("Shyam");
+        verify(employeeRepository, never()).findById(anyLong());
+        verify(employeeRepository, never()).save(any(Employee.class));
+        verify(eventPublisher).publishEvent(any(EmployeeChangedEvent.class));
+
+    }
+
+    // Junit test for version checked updateEmployee method which throw exception
+    @DisplayName("Junit test for version checked updateEmployee method which throw exception")
+    @Test
+    public void givenStaleVersion_whenUpdateEmployee_thenThrowException() {
+        // given- precondition or setup
+        given(employeeRepository.updateIfVersionMatches(1L, 0L, "Shyam", "Tiwari", "shyam@gmail.com"))
+                .willReturn(0);
+        given(employeeRepository.existsById(1L)).willReturn(true);
+        Employee changes = Employee.builder()
+                .firstName("Shyam")
+                .lastName("Tiwari")
+                .email("shyam@gmail.com")
+                .build();
+
+        // when - action or the behaviour that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(PreconditionFailedException.class, () -> {
+            employeeService.updateEmployee(1L, 0L, changes);
+        });
+
+        // then - verify the output
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+
+    }
+
+    // Junit test for updateEmployee method with an email of another employee
+    @DisplayName("Junit test for updateEmployee method with an email of another employee")
+    @Test
+    public void givenTakenEmail_whenUpdateEmployee_thenThrowException() {
+        // given- precondition or setup
+        given(employeeRepository.updateIfVersionMatches(1L, null, "Shyam", "Tiwari", "shyam@gmail.com"))
+                .willThrow(new DuplicateKeyException("uk_employees_email"));
+        Employee changes = Employee.builder()
+                .firstName("Shyam")
+                .lastName("Tiwari")
+                .email("shyam@gmail.com")
+                .build();
+
+        // when - action or the behaviour that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(DuplicateEmailException.class, () -> {
+            employeeService.updateEmployee(1L, null, changes);
+        });
+
+        // then - verify the output
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+
+    }
+
+    // Junit test for version checked updateEmployee method (for negative scenario)
+    @DisplayName("Junit test for version checked updateEmployee method (for negative scenario)")
+    @Test
+    public void givenMissingEmployee_whenUpdateEmployee_thenReturnEmpty() {
+        // given- precondition or setup
+        given(employeeRepository.updateIfVersionMatches(1L, null, "Shyam", "Tiwari", "shyam@gmail.com"))
+                .willReturn(0);
+        Employee changes = Employee.builder()
+                .firstName("Shyam")
+                .lastName("Tiwari")
+                .email("shyam@gmail.com")
+                .build();
+
+        // when - action or the behaviour that we are going test
+        Optional<Employee> updatedEmployee = employeeService.updateEmployee(1L, null, changes);
+
+        // then - verify the output
+        Assertions.assertThat(updatedEmployee).isEmpty();
+        verify(employeeRepository, never()).findById(anyLong());
+
+    }
+
+
+    // Junit test for the change event of saveEmployee
+    @DisplayName("Junit test for the change event of saveEmployee")
+    @Test
+    public void givenEmployeeObject_whenSaveEmployee_thenPublishCreatedEvent() {
+        // given- precondition or setup
+        given(employeeRepository.saveAndFlush(employee)).willReturn(employee);
+
+        // when - action or the behaviour that we are going test
+        employeeService.saveEmployee(employee);
+
+        // then - verify the output
+        ArgumentCaptor<EmployeeChangedEvent> event = ArgumentCaptor.forClass(EmployeeChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        Assertions.assertThat(event.getValue().getType()).isEqualTo(EmployeeChangedEvent.Type.CREATED);
+        Assertions.assertThat(event.getValue().getEmployees()).containsExactly(employee);
+    }
+
+    // Junit test for the change event of a rejected saveEmployee
+    @DisplayName("Junit test for the change event of a rejected saveEmployee")
+    @Test
+    public void givenExistingEmail_whenSaveEmployee_thenPublishNoEvent() {
+        // given- precondition or setup
+        given(employeeRepository.saveAndFlush(employee)).willThrow(new DataIntegrityViolationException("duplicate",
+                new ConstraintViolationException("duplicate", null, Employee.EMAIL_UNIQUE_INDEX)));
+
+        // when - action or the behaviour that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(DuplicateEmailException.class, () -> employeeService.saveEmployee(employee));
+
+        // then - verify the output
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    // Junit test for the change event of deleteEmployee
+    @DisplayName("Junit test for the change event of deleteEmployee")
+    @Test
+    public void givenEmployeeId_whenDeleteEmployee_thenPublishDeletedEvent() {
+        // given- precondition or setup
+        long employeeId = 1L;
+        given(employeeRepository.deleteByIds(List.of(employeeId))).willReturn(1);
 
         // when - action or the behaviour that we are going test
         employeeService.deleteEmployee(employeeId);
 
         // then - verify the output
-        verify(employeeRepository, times(1)).deleteById(employeeId);
+        ArgumentCaptor<EmployeeChangedEvent> event = ArgumentCaptor.forClass(EmployeeChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        Assertions.assertThat(event.getValue().getType()).isEqualTo(EmployeeChangedEvent.Type.DELETED);
+        Assertions.assertThat(event.getValue().getEmployees()).extracting(Employee::getId).containsExactly(employeeId);
+    }
+
+
+    // Junit test for deleteEmployees method
+    @DisplayName("Junit test for deleteEmployees method")
+    @Test
+    public void givenIdList_whenDeleteEmployees_thenDeleteOnlyExistingEmployeesInOneStatement() {
+        // given- precondition or setup
+        given(employeeRepository.findExistingIds(List.of(1L, 2L, 3L))).willReturn(List.of(1L, 3L));
+        given(employeeRepository.deleteByIds(List.of(1L, 3L))).willReturn(2);
+
+        // when - action or the behaviour that we are going test
+        long deleted = employeeService.deleteEmployees(List.of(1L, 2L, 3L, 1L));
+
+        // then - verify the output
+        Assertions.assertThat(deleted).isEqualTo(2);
+        ArgumentCaptor<EmployeeChangedEvent> event = ArgumentCaptor.forClass(EmployeeChangedEvent.class);
+        verify(eventPublisher).publishEvent(event.capture());
+        Assertions.assertThat(event.getValue().getEmployees()).extracting(Employee::getId).containsExactly(1L, 3L);
+    }
+
+    // Junit test for deleteEmployeesByEmailDomain method
+    @DisplayName("Junit test for deleteEmployeesByEmailDomain method")
+    @Test
+    public void givenEmailDomain_whenDeleteEmployeesByEmailDomain_thenDeleteMatchingEmployees() {
+        // given- precondition or setup
+        given(employeeRepository.findIdsByEmailLike(0L, "%@contractor!_co.com", Limit.of(1000)))
+                .willReturn(List.of(4L, 7L));
+        given(employeeRepository.deleteByIds(List.of(4L, 7L))).willReturn(2);
+
+        // when - action or the behaviour that we are going test
+        long deleted = employeeService.deleteEmployeesByEmailDomain("contractor_co.com");
+
+        // then - verify the output
+        Assertions.assertThat(deleted).isEqualTo(2);
+        verify(employeeRepository, times(1)).findIdsByEmailLike(anyLong(), anyString(), any(Limit.class));
+    }
+
+    // Junit test for deleteEmployeesByEmailDomain method without a domain
+    @DisplayName("Junit test for deleteEmployeesByEmailDomain method without a domain")
+    @Test
+    public void givenBlankEmailDomain_whenDeleteEmployeesByEmailDomain_thenThrowsException() {
+        // when - action or the behaviour that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(BadRequestException.class,
+                () -> employeeService.deleteEmployeesByEmailDomain(" "));
+
+        // then - verify the output
+        verify(employeeRepository, never()).deleteByIds(anyCollection());
+    }
+
+    // Junit test for patchEmployee method
+    @DisplayName("Junit test for patchEmployee method")
+    @Test
+    public void givenMergePatch_whenPatchEmployee_thenOnlyGivenFieldChanges() {
+        // given- precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        EmployeePatch patch = EmployeePatch.builder().firstName("Ram").build();
+
+        // when - action or the behaviour that we are going test
+        Optional<Employee> patchedEmployee = employeeService.patchEmployee(1L, 0L, patch);
 
+        // then - verify the output
+        Assertions.assertThat(patchedEmployee).isPresent();
+        Assertions.assertThat(patchedEmployee.get().getFirstName()).isEqualTo("Ram");
+        Assertions.assertThat(patchedEmployee.get().getEmail()).isEqualTo("ankesh@gmail.com");
+        verify(employeeRepository).flush();
+        verify(eventPublisher).publishEvent(any(EmployeeChangedEvent.class));
+    }
+
+    // Junit test for patchEmployee method with a patch that changes nothing
+    @DisplayName("Junit test for patchEmployee method with a patch that changes nothing")
+    @Test
+    public void givenUnchangedValues_whenPatchEmployee_thenNothingIsWritten() {
+        // given- precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        EmployeePatch patch = EmployeePatch.builder().firstName("Ankesh").email("ankesh@gmail.com").build();
+
+        // when - action or the behaviour that we are going test
+        Optional<Employee> patchedEmployee = employeeService.patchEmployee(1L, null, patch);
+
+        // then - verify the output
+        Assertions.assertThat(patchedEmployee).contains(employee);
+        verify(employeeRepository, never()).flush();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    // Junit test for patchEmployee method with a stale version
+    @DisplayName("Junit test for patchEmployee method with a stale version")
+    @Test
+    public void givenStaleVersion_whenPatchEmployee_thenThrowsPreconditionFailed() {
+        // given- precondition or setup
+        employee.setVersion(3L);
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        EmployeePatch patch = EmployeePatch.builder().firstName("Ram").build();
+
+        // when - action or the behaviour that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(PreconditionFailedException.class,
+                () -> employeeService.patchEmployee(1L, 2L, patch));
+
+        // then - verify the output
+        Assertions.assertThat(employee.getFirstName()).isEqualTo("Ankesh");
+        verify(employeeRepository, never()).flush();
+    }
+
+
+    // Junit test for patchEmployee method with a concurrent change before the flush
+    @DisplayName("Junit test for patchEmployee method with a concurrent change before the flush")
+    @Test
+    public void givenConcurrentChange_whenPatchEmployee_thenThrowException() {
+        // given- precondition or setup
+        given(employeeRepository.findById(1L)).willReturn(Optional.of(employee));
+        willThrow(new ObjectOptimisticLockingFailureException(Employee.class, 1L)).given(employeeRepository).flush();
+        EmployeePatch patch = EmployeePatch.builder().firstName("Ram").build();
+
+        // when - action or the behaviour that we are going test
+        org.junit.jupiter.api.Assertions.assertThrows(PreconditionFailedException.class,
+                () -> employeeService.patchEmployee(1L, null, patch));
+
+        // then - verify the output
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
     }
 
 }
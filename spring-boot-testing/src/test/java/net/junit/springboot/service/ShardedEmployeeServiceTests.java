@@ -0,0 +1,217 @@
+package net.junit.springboot.service;
+
+import net.junit.springboot.dto.CursorPage;
+import net.junit.springboot.dto.EmployeeBatchResult;
+import net.junit.springboot.dto.EmployeePatch;
+import net.junit.springboot.event.EmployeeChangedEvent;
+import net.junit.springboot.exception.DuplicateEmailException;
+import net.junit.springboot.exception.PreconditionFailedException;
+import net.junit.springboot.model.Employee;
+import net.junit.springboot.service.impl.ShardedEmployeeServiceImpl;
+import net.junit.springboot.shard.EmployeeIdGenerator;
+import net.junit.springboot.shard.ShardedEmployeeStore;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+// the service over three in-memory H2 shards, the email directory on the first one
+public class ShardedEmployeeServiceTests {
+
+    private static final int SHARDS = 3;
+
+    private ShardedEmployeeStore store;
+
+    private ApplicationEventPublisher eventPublisher;
+
+    private EmployeeService employeeService;
+
+    private List<Boolean> publishedInTransaction;
+
+    @BeforeEach
+    public void setup() {
+        List<DataSource> shards = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            shards.add(database("sharded-service-" + i));
+        }
+        new ResourceDatabasePopulator(new ClassPathResource("db/shard/email-directory.sql")).execute(shards.get(0));
+        store = new ShardedEmployeeStore(shards, shards.get(0), new EmployeeIdGenerator(1), Executors.newFixedThreadPool(SHARDS));
+
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        publishedInTransaction = new ArrayList<>();
+        willAnswer(invocation -> publishedInTransaction.add(TransactionSynchronizationManager.isActualTransactionActive()))
+                .given(eventPublisher).publishEvent(any(Object.class));
+        DataSource application = new DriverManagerDataSource("jdbc:h2:mem:sharded-service-app;DB_CLOSE_DELAY=-1", "sa", "");
+        employeeService = new ShardedEmployeeServiceImpl(store, eventPublisher, new DataSourceTransactionManager(application));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.close();
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new JdbcTemplate(dataSource).execute("drop all objects");
+        new ResourceDatabasePopulator(new ClassPathResource("db/shard/employees.sql")).execute(dataSource);
+        return dataSource;
+    }
+
+    private static Employee employee(String email) {
+        return Employee.builder()
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email(email)
+                .build();
+    }
+
+    // Junit test for saveEmployee method
+    @DisplayName("Junit test for saveEmployee method")
+    @Test
+    public void givenEmployeeObject_whenSaveEmployee_thenStoredOnItsShardAndEventPublishedInTransaction() {
+        // given- precondition or setup
+
+        // when - action or the behaviour that we are going test
+        Employee savedEmployee = employeeService.saveEmployee(employee("ankesh@gmail.com"));
+
+        // then - verify the output
+        assertThat(employeeService.getEmployeeById(savedEmployee.getId())).get()
+                .extracting(Employee::getEmail).isEqualTo("ankesh@gmail.com");
+        verify(eventPublisher).publishEvent(any(EmployeeChangedEvent.class));
+        assertThat(publishedInTransaction).containsExactly(true);
+    }
+
+    // Junit test for saveEmployee method which throws exception
+    @DisplayName("Junit test for saveEmployee method which throws exception")
+    @Test
+    public void givenExistingEmail_whenSaveEmployee_thenThrowsException() {
+        // given- precondition or setup
+        employeeService.saveEmployee(employee("ankesh@gmail.com"));
+
+        // when - action or the behaviour that we are going test
+        assertThrows(DuplicateEmailException.class, () -> employeeService.saveEmployee(employee("ankesh@gmail.com")));
+
+        // then - verify the output
+        assertThat(employeeService.getAllEmployees()).hasSize(1);
+        assertThat(publishedInTransaction).hasSize(1);
+    }
+
+    // Junit test for saveEmployees method
+    @DisplayName("Junit test for saveEmployees method")
+    @Test
+    public void givenBatchWithDuplicates_whenSaveEmployees_thenReportDuplicatesAndSaveTheRest() {
+        // given- precondition or setup
+        employeeService.saveEmployee(employee("ankesh@gmail.com"));
+
+        // when - action or the behaviour that we are going test
+        List<EmployeeBatchResult> results = employeeService.saveEmployees(List.of(
+                employee("ram@gmail.com"),
+                employee("ankesh@gmail.com"),
+                employee("ram@gmail.com"),
+                employee("shyam@gmail.com")));
+
+        // then - verify the output
+        assertThat(results).extracting(EmployeeBatchResult::getStatus).containsExactly(
+                EmployeeBatchResult.Status.CREATED,
+                EmployeeBatchResult.Status.DUPLICATE,
+                EmployeeBatchResult.Status.DUPLICATE,
+                EmployeeBatchResult.Status.CREATED);
+        assertThat(results).extracting(EmployeeBatchResult::getIndex).containsExactly(0, 1, 2, 3);
+        assertThat(employeeService.getAllEmployees()).hasSize(3);
+    }
+
+    // Junit test for getEmployeesPage method
+    @DisplayName("Junit test for getEmployeesPage method")
+    @Test
+    public void givenEmployeesOnAllShards_whenGetEmployeesPage_thenWalkAllOfThemInIdOrder() {
+        // given- precondition or setup
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            ids.add(employeeService.saveEmployee(employee("ankesh" + i + "@gmail.com")).getId());
+        }
+        ids.sort(null);
+
+        // when - action or the behaviour that we are going test
+        List<Long> pagedIds = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPage<Employee> page = employeeService.getEmployeesPage(after, 10);
+            page.getContent().forEach(employee -> pagedIds.add(employee.getId()));
+            after = page.getNextCursor();
+        } while (after != null);
+
+        // then - verify the output
+        assertThat(pagedIds).containsExactlyElementsOf(ids);
+    }
+
+    // Junit test for patchEmployee method which throws exception
+    @DisplayName("Junit test for patchEmployee method which throws exception")
+    @Test
+    public void givenStaleVersion_whenPatchEmployee_thenThrowsPreconditionFailed() {
+        // given- precondition or setup
+        Employee savedEmployee = employeeService.saveEmployee(employee("ankesh@gmail.com"));
+        EmployeePatch patch = EmployeePatch.builder().firstName("Ram").build();
+
+        // when - action or the behaviour that we are going test
+        assertThrows(PreconditionFailedException.class, () -> employeeService.patchEmployee(savedEmployee.getId(), 5L, patch));
+        Employee patched = employeeService.patchEmployee(savedEmployee.getId(), 0L, patch).get();
+
+        // then - verify the output
+        assertThat(patched.getFirstName()).isEqualTo("Ram");
+        assertThat(patched.getVersion()).isEqualTo(1);
+    }
+
+    // Junit test for deleteEmployeesByEmailDomain method
+    @DisplayName("Junit test for deleteEmployeesByEmailDomain method")
+    @Test
+    public void givenEmployeesOfTwoDomains_whenDeleteEmployeesByEmailDomain_thenOnlyThatDomainIsDeleted() {
+        // given- precondition or setup
+        for (int i = 0; i < 10; i++) {
+            employeeService.saveEmployee(employee("ankesh" + i + "@gmail.com"));
+            employeeService.saveEmployee(employee("ankesh" + i + "@gmail_com.in"));
+        }
+
+        // when - action or the behaviour that we are going test
+        long deleted = employeeService.deleteEmployeesByEmailDomain("gmail.com");
+
+        // then - verify the output
+        assertThat(deleted).isEqualTo(10);
+        assertThat(employeeService.getAllEmployees()).extracting(Employee::getEmail).allMatch(email -> email.endsWith("@gmail_com.in"));
+        // the emails are free again
+        employeeService.saveEmployee(employee("ankesh0@gmail.com"));
+    }
+
+    // Junit test for deleteEmployee method
+    @DisplayName("Junit test for deleteEmployee method")
+    @Test
+    public void givenMissingEmployee_whenDeleteEmployee_thenNothingIsPublished() {
+        // given- precondition or setup
+
+        // when - action or the behaviour that we are going test
+        boolean deleted = employeeService.deleteEmployee(42L);
+
+        // then - verify the output
+        assertThat(deleted).isFalse();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+}
@@ -0,0 +1,396 @@
+package net.junit.springboot.shard;
+
+import net.junit.springboot.model.Employee;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// three in-memory H2 shards plus a separate H2 database for the email directory
+public class ShardedEmployeeStoreTests {
+
+    private static final int SHARDS = 3;
+
+    private List<DataSource> shards;
+
+    private DataSource directory;
+
+    private ShardedEmployeeStore store;
+
+    @BeforeEach
+    public void setup() {
+        shards = new ArrayList<>();
+        for (int i = 0; i < SHARDS; i++) {
+            shards.add(database("shard-" + i, "db/shard/employees.sql"));
+        }
+        directory = database("shard-directory", "db/shard/email-directory.sql");
+        store = new ShardedEmployeeStore(shards, directory, new EmployeeIdGenerator(1), Executors.newFixedThreadPool(SHARDS));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        store.close();
+    }
+
+    private static DataSource database(String name, String schema) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        new JdbcTemplate(dataSource).execute("drop all objects");
+        new ResourceDatabasePopulator(new ClassPathResource(schema)).execute(dataSource);
+        return dataSource;
+    }
+
+    private List<Employee> insertEmployees(int count) {
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            employees.add(store.insert(Employee.builder()
+                    .firstName("Ankesh")
+                    .lastName(i % 2 == 0 ? "Tiwari" : "Sharma")
+                    .email("ankesh" + i + "@gmail.com")
+                    .build()));
+        }
+        return employees;
+    }
+
+    private long rowsOnShard(int shard) {
+        return new JdbcTemplate(shards.get(shard)).queryForObject("select count(*) from employees", Long.class);
+    }
+
+    // Junit test for placing employees on the shard of their id
+    @DisplayName("Junit test for placing employees on the shard of their id")
+    @Test
+    public void givenEmployees_whenInsert_thenEveryShardHoldsItsEmployees() {
+        // when - action or the behaviour that we are going test
+        List<Employee> employees = insertEmployees(30);
+
+        // then - verify the output
+        for (int shard = 0; shard < SHARDS; shard++) {
+            int expectedShard = shard;
+            assertThat(rowsOnShard(shard))
+                    .isGreaterThan(0)
+                    .isEqualTo(employees.stream().filter(e -> store.shardOf(e.getId()) == expectedShard).count());
+        }
+        Employee employee = employees.get(7);
+        assertThat(store.findById(employee.getId())).get().extracting(Employee::getEmail).isEqualTo("ankesh7@gmail.com");
+        assertThat(store.findByEmail("ankesh7@gmail.com")).get().extracting(Employee::getId).isEqualTo(employee.getId());
+    }
+
+    // Junit test for unique emails across shards
+    @DisplayName("Junit test for unique emails across shards")
+    @Test
+    public void givenExistingEmail_whenInsert_thenThrowsDuplicateKeyAndNothingIsStored() {
+        // given- precondition or setup
+        insertEmployees(1);
+
+        // when - action or the behaviour that we are going test
+        assertThrows(DuplicateKeyException.class, () -> store.insert(Employee.builder()
+                .firstName("Ram")
+                .lastName("Tiwari")
+                .email("ankesh0@gmail.com")
+                .build()));
+
+        // then - verify the output
+        long rows = 0;
+        for (int shard = 0; shard < SHARDS; shard++) {
+            rows += rowsOnShard(shard);
+        }
+        assertThat(rows).isEqualTo(1);
+    }
+
+    // Junit test for batch inserts over all shards
+    @DisplayName("Junit test for batch inserts over all shards")
+    @Test
+    public void givenBatchWithTakenEmails_whenInsertAll_thenInsertTheRestAndReturnTheTakenOnes() {
+        // given- precondition or setup
+        insertEmployees(1);
+        List<Employee> batch = new ArrayList<>();
+        for (int i = 1; i <= 60; i++) {
+            batch.add(Employee.builder().firstName("Ram").lastName("Tiwari").email("ram" + i + "@gmail.com").build());
+        }
+        Employee taken = Employee.builder().firstName("Ram").lastName("Tiwari").email("ankesh0@gmail.com").build();
+        Employee repeated = Employee.builder().firstName("Ram").lastName("Tiwari").email("RAM1@gmail.com").build();
+        batch.add(taken);
+        batch.add(repeated);
+
+        // when - action or the behaviour that we are going test
+        List<Employee> notInserted = store.insertAll(batch);
+
+        // then - verify the output
+        assertThat(notInserted).containsExactlyInAnyOrder(taken, repeated);
+        List<Employee> inserted = batch.subList(0, 60);
+        assertThat(inserted).extracting(Employee::getId).doesNotContain(0L).doesNotHaveDuplicates();
+        Set<Integer> shardsHit = new HashSet<>();
+        for (Employee employee : inserted) {
+            shardsHit.add(store.shardOf(employee.getId()));
+            assertThat(store.findByEmail(employee.getEmail())).get().extracting(Employee::getId).isEqualTo(employee.getId());
+        }
+        assertThat(shardsHit).hasSize(SHARDS);
+        assertThat(rowsOnShard(0) + rowsOnShard(1) + rowsOnShard(2)).isEqualTo(61);
+    }
+
+    // Junit test for a failing shard during a batch insert
+    @DisplayName("Junit test for a failing shard during a batch insert")
+    @Test
+    public void givenBrokenShard_whenInsertAll_thenNoClaimIsLeftWithoutEmployee() {
+        // given- precondition or setup
+        new JdbcTemplate(shards.get(1)).execute("drop table employees");
+        List<Employee> batch = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            batch.add(Employee.builder().firstName("Ram").lastName("Tiwari").email("ram" + i + "@gmail.com").build());
+        }
+
+        // when - action or the behaviour that we are going test
+        assertThrows(DataAccessException.class, () -> store.insertAll(batch));
+
+        // then - verify the output - the rows of shard 0 went in before shard 1 failed
+        List<Long> claimedIds = new JdbcTemplate(directory).queryForList("select employee_id from employee_email_directory", Long.class);
+        assertThat(claimedIds).hasSize((int) rowsOnShard(0) + (int) rowsOnShard(2));
+        for (long id : claimedIds) {
+            assertThat(store.findById(id)).isPresent();
+        }
+    }
+
+    // Junit test for scatter-gather paging with a k-way merge
+    @DisplayName("Junit test for scatter-gather paging with a k-way merge")
+    @Test
+    public void givenEmployeesOnAllShards_whenFindPage_thenReturnPagesInIdOrder() {
+        // given- precondition or setup
+        List<Long> ids = insertEmployees(25).stream().map(Employee::getId).sorted().toList();
+
+        // when - action or the behaviour that we are going test
+        List<Long> pagedIds = new ArrayList<>();
+        long after = 0;
+        List<Employee> page;
+        do {
+            page = store.findPage(after, 10);
+            page.forEach(employee -> pagedIds.add(employee.getId()));
+            after = page.isEmpty() ? after : page.get(page.size() - 1).getId();
+        } while (page.size() == 10);
+
+        // then - verify the output
+        assertThat(pagedIds).containsExactlyElementsOf(ids);
+    }
+
+    // Junit test for name queries fanning out to every shard
+    @DisplayName("Junit test for name queries fanning out to every shard")
+    @Test
+    public void givenSharedName_whenFindByName_thenReturnMatchesOfAllShards() {
+        // given- precondition or setup - 30 Tiwaris, so every shard holds some of them
+        List<Employee> employees = insertEmployees(60);
+        List<Long> tiwariIds = employees.stream()
+                .filter(employee -> employee.getLastName().equals("Tiwari"))
+                .map(Employee::getId)
+                .sorted()
+                .toList();
+
+        // when - action or the behaviour that we are going test
+        List<Employee> all = store.findByName("Ankesh", "Tiwari", 50);
+        List<Employee> limited = store.findByName("Ankesh", "Tiwari", 4);
+
+        // then - verify the output
+        assertThat(all).extracting(Employee::getId).containsExactlyElementsOf(tiwariIds);
+        assertThat(limited).extracting(Employee::getId).containsExactlyElementsOf(tiwariIds.subList(0, 4));
+        Set<Integer> shardsHit = new HashSet<>();
+        all.forEach(employee -> shardsHit.add(store.shardOf(employee.getId())));
+        assertThat(shardsHit).hasSize(SHARDS);
+    }
+
+    // Junit test for a failing shard during a fan-out
+    @DisplayName("Junit test for a failing shard during a fan-out")
+    @Test
+    public void givenBrokenShard_whenFindPage_thenThrowsDataAccessExceptionOfTheShard() {
+        // given- precondition or setup
+        insertEmployees(5);
+        new JdbcTemplate(shards.get(1)).execute("drop table employees");
+
+        // when - action or the behaviour that we are going test
+        DataAccessException exception = assertThrows(DataAccessException.class, () -> store.findPage(0, 10));
+
+        // then - verify the output
+        assertThat(exception).hasMessageContaining("bad SQL grammar");
+    }
+
+    // Junit test for moving the email claim on update and releasing it on delete
+    @DisplayName("Junit test for moving the email claim on update and releasing it on delete")
+    @Test
+    public void givenEmployee_whenUpdateEmailAndDelete_thenDirectoryFollows() {
+        // given- precondition or setup
+        Employee employee = insertEmployees(1).get(0);
+        Employee changes = Employee.builder()
+                .firstName("Ankesh")
+                .lastName("Tiwari")
+                .email("ankesh.tiwari@gmail.com")
+                .build();
+
+        // when - action or the behaviour that we are going test
+        Employee updated = store.update(employee.getId(), 0L, changes).get();
+
+        // then - verify the output
+        assertThat(updated.getVersion()).isEqualTo(1);
+        assertThat(store.findByEmail("ankesh0@gmail.com")).isEmpty();
+        assertThat(store.findByEmail("ankesh.tiwari@gmail.com")).get().extracting(Employee::getId).isEqualTo(employee.getId());
+
+        assertThat(store.delete(employee.getId())).isTrue();
+        assertThat(store.delete(employee.getId())).isFalse();
+        assertThat(store.findByEmail("ankesh.tiwari@gmail.com")).isEmpty();
+        // the email is free again
+        assertThat(store.insert(changes).getEmail()).isEqualTo("ankesh.tiwari@gmail.com");
+    }
+
+    // Junit test for an email lookup in other case than the email was stored in
+    @DisplayName("Junit test for an email lookup in other case than the email was stored in")
+    @Test
+    public void givenCaseInsensitiveDirectory_whenFindByEmailInOtherCase_thenEmployeeIsFound() {
+        // given- precondition or setup - a directory that compares emails like MySQL's default collation
+        new JdbcTemplate(directory).execute("alter table employee_email_directory alter column email set data type varchar_ignorecase(255)");
+        Employee employee = insertEmployees(1).get(0);
+
+        // when - action or the behaviour that we are going test
+        Optional<Employee> found = store.findByEmail("Ankesh0@Gmail.com");
+
+        // then - verify the output
+        assertThat(found).get().extracting(Employee::getId).isEqualTo(employee.getId());
+    }
+
+    // Junit test for an update without an expected version racing another write
+    @DisplayName("Junit test for an update without an expected version racing another write")
+    @Test
+    public void givenConcurrentWrite_whenUpdateWithoutExpectedVersion_thenUpdateIsUnconditional() {
+        // given- precondition or setup - another write lands right after the store read the employee
+        Employee employee = insertEmployees(1).get(0);
+        JdbcTemplate shard = new JdbcTemplate(shards.get(store.shardOf(employee.getId())));
+        ShardedEmployeeStore racingStore = new ShardedEmployeeStore(shards, directory, new EmployeeIdGenerator(2),
+                Executors.newFixedThreadPool(SHARDS)) {
+            @Override
+            public Optional<Employee> findById(long id) {
+                Optional<Employee> found = super.findById(id);
+                shard.update("update employees set version = version + 1 where id = ? and version = 0", id);
+                return found;
+            }
+        };
+        Employee changes = Employee.builder()
+                .firstName("Ram")
+                .lastName("Tiwari")
+                .email("ankesh0@gmail.com")
+                .build();
+
+        // when - action or the behaviour that we are going test
+        Optional<Employee> updated = racingStore.update(employee.getId(), null, changes);
+
+        // then - verify the output
+        assertThat(updated).get().extracting(Employee::getFirstName).isEqualTo("Ram");
+        assertThat(updated).get().extracting(Employee::getVersion).isEqualTo(2L);
+        assertThat(racingStore.update(employee.getId() + 1, null, changes)).isEmpty();
+    }
+
+    // Junit test for unique and ordered ids
+    @DisplayName("Junit test for unique and ordered ids")
+    @Test
+    public void givenIdGenerator_whenNextId_thenIdsAreUniqueAndIncreasing() {
+        // given- precondition or setup
+        EmployeeIdGenerator idGenerator = new EmployeeIdGenerator(5);
+
+        // when - action or the behaviour that we are going test
+        long[] ids = new long[10_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = idGenerator.nextId();
+        }
+
+        // then - verify the output
+        for (int i = 1; i < ids.length; i++) {
+            assertThat(ids[i]).isGreaterThan(ids[i - 1]);
+        }
+    }
+
+
+    // Junit test for ids running ahead of the clock when the sequence is used up
+    @DisplayName("Junit test for ids running ahead of the clock when the sequence is used up")
+    @Test
+    public void givenSequenceUsedUp_whenNextId_thenWaitOnceTooFarAheadOfTheClock() {
+        // given- precondition or setup - a clock that only moves while the generator waits for it
+        long[] clock = {EmployeeIdGenerator.EPOCH_MILLIS + 10_000_900};
+        List<Long> waits = new ArrayList<>();
+        EmployeeIdGenerator idGenerator = new EmployeeIdGenerator(5, () -> clock[0]) {
+            @Override
+            void sleep(long millis) {
+                waits.add(millis);
+                clock[0] += millis;
+            }
+        };
+        int perMilli = 1 << EmployeeIdGenerator.SEQUENCE_BITS;
+
+        // when - action or the behaviour that we are going test - more ids than a 100k batch needs
+        Set<Long> ids = new HashSet<>();
+        for (int i = 0; i < perMilli * (EmployeeIdGenerator.MAX_BORROWED_MILLIS + 1); i++) {
+            ids.add(idGenerator.nextId());
+        }
+        List<Long> waitsWhileBorrowing = List.copyOf(waits);
+        long id = idGenerator.nextId();
+
+        // then - verify the output
+        assertThat(ids).hasSize(perMilli * (int) (EmployeeIdGenerator.MAX_BORROWED_MILLIS + 1));
+        assertThat(waitsWhileBorrowing).isEmpty();
+        assertThat(waits).containsExactly(1L);
+        assertThat(ids).doesNotContain(id);
+        assertThat(id >>> (EmployeeIdGenerator.NODE_BITS + EmployeeIdGenerator.SEQUENCE_BITS))
+                .isEqualTo(10_000_900 + EmployeeIdGenerator.MAX_BORROWED_MILLIS + 1);
+    }
+
+    // Junit test for a clock that was set back
+    @DisplayName("Junit test for a clock that was set back")
+    @Test
+    public void givenClockSetBack_whenSequenceUsedUp_thenNextIdFailsWithoutRepeatingIds() {
+        // given- precondition or setup
+        long[] clock = {EmployeeIdGenerator.EPOCH_MILLIS + 10_000_000};
+        EmployeeIdGenerator idGenerator = new EmployeeIdGenerator(5, () -> clock[0]);
+        Set<Long> ids = new HashSet<>();
+        ids.add(idGenerator.nextId());
+        clock[0] -= 3_600_000;
+
+        // when - action or the behaviour that we are going test
+        for (int i = 1; i < 1 << EmployeeIdGenerator.SEQUENCE_BITS; i++) {
+            ids.add(idGenerator.nextId());
+        }
+
+        // then - verify the output
+        assertThrows(IllegalStateException.class, idGenerator::nextId);
+        assertThrows(IllegalStateException.class, idGenerator::nextId);
+        clock[0] += 3_600_000;
+        assertThat(ids.add(idGenerator.nextId())).isTrue();
+    }
+
+    // Junit test for ids that JavaScript clients can read without losing precision
+    @DisplayName("Junit test for ids that JavaScript clients can read without losing precision")
+    @Test
+    public void givenIdGenerator_whenNextId_thenIdsAreSafeJavaScriptIntegers() {
+        // given- precondition or setup
+        long maxSafeInteger = (1L << 53) - 1;
+        EmployeeIdGenerator idGenerator = new EmployeeIdGenerator(63);
+
+        // when - action or the behaviour that we are going test
+        long id = idGenerator.nextId();
+
+        // then - verify the output
+        assertThat(id).isPositive().isLessThanOrEqualTo(maxSafeInteger);
+        assertThat((long) (double) id).isEqualTo(id);
+        // even the last id the layout can produce
+        assertThat(EmployeeIdGenerator.TIMESTAMP_BITS + EmployeeIdGenerator.NODE_BITS + EmployeeIdGenerator.SEQUENCE_BITS)
+                .isEqualTo(53);
+    }
+}